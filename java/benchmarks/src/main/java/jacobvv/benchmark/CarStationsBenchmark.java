@@ -0,0 +1,59 @@
+package jacobvv.benchmark;
+
+import jacobvv.dynamicprogramming.CarStations;
+import jacobvv.dynamicprogramming.ParallelCarStations;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 装配线调度问题
+ * random：装配时间和移动时间随机
+ * repetitive：所有的装配时间相同，大量相等的候选路径
+ * nearIdentical：两条装配线的装配时间只相差-1～1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CarStationsBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    @Param({Inputs.RANDOM, Inputs.REPETITIVE, Inputs.NEAR_IDENTICAL})
+    private String kind;
+
+    private final CarStations target = new CarStations();
+    private final ParallelCarStations parallel = new ParallelCarStations();
+    private int[] e;
+    private int[] x;
+    private int[][] a;
+    private int[][] t;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(size);
+        e = new int[]{2, 4};
+        x = new int[]{3, 2};
+        a = Inputs.stationTimes(kind, size);
+        t = new int[2][size - 1];
+        for (int j = 0; j < size - 1; j++) {
+            t[0][j] = 1 + random.nextInt(5);
+            t[1][j] = 1 + random.nextInt(5);
+        }
+    }
+
+    @Benchmark
+    public int[] fastestAssembly() {
+        return target.fastestAssembly(e, x, a, t, size);
+    }
+
+    @Benchmark
+    public int[] fastestAssemblyParallel() {
+        return parallel.fastestAssembly(e, x, a, t, size);
+    }
+}
@@ -0,0 +1,96 @@
+package jacobvv.benchmark;
+
+import java.util.Random;
+
+/**
+ * 基准测试的输入数据
+ * random：随机字符串，字符集为26个小写字母
+ * repetitive：由很短的周期重复组成的字符串，大量的部分匹配，是朴素算法和枚举算法的最坏情况
+ * nearIdentical：第二个字符串由第一个字符串随机修改1%的字符得到，例如同一文档的两个版本
+ */
+final class Inputs {
+
+    static final String RANDOM = "random";
+    static final String REPETITIVE = "repetitive";
+    static final String NEAR_IDENTICAL = "nearIdentical";
+
+    private static final long SEED = 20181018L;
+
+    private Inputs() {
+    }
+
+    /**
+     * @param kind 输入的类型
+     * @param size 每个字符串的长度
+     * @return 长度为2的数组，两个待比较的字符串
+     */
+    static String[] pair(String kind, int size) {
+        Random random = new Random(SEED);
+        switch (kind) {
+            case RANDOM:
+                return new String[]{randomString(random, size), randomString(random, size)};
+            case REPETITIVE:
+                return new String[]{repeat("abcab", size), repeat("bacab", size)};
+            case NEAR_IDENTICAL:
+                String x = randomString(random, size);
+                return new String[]{x, mutate(random, x, size / 100)};
+            default:
+                throw new IllegalArgumentException("Unknown input kind: " + kind);
+        }
+    }
+
+    /**
+     * @param kind 输入的类型
+     * @param size 每条装配线上装配站的数量
+     * @return 长度为2的数组，两条装配线上每个装配站的装配时间
+     */
+    static int[][] stationTimes(String kind, int size) {
+        Random random = new Random(SEED);
+        int[][] a = new int[2][size];
+        for (int j = 0; j < size; j++) {
+            switch (kind) {
+                case RANDOM:
+                    a[0][j] = 1 + random.nextInt(100);
+                    a[1][j] = 1 + random.nextInt(100);
+                    break;
+                case REPETITIVE:
+                    a[0][j] = 7;
+                    a[1][j] = 7;
+                    break;
+                case NEAR_IDENTICAL:
+                    a[0][j] = 1 + random.nextInt(100);
+                    a[1][j] = a[0][j] + random.nextInt(3) - 1;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown input kind: " + kind);
+            }
+        }
+        return a;
+    }
+
+    static String randomString(Random random, int size) {
+        char[] chars = new char[size];
+        for (int i = 0; i < size; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    static String repeat(String period, int size) {
+        StringBuilder sb = new StringBuilder(size);
+        while (sb.length() < size) {
+            sb.append(period);
+        }
+        sb.setLength(size);
+        return sb.toString();
+    }
+
+    private static String mutate(Random random, String s, int edits) {
+        char[] chars = s.toCharArray();
+        for (int k = 0; k < edits; k++) {
+            int i = random.nextInt(chars.length);
+            chars[i] = (char) ('a' + (chars[i] - 'a' + 1 + random.nextInt(25)) % 26);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,57 @@
+package jacobvv.benchmark;
+
+import jacobvv.string.LongestCommonSubsequence;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 枚举所有LCS的算法的对比
+ * 不同LCS的个数随输入长度指数增长(重复的输入尤其明显)，回溯法的路径数更多，所以输入的规模很小
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LcsEnumerationBenchmark {
+
+    @Param({"12", "18"})
+    private int size;
+
+    @Param({Inputs.RANDOM, Inputs.REPETITIVE, Inputs.NEAR_IDENTICAL})
+    private String kind;
+
+    private final LongestCommonSubsequence target = new LongestCommonSubsequence();
+    private String x;
+    private String y;
+
+    @Setup
+    public void setup() {
+        String[] pair = Inputs.pair(kind, size);
+        x = pair[0];
+        y = pair[1];
+    }
+
+    @Benchmark
+    public List<String> findAllByDpRecursion() {
+        return target.findAllByDpRecursion(x, y);
+    }
+
+    @Benchmark
+    public List<String> findAllByDpStack() {
+        return target.findAllByDpStack(x, y);
+    }
+
+    @Benchmark
+    public long streamAll() {
+        return target.streamAll(x, y).count();
+    }
+
+    @Benchmark
+    public long countAll() {
+        return target.countAll(x, y);
+    }
+}
@@ -0,0 +1,61 @@
+package jacobvv.benchmark;
+
+import jacobvv.string.LongestCommonSubsequence;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 求单个LCS及其长度的算法的对比
+ * findByDp的记录表为O(mn)，其余算法的时间为O(mn)或O((m+n)D)，所以输入的规模限制在4K以内
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LongestCommonSubsequenceBenchmark {
+
+    @Param({"1000", "4000"})
+    private int size;
+
+    @Param({Inputs.RANDOM, Inputs.REPETITIVE, Inputs.NEAR_IDENTICAL})
+    private String kind;
+
+    private final LongestCommonSubsequence target = new LongestCommonSubsequence();
+    private String x;
+    private String y;
+
+    @Setup
+    public void setup() {
+        String[] pair = Inputs.pair(kind, size);
+        x = pair[0];
+        y = pair[1];
+    }
+
+    @Benchmark
+    public String findByDp() {
+        return target.findByDp(x, y);
+    }
+
+    @Benchmark
+    public String findByHirschberg() {
+        return target.findByHirschberg(x, y);
+    }
+
+    @Benchmark
+    public String findByMyers() {
+        return target.findByMyers(x, y);
+    }
+
+    @Benchmark
+    public int lengthByDp() {
+        return target.lengthByDp(x, y);
+    }
+
+    @Benchmark
+    public int lengthByBitParallel() {
+        return target.lengthByBitParallel(x, y);
+    }
+}
@@ -0,0 +1,72 @@
+package jacobvv.benchmark;
+
+import jacobvv.string.LongestCommonSubstring;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 最长公共子串算法的对比
+ * findAllByDp的记录表为O(mn)，其余算法的时间为O(mn)，所以输入的规模限制在4K以内
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LongestCommonSubstringBenchmark {
+
+    @Param({"1000", "4000"})
+    private int size;
+
+    @Param({Inputs.RANDOM, Inputs.REPETITIVE, Inputs.NEAR_IDENTICAL})
+    private String kind;
+
+    private final LongestCommonSubstring target = new LongestCommonSubstring();
+    private String x;
+    private String y;
+
+    @Setup
+    public void setup() {
+        String[] pair = Inputs.pair(kind, size);
+        x = pair[0];
+        y = pair[1];
+    }
+
+    @Benchmark
+    public List<String> findAllByDp() {
+        return target.findAllByDp(x, y);
+    }
+
+    @Benchmark
+    public List<String> findAllByDpUpdate1() {
+        return target.findAllByDpUpdate1(x, y);
+    }
+
+    @Benchmark
+    public List<String> findAllByDpUpdate2() {
+        return target.findAllByDpUpdate2(x, y);
+    }
+
+    @Benchmark
+    public List<String> findAllByDiagonalScan() {
+        return target.findAllByDiagonalScan(x, y);
+    }
+
+    @Benchmark
+    public List<String> findAllByKmp() {
+        return target.findAllByKmp(x, y);
+    }
+
+    @Benchmark
+    public List<String> findAllByGst() {
+        return target.findAllByGst(x, y);
+    }
+
+    @Benchmark
+    public List<String> findAllBySuffixArray() {
+        return target.findAllBySuffixArray(x, y);
+    }
+}
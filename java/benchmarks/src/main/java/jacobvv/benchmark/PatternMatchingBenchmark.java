@@ -0,0 +1,85 @@
+package jacobvv.benchmark;
+
+import jacobvv.string.StringPatternMatching;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单模式串匹配算法的对比
+ * random：模式串取自文本的末尾，需要扫描几乎整个文本
+ * repetitive：文本为"aaa...a"，模式串为"aa...ab"，不存在匹配，是朴素算法的最坏情况
+ * nearIdentical：模式串取自文本的末尾并修改一个字符，不存在匹配
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatternMatchingBenchmark {
+
+    private static final int PATTERN_LENGTH = 16;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    @Param({Inputs.RANDOM, Inputs.REPETITIVE, Inputs.NEAR_IDENTICAL})
+    private String kind;
+
+    private final StringPatternMatching matching = new StringPatternMatching();
+    private String src;
+    private String target;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(size);
+        switch (kind) {
+            case Inputs.REPETITIVE:
+                src = Inputs.repeat("a", size);
+                target = Inputs.repeat("a", PATTERN_LENGTH - 1) + "b";
+                break;
+            case Inputs.NEAR_IDENTICAL:
+                src = Inputs.randomString(random, size);
+                char[] chars = src.substring(size - PATTERN_LENGTH).toCharArray();
+                chars[PATTERN_LENGTH / 2] = chars[PATTERN_LENGTH / 2] == 'z' ? '0' : 'z';
+                target = new String(chars);
+                break;
+            default:
+                src = Inputs.randomString(random, size);
+                target = src.substring(size - PATTERN_LENGTH);
+                break;
+        }
+    }
+
+    @Benchmark
+    public int bfMatch() {
+        return matching.bfMatch(src, target);
+    }
+
+    @Benchmark
+    public int kmpMatch() {
+        return matching.kmpMatch(src, target);
+    }
+
+    @Benchmark
+    public int bmhMatch() {
+        return matching.bmhMatch(src, target);
+    }
+
+    @Benchmark
+    public int twoWayMatch() {
+        return matching.twoWayMatch(src, target);
+    }
+
+    @Benchmark
+    public int scanMatch() {
+        return matching.scanMatch(src, target);
+    }
+
+    @Benchmark
+    public int match() {
+        return matching.match(src, target);
+    }
+}
@@ -0,0 +1,269 @@
+package jacobvv.dynamicprogramming;
+
+import jacobvv.metrics.Metrics;
+import jacobvv.metrics.Probe;
+
+/**
+ * k条装配线的调度问题
+ * {@link CarStations}只能处理2条装配线，并且要把所有装配站的装配时间a[i][j]一次性放在内存中，
+ * 同时保存n个装配站的f和l两张表，空间复杂度O(kn)。
+ * 这里把问题推广到k条装配线：
+ * 工件从装配线p移到装配线q需要时间t[p][q](与装配站无关，t[p][p]通常为0)，
+ * 装配时间按装配站的顺序从{@link StationCosts}中逐个读入，不需要全部放在内存中。
+ * <p>
+ * 递推公式与{@link CarStations}相同：
+ * f[q][0] = e[q] + a[q][0]
+ * f[q][j] = min(f[p][j-1] + t[p][q]) + a[q][j], (j > 0, 0<=p<k)
+ * 最快时间为min(f[q][n-1] + x[q])
+ * <p>
+ * 计算f[·][j]只需要f[·][j-1]，所以只求最快时间时只需要2个长度为k的数组。
+ * 为了构造最快路径而不保存n*k的l表，采用检查点法：
+ * 将装配站每s=⌈√n⌉个分为一段，正向计算时只保存每段开始前的f(检查点)，共⌈n/s⌉个；
+ * 然后从最后一段开始反向处理每一段：从该段的检查点出发重新计算该段的f，同时记录该段的l，
+ * 再从该段的最后一个装配站回溯到第一个装配站，得到进入该段前所在的装配线，作为前一段回溯的起点。
+ * 每个装配站的装配时间被读入两次，计算量是直接保存l表的两倍。
+ * <p>
+ * 时间复杂度O(nk²)，空间复杂度O(k√n)(不包括输出的路径)
+ */
+public class AssemblyLines {
+
+    /**
+     * 装配站的装配时间
+     * 正向计算时按0到n-1的顺序读取，重新计算每一段时按该段内的顺序读取，
+     * 所以实现可以是按段定位的文件、按需生成的数据等。
+     */
+    public interface StationCosts {
+        /**
+         * 读取装配站j在各条装配线上的装配时间
+         *
+         * @param station 装配站的编号j
+         * @param costs   长度为k的数组，costs[i]为装配站S[i][j]的装配时间
+         */
+        void read(int station, int[] costs);
+    }
+
+    /**
+     * 最快的加工方式
+     */
+    public static class Schedule {
+        private final long time;
+        private final int[] lines;
+
+        public Schedule(long time, int[] lines) {
+            this.time = time;
+            this.lines = lines;
+        }
+
+        /**
+         * @return 所需总时间
+         */
+        public long getTime() {
+            return time;
+        }
+
+        /**
+         * @return 依次加工的装配线编号，第j个元素为装配站j所在的装配线
+         */
+        public int[] getLines() {
+            return lines;
+        }
+    }
+
+    private final int k;
+    private final int[] e;
+    private final int[] x;
+    private final int[][] t;
+
+    /**
+     * @param e 进入装配线所需要的时间，长度为k
+     * @param x 全部装配完成后，离开装配线所需要的时间，长度为k
+     * @param t k*k的矩阵，t[p][q]为从装配线p移到装配线q所需要的时间
+     */
+    public AssemblyLines(int[] e, int[] x, int[][] t) {
+        if (e == null || e.length == 0 || x == null || x.length != e.length || t == null || t.length != e.length) {
+            throw new IllegalArgumentException("e, x and t must describe the same positive number of lines");
+        }
+        k = e.length;
+        for (int[] row : t) {
+            if (row == null || row.length != k) {
+                throw new IllegalArgumentException("t must be a " + k + "x" + k + " matrix");
+            }
+        }
+        this.e = e.clone();
+        this.x = x.clone();
+        this.t = new int[k][];
+        for (int p = 0; p < k; p++) {
+            this.t[p] = t[p].clone();
+        }
+    }
+
+    /**
+     * 以a[i][j]的形式保存在内存中的装配时间
+     *
+     * @param a 在装配站S[i][j]装配所需要的时间
+     * @return 装配时间
+     */
+    public static StationCosts of(int[][] a) {
+        return (station, costs) -> {
+            for (int i = 0; i < costs.length; i++) {
+                costs[i] = a[i][station];
+            }
+        };
+    }
+
+    /**
+     * @return 装配线的数量k
+     */
+    public int lines() {
+        return k;
+    }
+
+    /**
+     * 只计算最快时间，每个装配站的装配时间只读入一次
+     * <p>
+     * 时间复杂度O(nk²)，空间复杂度O(k)
+     *
+     * @param a 装配时间
+     * @param n 每条装配线上装配站的数量
+     * @return 工件加工完成的最快时间
+     */
+    public long fastestTime(StationCosts a, int n) {
+        checkStations(n);
+        int[] costs = new int[k];
+        long[] prev = new long[k];
+        long[] next = new long[k];
+        a.read(0, costs);
+        enter(costs, prev);
+        for (int j = 1; j < n; j++) {
+            a.read(j, costs);
+            step(prev, costs, next, null);
+            long[] tmp = prev;
+            prev = next;
+            next = tmp;
+        }
+        int last = exit(prev);
+        return prev[last] + x[last];
+    }
+
+    /**
+     * 计算最快时间和最快路径
+     * <p>
+     * 时间复杂度O(nk²)，空间复杂度O(k√n)(不包括输出的路径)
+     *
+     * @param a 装配时间
+     * @param n 每条装配线上装配站的数量
+     * @return 工件加工完成的最快方式
+     */
+    public Schedule fastestAssembly(StationCosts a, int n) {
+        checkStations(n);
+        int s = (int) Math.ceil(Math.sqrt(n));
+        int segments = (n + s - 1) / s;
+        try (Probe probe = Metrics.start("AssemblyLines.fastestAssembly")) {
+            // 正向计算和分段重新计算各一遍
+            probe.cells(2L * n * k);
+            probe.costComparisons(2L * (n - 1) * k * k);
+            // 检查点和一段的l
+            probe.tableBytes((long) segments * k * Long.BYTES + (long) s * k * Integer.BYTES);
+            // checkpoints[b]为装配站b*s-1的f，checkpoints[0]不使用
+            long[][] checkpoints = new long[segments][];
+            int[] costs = new int[k];
+            long[] prev = new long[k];
+            long[] next = new long[k];
+            a.read(0, costs);
+            enter(costs, prev);
+            for (int j = 1; j < n; j++) {
+                if (j % s == 0) {
+                    checkpoints[j / s] = prev.clone();
+                }
+                a.read(j, costs);
+                step(prev, costs, next, null);
+                long[] tmp = prev;
+                prev = next;
+                next = tmp;
+            }
+            int last = exit(prev);
+            long time = prev[last] + x[last];
+            // 从最后一段开始，重新计算每一段的l并回溯
+            int[] lines = new int[n];
+            int[][] l = new int[s][k];
+            for (int b = segments - 1; b >= 0; b--) {
+                int from = b * s;
+                int to = Math.min(n, from + s);
+                a.read(from, costs);
+                if (b == 0) {
+                    enter(costs, prev);
+                } else {
+                    step(checkpoints[b], costs, prev, l[0]);
+                }
+                for (int j = from + 1; j < to; j++) {
+                    a.read(j, costs);
+                    step(prev, costs, next, l[j - from]);
+                    long[] tmp = prev;
+                    prev = next;
+                    next = tmp;
+                }
+                // 不再需要的检查点可以被回收
+                checkpoints[b] = null;
+                for (int j = to - 1; j >= from; j--) {
+                    lines[j] = last;
+                    last = l[j - from][last];
+                }
+            }
+            return new Schedule(time, lines);
+        }
+    }
+
+    /**
+     * f[q][0] = e[q] + a[q][0]
+     */
+    private void enter(int[] costs, long[] f) {
+        for (int q = 0; q < k; q++) {
+            f[q] = (long) e[q] + costs[q];
+        }
+    }
+
+    /**
+     * 由f[·][j-1]计算f[·][j]，优先留在原装配线上，其次选择编号小的装配线
+     *
+     * @param prev  f[·][j-1]
+     * @param costs 装配站j的装配时间
+     * @param next  f[·][j]
+     * @param from  不为null时记录l[·][j]，即到达装配站S[q][j]的最快路径上一次装配的装配线编号
+     */
+    private void step(long[] prev, int[] costs, long[] next, int[] from) {
+        for (int q = 0; q < k; q++) {
+            long best = prev[q] + t[q][q];
+            int bestLine = q;
+            for (int p = 0; p < k; p++) {
+                long time = prev[p] + t[p][q];
+                if (time < best) {
+                    best = time;
+                    bestLine = p;
+                }
+            }
+            next[q] = best + costs[q];
+            if (from != null) {
+                from[q] = bestLine;
+            }
+        }
+    }
+
+    /**
+     * @return 使f[q][n-1] + x[q]最小的装配线q
+     */
+    private int exit(long[] f) {
+        int best = 0;
+        for (int q = 1; q < k; q++) {
+            if (f[q] + x[q] < f[best] + x[best]) {
+                best = q;
+            }
+        }
+        return best;
+    }
+
+    private static void checkStations(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive: " + n);
+        }
+    }
+}
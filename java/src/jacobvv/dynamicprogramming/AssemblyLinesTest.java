@@ -0,0 +1,124 @@
+package jacobvv.dynamicprogramming;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AssemblyLinesTest {
+
+    @Test
+    void twoLinesTest() {
+        // 移动时间与装配站无关时，结果应与CarStations相同
+        CarStations expected = new CarStations();
+        Random random = new Random(21);
+        for (int c = 0; c < 200; c++) {
+            int n = 1 + random.nextInt(50);
+            int[] e = {random.nextInt(10), random.nextInt(10)};
+            int[] x = {random.nextInt(10), random.nextInt(10)};
+            int[][] a = randomCosts(random, 2, n);
+            int t01 = random.nextInt(10);
+            int t10 = random.nextInt(10);
+            int[][] t = new int[2][Math.max(0, n - 1)];
+            for (int j = 0; j < n - 1; j++) {
+                t[0][j] = t01;
+                t[1][j] = t10;
+            }
+            int[] result = expected.fastestAssembly(e, x, a, t, n);
+            AssemblyLines target = new AssemblyLines(e, x, new int[][]{{0, t01}, {t10, 0}});
+            AssemblyLines.Schedule schedule = target.fastestAssembly(AssemblyLines.of(a), n);
+            assertEquals(result[n], schedule.getTime());
+            assertEquals(result[n], target.fastestTime(AssemblyLines.of(a), n));
+            assertEquals(schedule.getTime(), cost(e, x, a, new int[][]{{0, t01}, {t10, 0}}, schedule.getLines()));
+        }
+    }
+
+    @Test
+    void kLinesTest() {
+        Random random = new Random(64);
+        for (int c = 0; c < 300; c++) {
+            int k = 1 + random.nextInt(8);
+            int n = 1 + random.nextInt(120);
+            int[] e = randomCosts(random, 1, k)[0];
+            int[] x = randomCosts(random, 1, k)[0];
+            int[][] t = randomCosts(random, k, k);
+            int[][] a = randomCosts(random, k, n);
+            AssemblyLines target = new AssemblyLines(e, x, t);
+            // 统计每个装配站被读入的次数
+            int[] reads = new int[n];
+            AssemblyLines.StationCosts costs = (station, out) -> {
+                reads[station]++;
+                AssemblyLines.of(a).read(station, out);
+            };
+            AssemblyLines.Schedule schedule = target.fastestAssembly(costs, n);
+            assertEquals(fastestTime(e, x, t, a), schedule.getTime());
+            assertEquals(n, schedule.getLines().length);
+            assertEquals(schedule.getTime(), cost(e, x, a, t, schedule.getLines()));
+            assertEquals(schedule.getTime(), target.fastestTime(AssemblyLines.of(a), n));
+            for (int j = 0; j < n; j++) {
+                assertEquals(2, reads[j]);
+            }
+        }
+    }
+
+    @Test
+    void invalidInputTest() {
+        assertThrows(IllegalArgumentException.class, () -> new AssemblyLines(new int[0], new int[0], new int[0][]));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AssemblyLines(new int[2], new int[2], new int[][]{{0, 1}, {1}}));
+        AssemblyLines target = new AssemblyLines(new int[1], new int[1], new int[1][1]);
+        assertThrows(IllegalArgumentException.class, () -> target.fastestTime(AssemblyLines.of(new int[1][0]), 0));
+    }
+
+    /**
+     * 保存完整f表的动态规划
+     */
+    private static long fastestTime(int[] e, int[] x, int[][] t, int[][] a) {
+        int k = e.length;
+        int n = a[0].length;
+        long[][] f = new long[n][k];
+        for (int q = 0; q < k; q++) {
+            f[0][q] = e[q] + a[q][0];
+        }
+        for (int j = 1; j < n; j++) {
+            for (int q = 0; q < k; q++) {
+                long best = Long.MAX_VALUE;
+                for (int p = 0; p < k; p++) {
+                    best = Math.min(best, f[j - 1][p] + t[p][q]);
+                }
+                f[j][q] = best + a[q][j];
+            }
+        }
+        long best = Long.MAX_VALUE;
+        for (int q = 0; q < k; q++) {
+            best = Math.min(best, f[n - 1][q] + x[q]);
+        }
+        return best;
+    }
+
+    /**
+     * 按给定的路径加工所需要的时间
+     */
+    private static long cost(int[] e, int[] x, int[][] a, int[][] t, int[] lines) {
+        long time = e[lines[0]];
+        for (int j = 0; j < lines.length; j++) {
+            if (j > 0) {
+                time += t[lines[j - 1]][lines[j]];
+            }
+            time += a[lines[j]][j];
+        }
+        return time + x[lines[lines.length - 1]];
+    }
+
+    private static int[][] randomCosts(Random random, int rows, int columns) {
+        int[][] costs = new int[rows][columns];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                costs[i][j] = random.nextInt(20);
+            }
+        }
+        return costs;
+    }
+}
@@ -0,0 +1,292 @@
+package jacobvv.dynamicprogramming;
+
+import jacobvv.metrics.Metrics;
+import jacobvv.metrics.Probe;
+
+import java.util.Arrays;
+
+/**
+ * 批量求解汽车装配线调度问题
+ * 对大量装配站数量相同的方案逐个调用{@link CarStations#fastestAssembly}，每次都要分配f、l和结果数组，
+ * 并且每个方案的递推都是一条很长的依赖链，CPU无法同时计算多个装配站。
+ * 这里把S个方案的数据按结构数组(struct-of-arrays)排列，同一个装配站的所有方案相邻：
+ * e[i*S+s]、x[i*S+s]为方案s的e[i]、x[i]，a[i][j*S+s]为方案s的a[i][j]，t[i][j*S+s]为方案s的t[i][j]。
+ * 外层循环遍历装配站，内层循环遍历方案，内层循环的各次迭代相互独立并且连续地访问数组，可以被JIT自动向量化。
+ * 工作数组在构造时按方案数和装配站数分配一次，之后的每次求解都不再分配内存，结果写入调用方提供的数组。
+ * <p>
+ * 对装配线的选择与{@link CarStations#fastestAssembly}相同，包括时间相同的情况。
+ * 对象不是线程安全的。
+ */
+public class BatchCarStations {
+
+    /**
+     * 不存在的路径的时间
+     */
+    public static final int NONE = Integer.MAX_VALUE;
+
+    private final int scenarios;
+    private final int n;
+    private final int[] f0;
+    private final int[] f1;
+    private final int[] last;
+    /**
+     * l0[j*S+s]、l1[j*S+s]为方案s的l[0][j]、l[1][j]
+     */
+    private final byte[] l0;
+    private final byte[] l1;
+    /**
+     * 前K条路径的工作数组，第一次使用时按K分配
+     */
+    private int k;
+    private int[][] values;
+    private int[][] nextValues;
+    private int[][] from;
+
+    /**
+     * @param scenarios 方案的数量S
+     * @param n         每条装配线上装配站的数量
+     */
+    public BatchCarStations(int scenarios, int n) {
+        if (scenarios <= 0 || n <= 0) {
+            throw new IllegalArgumentException("scenarios and n must be positive: " + scenarios + ", " + n);
+        }
+        this.scenarios = scenarios;
+        this.n = n;
+        f0 = new int[scenarios];
+        f1 = new int[scenarios];
+        last = new int[scenarios];
+        l0 = new byte[size(n, scenarios)];
+        l1 = new byte[size(n, scenarios)];
+    }
+
+    /**
+     * 求解所有方案的最快时间和最快路径
+     * <p>
+     * 时间复杂度O(nS)，不分配内存
+     *
+     * @param e     进入装配线所需要的时间，长度为2S
+     * @param x     全部装配完成后，离开装配线所需要的时间，长度为2S
+     * @param a     在装配站S[i][j]装配所需要的时间，a[i]的长度为nS
+     * @param t     从装配线i的装配站j完成后移走到另一条装配线上所需要时间，t[i]的长度为(n-1)S
+     * @param times 长度为S，times[s]为方案s的最快时间
+     * @param lines 长度为nS，lines[j*S+s]为方案s在装配站j所在的装配线；为null时不构造路径
+     */
+    public void fastestAssembly(int[] e, int[] x, int[][] a, int[][] t, int[] times, int[] lines) {
+        checkInputs(e, x, a, t);
+        checkLength("times", times, scenarios);
+        if (lines != null) {
+            checkLength("lines", lines, size(n, scenarios));
+        }
+        try (Probe probe = Metrics.start("BatchCarStations.fastestAssembly")) {
+            // 一次调用记录整批方案
+            probe.cells(2L * n * scenarios);
+            probe.costComparisons((2L * n - 1) * scenarios);
+            // f、last和l
+            probe.tableBytes(3L * scenarios * Integer.BYTES + 2L * n * scenarios);
+            int count = scenarios;
+            int[] a0 = a[0];
+            int[] a1 = a[1];
+            int[] t0 = t[0];
+            int[] t1 = t[1];
+            for (int s = 0; s < count; s++) {
+                f0[s] = e[s] + a0[s];
+                f1[s] = e[count + s] + a1[s];
+            }
+            // 自底向上遍历计算从装配站[i][j]完成的最快时间，并记录上一次装配的装配线编号
+            for (int j = 1; j < n; j++) {
+                int base = j * count;
+                int transfer = (j - 1) * count;
+                for (int s = 0; s < count; s++) {
+                    int p0 = f0[s];
+                    int p1 = f1[s];
+                    int stay0 = p0 + a0[base + s];
+                    int move0 = p1 + t1[transfer + s] + a0[base + s];
+                    int stay1 = p1 + a1[base + s];
+                    int move1 = p0 + t0[transfer + s] + a1[base + s];
+                    f0[s] = stay0 < move0 ? stay0 : move0;
+                    f1[s] = stay1 < move1 ? stay1 : move1;
+                    l0[base + s] = (byte) (stay0 < move0 ? 0 : 1);
+                    l1[base + s] = (byte) (stay1 < move1 ? 1 : 0);
+                }
+            }
+            for (int s = 0; s < count; s++) {
+                int end0 = f0[s] + x[s];
+                int end1 = f1[s] + x[count + s];
+                times[s] = end0 < end1 ? end0 : end1;
+                last[s] = end0 < end1 ? 0 : 1;
+            }
+            if (lines == null) {
+                return;
+            }
+            // 根据所记录的信息，得到每次装配的装配线编号
+            int tail = (n - 1) * count;
+            System.arraycopy(last, 0, lines, tail, count);
+            for (int j = n - 1; j > 0; j--) {
+                int base = j * count;
+                int previous = (j - 1) * count;
+                for (int s = 0; s < count; s++) {
+                    int line = last[s] == 0 ? l0[base + s] : l1[base + s];
+                    last[s] = line;
+                    lines[previous + s] = line;
+                }
+            }
+        }
+    }
+
+    /**
+     * 求解所有方案的前K条最快路径
+     * 每个装配站的每条装配线保留到达该处的前K条路径的时间，由上一个装配站的两个有序列表归并得到；
+     * 时间相同时，按{@link #fastestAssembly}的规则排列，所以第0条路径与{@link #fastestAssembly}的结果相同。
+     * 不同的路径即使时间相同也分别计算，路径总数不足K条时，多出的时间为{@link #NONE}，装配线为-1。
+     * <p>
+     * 时间复杂度O(nSK)，空间复杂度O(nSK)，工作数组在第一次使用或K变大时分配
+     *
+     * @param e     进入装配线所需要的时间，长度为2S
+     * @param x     全部装配完成后，离开装配线所需要的时间，长度为2S
+     * @param a     在装配站S[i][j]装配所需要的时间，a[i]的长度为nS
+     * @param t     从装配线i的装配站j完成后移走到另一条装配线上所需要时间，t[i]的长度为(n-1)S
+     * @param k     每个方案需要的路径条数K
+     * @param times 长度为KS，times[r*S+s]为方案s的第r快的时间
+     * @param lines 长度为KnS，lines[(r*n+j)*S+s]为方案s的第r快的路径在装配站j所在的装配线
+     */
+    public void fastestAssemblies(int[] e, int[] x, int[][] a, int[][] t, int k, int[] times, int[] lines) {
+        checkInputs(e, x, a, t);
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        checkLength("times", times, size(k, scenarios));
+        checkLength("lines", lines, size(size(k, n), scenarios));
+        ensureCapacity(k);
+        try (Probe probe = Metrics.start("BatchCarStations.fastestAssemblies")) {
+            probe.cells(2L * n * k * scenarios);
+            // 每个装配站的两条装配线各归并出K个时间，最后再归并出K个时间
+            probe.costComparisons((2L * n - 1) * k * scenarios);
+            // values、nextValues和from
+            probe.tableBytes((4L * k * scenarios + 2L * n * k * scenarios) * Integer.BYTES);
+            int count = scenarios;
+            for (int i = 0; i < 2; i++) {
+                int[] current = values[i];
+                for (int s = 0; s < count; s++) {
+                    current[s] = e[i * count + s] + a[i][s];
+                }
+                Arrays.fill(current, count, k * count, NONE);
+            }
+            for (int j = 1; j < n; j++) {
+                int base = j * count;
+                int transfer = (j - 1) * count;
+                for (int q = 0; q < 2; q++) {
+                    int p = 1 - q;
+                    int[] stay = values[q];
+                    int[] move = values[p];
+                    int[] target = nextValues[q];
+                    int[] pointers = from[q];
+                    int[] cost = a[q];
+                    int[] moveCost = t[p];
+                    for (int s = 0; s < count; s++) {
+                        int station = cost[base + s];
+                        int shift = moveCost[transfer + s];
+                        // 归并留在装配线q和从装配线p移来的两个有序列表，与CarStations相同，时间相同时先取移来的一方
+                        int u = 0;
+                        int v = 0;
+                        for (int r = 0; r < k; r++) {
+                            int fromStay = u < k && stay[u * count + s] != NONE ? stay[u * count + s] + station : NONE;
+                            int fromMove = v < k && move[v * count + s] != NONE
+                                    ? move[v * count + s] + shift + station : NONE;
+                            int index = (j * k + r) * count + s;
+                            if (fromStay == NONE && fromMove == NONE) {
+                                target[r * count + s] = NONE;
+                                pointers[index] = -1;
+                            } else if (fromStay < fromMove) {
+                                target[r * count + s] = fromStay;
+                                pointers[index] = u++ * 2 + q;
+                            } else {
+                                target[r * count + s] = fromMove;
+                                pointers[index] = v++ * 2 + p;
+                            }
+                        }
+                    }
+                }
+                int[][] tmp = values;
+                values = nextValues;
+                nextValues = tmp;
+            }
+            int tail = n - 1;
+            for (int s = 0; s < count; s++) {
+                int u = 0;
+                int v = 0;
+                for (int r = 0; r < k; r++) {
+                    int end0 = u < k && values[0][u * count + s] != NONE ? values[0][u * count + s] + x[s] : NONE;
+                    int end1 = v < k && values[1][v * count + s] != NONE ? values[1][v * count + s] + x[count + s] : NONE;
+                    int line;
+                    int rank;
+                    if (end0 == NONE && end1 == NONE) {
+                        times[r * count + s] = NONE;
+                        for (int j = 0; j < n; j++) {
+                            lines[(r * n + j) * count + s] = -1;
+                        }
+                        continue;
+                    } else if (end0 < end1) {
+                        times[r * count + s] = end0;
+                        line = 0;
+                        rank = u++;
+                    } else {
+                        times[r * count + s] = end1;
+                        line = 1;
+                        rank = v++;
+                    }
+                    // 沿记录的(排名, 装配线)回溯
+                    for (int j = tail; j >= 0; j--) {
+                        lines[(r * n + j) * count + s] = line;
+                        if (j > 0) {
+                            int pointer = from[line][(j * k + rank) * count + s];
+                            line = pointer & 1;
+                            rank = pointer >>> 1;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void ensureCapacity(int k) {
+        if (this.k >= k) {
+            return;
+        }
+        int length = size(k, scenarios);
+        int fromLength = size(size(n, k), scenarios);
+        this.k = k;
+        values = new int[2][length];
+        nextValues = new int[2][length];
+        from = new int[2][fromLength];
+    }
+
+    private void checkInputs(int[] e, int[] x, int[][] a, int[][] t) {
+        checkLength("e", e, size(2, scenarios));
+        checkLength("x", x, size(2, scenarios));
+        if (a == null || a.length != 2 || t == null || t.length != 2) {
+            throw new IllegalArgumentException("a and t must have 2 lines");
+        }
+        for (int i = 0; i < 2; i++) {
+            checkLength("a", a[i], size(n, scenarios));
+            checkLength("t", t[i], size(n - 1, scenarios));
+        }
+    }
+
+    /**
+     * @return 数组的长度a*b
+     * @throws IllegalArgumentException 长度超出int的范围
+     */
+    private static int size(int a, int b) {
+        try {
+            return Math.multiplyExact(a, b);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Array size overflows int: " + a + " * " + b);
+        }
+    }
+
+    private static void checkLength(String name, int[] array, int length) {
+        if (array == null || array.length != length) {
+            throw new IllegalArgumentException(name + " must have length " + length);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package jacobvv.dynamicprogramming;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BatchCarStationsTest {
+
+    @Test
+    void sameAsSequentialTest() {
+        CarStations expected = new CarStations();
+        Random random = new Random(24);
+        for (int c = 0; c < 30; c++) {
+            int scenarios = 1 + random.nextInt(20);
+            int n = 1 + random.nextInt(40);
+            Scenarios batch = new Scenarios(random, scenarios, n, random.nextBoolean() ? 3 : 100);
+            BatchCarStations target = new BatchCarStations(scenarios, n);
+            int[] times = new int[scenarios];
+            int[] lines = new int[n * scenarios];
+            // 同一个对象重复求解，结果不变
+            for (int round = 0; round < 2; round++) {
+                target.fastestAssembly(batch.e, batch.x, batch.a, batch.t, times, lines);
+                for (int s = 0; s < scenarios; s++) {
+                    int[] result = new int[n + 1];
+                    for (int j = 0; j < n; j++) {
+                        result[j] = lines[j * scenarios + s];
+                    }
+                    result[n] = times[s];
+                    assertArrayEquals(expected.fastestAssembly(batch.e(s), batch.x(s), batch.a(s), batch.t(s), n), result);
+                }
+            }
+        }
+    }
+
+    @Test
+    void topKTest() {
+        CarStations expected = new CarStations();
+        Random random = new Random(240);
+        for (int c = 0; c < 30; c++) {
+            int scenarios = 1 + random.nextInt(5);
+            int n = 1 + random.nextInt(8);
+            int k = 1 + random.nextInt(10);
+            Scenarios batch = new Scenarios(random, scenarios, n, random.nextBoolean() ? 3 : 100);
+            BatchCarStations target = new BatchCarStations(scenarios, n);
+            int[] times = new int[k * scenarios];
+            int[] lines = new int[k * n * scenarios];
+            target.fastestAssemblies(batch.e, batch.x, batch.a, batch.t, k, times, lines);
+            for (int s = 0; s < scenarios; s++) {
+                // 枚举全部2^n条路径
+                List<Integer> all = new ArrayList<>();
+                for (int mask = 0; mask < 1 << n; mask++) {
+                    int[] path = new int[n];
+                    for (int j = 0; j < n; j++) {
+                        path[j] = mask >>> j & 1;
+                    }
+                    all.add(cost(batch.e(s), batch.x(s), batch.a(s), batch.t(s), path));
+                }
+                Collections.sort(all);
+                for (int r = 0; r < k; r++) {
+                    int time = times[r * scenarios + s];
+                    if (r >= all.size()) {
+                        assertEquals(BatchCarStations.NONE, time);
+                        assertEquals(-1, lines[(r * n) * scenarios + s]);
+                        continue;
+                    }
+                    assertEquals((int) all.get(r), time);
+                    int[] path = new int[n];
+                    for (int j = 0; j < n; j++) {
+                        path[j] = lines[(r * n + j) * scenarios + s];
+                    }
+                    assertEquals(time, cost(batch.e(s), batch.x(s), batch.a(s), batch.t(s), path));
+                    if (r == 0) {
+                        int[] result = Arrays.copyOf(path, n + 1);
+                        result[n] = time;
+                        assertArrayEquals(expected.fastestAssembly(batch.e(s), batch.x(s), batch.a(s), batch.t(s), n),
+                                result);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void invalidInputTest() {
+        BatchCarStations target = new BatchCarStations(2, 3);
+        assertThrows(IllegalArgumentException.class, () -> target.fastestAssembly(
+                new int[4], new int[4], new int[2][6], new int[2][6], new int[2], null));
+        assertThrows(IllegalArgumentException.class, () -> target.fastestAssemblies(
+                new int[4], new int[4], new int[2][6], new int[2][4], 0, new int[0], new int[0]));
+        // 数组长度超出int的范围时不能溢出成较小的长度
+        assertThrows(IllegalArgumentException.class, () -> new BatchCarStations(1 << 16, 1 << 16));
+        assertThrows(IllegalArgumentException.class, () -> target.fastestAssemblies(
+                new int[4], new int[4], new int[2][6], new int[2][4], Integer.MAX_VALUE, new int[0], new int[0]));
+    }
+
+    private static int cost(int[] e, int[] x, int[][] a, int[][] t, int[] lines) {
+        int time = e[lines[0]] + a[lines[0]][0];
+        for (int j = 1; j < lines.length; j++) {
+            if (lines[j] != lines[j - 1]) {
+                time += t[lines[j - 1]][j - 1];
+            }
+            time += a[lines[j]][j];
+        }
+        return time + x[lines[lines.length - 1]];
+    }
+
+    /**
+     * 按结构数组排列的随机方案
+     */
+    private static class Scenarios {
+        private final int scenarios;
+        private final int n;
+        private final int[] e;
+        private final int[] x;
+        private final int[][] a;
+        private final int[][] t;
+
+        Scenarios(Random random, int scenarios, int n, int bound) {
+            this.scenarios = scenarios;
+            this.n = n;
+            e = random(random, 2 * scenarios, bound);
+            x = random(random, 2 * scenarios, bound);
+            a = new int[][]{random(random, n * scenarios, bound), random(random, n * scenarios, bound)};
+            t = new int[][]{random(random, (n - 1) * scenarios, bound), random(random, (n - 1) * scenarios, bound)};
+        }
+
+        int[] e(int s) {
+            return new int[]{e[s], e[scenarios + s]};
+        }
+
+        int[] x(int s) {
+            return new int[]{x[s], x[scenarios + s]};
+        }
+
+        int[][] a(int s) {
+            return column(a, n, s);
+        }
+
+        int[][] t(int s) {
+            return column(t, n - 1, s);
+        }
+
+        private int[][] column(int[][] values, int length, int s) {
+            int[][] result = new int[2][length];
+            for (int i = 0; i < 2; i++) {
+                for (int j = 0; j < length; j++) {
+                    result[i][j] = values[i][j * scenarios + s];
+                }
+            }
+            return result;
+        }
+
+        private static int[] random(Random random, int length, int bound) {
+            int[] values = new int[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = random.nextInt(bound);
+            }
+            return values;
+        }
+    }
+}
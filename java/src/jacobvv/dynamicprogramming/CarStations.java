@@ -1,5 +1,8 @@
 package jacobvv.dynamicprogramming;
 
+import jacobvv.metrics.Metrics;
+import jacobvv.metrics.Probe;
+
 /**
  * 汽车装配线调度问题
  * 一个汽车工厂，有汽车生产装配线2条，编号为i(0,1)，每条装配线有n个装配站，编号为j(0~n-1)。
@@ -51,48 +54,55 @@ public class CarStations {
                 t == null || t.length != 2 || t[0].length != n - 1) {
             return null;
         }
-        // 定义变量
-        int[] result = new int[n + 1];
-        // f为从装配站[i][j]完成的最快时间
-        int[][] f = new int[2][n];
-        // l为从装配站[i][j]完成的最快路径，上一次装配的装配线编号
-        int[][] l = new int[2][n];
-        f[0][0] = e[0] + a[0][0];
-        f[1][0] = e[1] + a[1][0];
-        int last;
-        // 自底向上遍历计算从装配站[i][j]完成的最快时间，并记录上一次装配的装配线编号
-        for (int j = 1; j < n; j++) {
-            int from0 = f[0][j - 1] + a[0][j];
-            int from1 = f[1][j - 1] + t[1][j - 1] + a[0][j];
-            if (from0 < from1) {
-                f[0][j] = from0;
-                l[0][j] = 0;
-            } else {
-                f[0][j] = from1;
-                l[0][j] = 1;
+        try (Probe probe = Metrics.start("CarStations.fastestAssembly")) {
+            probe.cells(2L * n);
+            probe.costComparisons(2L * n - 1);
+            // f、l和结果数组
+            probe.tableBytes((4L * n + n + 1) * Integer.BYTES);
+            // 定义变量
+            int[] result = new int[n + 1];
+            // f为从装配站[i][j]完成的最快时间
+            int[][] f = new int[2][n];
+            // l为从装配站[i][j]完成的最快路径，上一次装配的装配线编号
+            int[][] l = new int[2][n];
+            f[0][0] = e[0] + a[0][0];
+            f[1][0] = e[1] + a[1][0];
+            int last;
+            // 自底向上遍历计算从装配站[i][j]完成的最快时间，并记录上一次装配的装配线编号
+            for (int j = 1; j < n; j++) {
+                int from0 = f[0][j - 1] + a[0][j];
+                int from1 = f[1][j - 1] + t[1][j - 1] + a[0][j];
+                if (from0 < from1) {
+                    f[0][j] = from0;
+                    l[0][j] = 0;
+                } else {
+                    f[0][j] = from1;
+                    l[0][j] = 1;
+                }
+                from1 = f[1][j - 1] + a[1][j];
+                from0 = f[0][j - 1] + t[0][j - 1] + a[1][j];
+                if (from1 < from0) {
+                    f[1][j] = from1;
+                    l[1][j] = 1;
+                } else {
+                    f[1][j] = from0;
+                    l[1][j] = 0;
+                }
             }
-            from1 = f[1][j - 1] + a[1][j];
-            from0 = f[0][j - 1] + t[0][j - 1] + a[1][j];
-            if (from1 < from0) {
-                f[1][j] = from1;
-                l[1][j] = 1;
+            if (f[0][n - 1] + x[0] < f[1][n - 1] + x[1]) {
+                result[n] = f[0][n - 1] + x[0];
+                last = 0;
             } else {
-                f[1][j] = from0;
-                l[1][j] = 0;
+                result[n] = f[1][n - 1] + x[1];
+                last = 1;
             }
+            // 根据所记录的信息，得到每次装配的装配线编号，并得出最快时间
+            result[n - 1] = last;
+            for (int j = n - 1; j > 0; j--) {
+                last = l[last][j];
+                result[j - 1] = last;
+            }
+            return result;
         }
-        if (f[0][n - 1] + x[0] < f[1][n - 1] + x[1]) {
-            result[n] = f[0][n - 1] + x[0];
-            last = 0;
-        } else {
-            result[n] = f[1][n - 1] + x[1];
-            last = 1;
-        }
-        // 根据所记录的信息，得到每次装配的装配线编号，并得出最快时间
-        for (int j = n - 1; j > 0; j--) {
-            last = l[last][j];
-            result[j - 1] = last;
-        }
-        return result;
     }
 }
@@ -45,6 +45,20 @@ public class CarStationsTest {
                 },
                 new int[]{0, 1, 0, 1, 1, 0, 38}
         ));
+        // 最后一个装配站在装配线1上
+        cases.add(new TestCase(
+                new int[]{0, 0},
+                new int[]{0, 0},
+                new int[][]{
+                        {5, 5},
+                        {1, 1}
+                },
+                new int[][]{
+                        {9},
+                        {9}
+                },
+                new int[]{1, 1, 2}
+        ));
     }
 
     @Test
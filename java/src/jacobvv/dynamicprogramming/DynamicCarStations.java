@@ -0,0 +1,320 @@
+package jacobvv.dynamicprogramming;
+
+import jacobvv.metrics.Metrics;
+import jacobvv.metrics.Probe;
+
+/**
+ * 装配时间和移动时间会变化的汽车装配线调度问题
+ * 每次修改a[i][j]或t[i][j]后重新调用{@link CarStations#fastestAssembly}需要O(n)的时间。
+ * 与{@link ParallelCarStations}相同，把每个装配站j(j>0)的递推写成2*2的min-plus矩阵M[j]，
+ * 最快时间为min((f[·][0] ⊗ M[1] ⊗ M[2] ⊗ ... ⊗ M[n-1])[q] + x[q])。
+ * 这里用线段树保存这些矩阵：叶子为M[j]，每个内部节点为其左右子节点的乘积，根节点为所有矩阵的乘积。
+ * 修改一个装配站或移动时间只影响一个叶子，沿着到根节点的路径重新计算O(log n)个乘积即可。
+ * <p>
+ * 构造最快路径时从根节点向下：已知一个节点对应的区间开始前和结束时所在的装配线p和q，
+ * 找出使 左子节点[p][r] + 右子节点[r][q] 最小的r，即为左子节点的区间结束时所在的装配线，再分别处理左右子节点。
+ * 时间相同的路径有多条时，优先选择编号小的装配线，所以路径可能与{@link CarStations#fastestAssembly}不同，但时间相同。
+ * <p>
+ * 修改的时间复杂度O(log n)，查询最快时间O(1)，查询一个装配站所在的装配线O(log n)，构造完整路径O(n)；
+ * 空间复杂度O(n)。对象不是线程安全的。
+ */
+public class DynamicCarStations {
+
+    /**
+     * min-plus中的无穷大，两个相加也不会溢出
+     */
+    private static final long INF = Long.MAX_VALUE / 4;
+
+    private final int n;
+    private final int[] e;
+    private final int[] x;
+    private final int[][] a;
+    private final int[][] t;
+    /**
+     * 叶子的数量，不小于n-1的2的幂，多出的叶子为单位矩阵
+     */
+    private final int size;
+    /**
+     * 节点v的矩阵为[m00[v], m01[v]; m10[v], m11[v]]，节点1为根节点，节点size+j-1为M[j]
+     */
+    private final long[] m00;
+    private final long[] m01;
+    private final long[] m10;
+    private final long[] m11;
+    private long time;
+    private int last;
+
+    /**
+     * 参数与{@link CarStations#fastestAssembly}相同，数组会被复制
+     *
+     * @param e 进入装配线所需要的时间
+     * @param x 全部装配完成后，离开装配线所需要的时间
+     * @param a 在装配站S[i][j]装配所需要的时间
+     * @param t 从装配线i的装配站j完成后移走到另一条装配线上所需要时间
+     * @param n 每条装配线上装配站的数量
+     */
+    public DynamicCarStations(int[] e, int[] x, int[][] a, int[][] t, int n) {
+        if (n <= 0 || e == null || e.length != 2 || x == null || x.length != 2 ||
+                a == null || a.length != 2 || a[0].length != n || a[1].length != n ||
+                t == null || t.length != 2 || t[0].length != n - 1 || t[1].length != n - 1) {
+            throw new IllegalArgumentException("Invalid assembly lines");
+        }
+        this.n = n;
+        this.e = e.clone();
+        this.x = x.clone();
+        this.a = new int[][]{a[0].clone(), a[1].clone()};
+        this.t = new int[][]{t[0].clone(), t[1].clone()};
+        int leaves = 1;
+        while (leaves < n - 1) {
+            leaves <<= 1;
+        }
+        size = leaves;
+        try (Probe probe = Metrics.start("DynamicCarStations.build")) {
+            m00 = new long[2 * size];
+            m01 = new long[2 * size];
+            m10 = new long[2 * size];
+            m11 = new long[2 * size];
+            probe.tableBytes(8L * size * Long.BYTES);
+            for (int v = size; v < 2 * size; v++) {
+                int j = v - size + 1;
+                if (j < n) {
+                    setLeaf(v, j);
+                } else {
+                    m01[v] = INF;
+                    m10[v] = INF;
+                }
+            }
+            for (int v = size - 1; v >= 1; v--) {
+                pull(v);
+            }
+            evaluate();
+            // 每个节点4个元素，每个内部节点4次比较，evaluate中3次比较
+            probe.cells(8L * size);
+            probe.costComparisons(4L * (size - 1) + 3);
+        }
+    }
+
+    /**
+     * @return 每条装配线上装配站的数量
+     */
+    public int stations() {
+        return n;
+    }
+
+    /**
+     * 修改在装配站S[i][j]装配所需要的时间
+     *
+     * @param i     装配线编号
+     * @param j     装配站编号
+     * @param value 装配时间
+     */
+    public void updateStation(int i, int j, int value) {
+        checkLine(i);
+        if (j < 0 || j >= n) {
+            throw new IndexOutOfBoundsException("Station: " + j + ", Size: " + n);
+        }
+        a[i][j] = value;
+        refresh(j);
+    }
+
+    /**
+     * 修改从装配线i的装配站j完成后移走到另一条装配线上所需要时间
+     *
+     * @param i     装配线编号
+     * @param j     装配站编号
+     * @param value 移动时间
+     */
+    public void updateTransfer(int i, int j, int value) {
+        checkLine(i);
+        if (j < 0 || j >= n - 1) {
+            throw new IndexOutOfBoundsException("Station: " + j + ", Size: " + (n - 1));
+        }
+        t[i][j] = value;
+        refresh(j + 1);
+    }
+
+    /**
+     * 时间复杂度O(1)
+     *
+     * @return 工件加工完成的最快时间
+     */
+    public long fastestTime() {
+        return time;
+    }
+
+    /**
+     * 查询最快路径经过的装配站j所在的装配线，不构造完整的路径
+     * <p>
+     * 时间复杂度O(log n)
+     *
+     * @param j 装配站编号
+     * @return 装配线编号，与{@link #fastestPath()}的第j个元素相同
+     */
+    public int lineAt(int j) {
+        if (j < 0 || j >= n) {
+            throw new IndexOutOfBoundsException("Station: " + j + ", Size: " + n);
+        }
+        if (j == n - 1) {
+            return last;
+        }
+        int p = first();
+        if (j == 0) {
+            return p;
+        }
+        // 叶子v = size+j-1结束时所在的装配线
+        int target = size + j - 1;
+        int q = last;
+        int v = 1;
+        int depth = Integer.numberOfTrailingZeros(size);
+        while (v < size) {
+            depth--;
+            int r = split(v, p, q);
+            if ((target >>> depth & 1) == 0) {
+                v = 2 * v;
+                q = r;
+            } else {
+                v = 2 * v + 1;
+                p = r;
+            }
+        }
+        return q;
+    }
+
+    /**
+     * 构造完整的最快路径
+     * <p>
+     * 时间复杂度O(n)
+     *
+     * @return 依次加工的装配线编号
+     */
+    public int[] fastestPath() {
+        try (Probe probe = Metrics.start("DynamicCarStations.fastestPath")) {
+            probe.tableBytes((long) n * Integer.BYTES);
+            int[] lines = new int[n];
+            lines[0] = first();
+            lines[n - 1] = last;
+            int splits = 0;
+            if (n > 1) {
+                splits = descend(1, 0, size, lines[0], last, lines);
+            }
+            probe.costComparisons(splits + 1L);
+            return lines;
+        }
+    }
+
+    /**
+     * 对节点v，已知其区间开始前在装配线p上、结束时在装配线q上，填入区间内各装配站所在的装配线
+     *
+     * @param v    节点
+     * @param from 节点对应的第一个叶子的偏移量
+     * @param to   节点对应的最后一个叶子的偏移量+1
+     * @return 调用{@link #split}的次数
+     */
+    private int descend(int v, int from, int to, int p, int q, int[] lines) {
+        if (from >= n - 1) {
+            // 全部是补齐的叶子
+            return 0;
+        }
+        if (v >= size) {
+            lines[from + 1] = q;
+            return 0;
+        }
+        int r = split(v, p, q);
+        int mid = (from + to) >>> 1;
+        return 1 + descend(2 * v, from, mid, p, r, lines) + descend(2 * v + 1, mid, to, r, q, lines);
+    }
+
+    /**
+     * @return 使 左子节点[p][r] + 右子节点[r][q] 最小的r
+     */
+    private int split(int v, int p, int q) {
+        int left = 2 * v;
+        int right = 2 * v + 1;
+        long via0 = get(left, p, 0) + get(right, 0, q);
+        long via1 = get(left, p, 1) + get(right, 1, q);
+        return via1 < via0 ? 1 : 0;
+    }
+
+    /**
+     * @return 使 f[r][0] + 根节点[r][last] 最小的r，即装配站0所在的装配线
+     */
+    private int first() {
+        long via0 = (long) e[0] + a[0][0] + get(1, 0, last);
+        long via1 = (long) e[1] + a[1][0] + get(1, 1, last);
+        return via1 < via0 ? 1 : 0;
+    }
+
+    private long get(int v, int p, int q) {
+        if (p == 0) {
+            return q == 0 ? m00[v] : m01[v];
+        }
+        return q == 0 ? m10[v] : m11[v];
+    }
+
+    /**
+     * 由根节点计算最快时间和最后一个装配站所在的装配线
+     */
+    private void evaluate() {
+        long f0 = (long) e[0] + a[0][0];
+        long f1 = (long) e[1] + a[1][0];
+        long end0 = Math.min(f0 + m00[1], f1 + m10[1]) + x[0];
+        long end1 = Math.min(f0 + m01[1], f1 + m11[1]) + x[1];
+        if (end1 < end0) {
+            time = end1;
+            last = 1;
+        } else {
+            time = end0;
+            last = 0;
+        }
+    }
+
+    /**
+     * 修改装配站j的叶子后重新计算，j为0时只影响evaluate
+     */
+    private void refresh(int j) {
+        try (Probe probe = Metrics.start("DynamicCarStations.update")) {
+            // 叶子到根节点的路径上的节点数
+            int nodes = 0;
+            if (j > 0) {
+                update(j);
+                nodes = Integer.numberOfTrailingZeros(size) + 1;
+            }
+            evaluate();
+            probe.cells(4L * nodes);
+            probe.costComparisons(4L * Math.max(0, nodes - 1) + 3);
+        }
+    }
+
+    private void update(int j) {
+        int v = size + j - 1;
+        setLeaf(v, j);
+        for (v >>>= 1; v >= 1; v >>>= 1) {
+            pull(v);
+        }
+    }
+
+    private void setLeaf(int v, int j) {
+        m00[v] = a[0][j];
+        m01[v] = (long) t[0][j - 1] + a[1][j];
+        m10[v] = (long) t[1][j - 1] + a[0][j];
+        m11[v] = a[1][j];
+    }
+
+    /**
+     * 节点v = 左子节点 ⊗ 右子节点
+     */
+    private void pull(int v) {
+        int l = 2 * v;
+        int r = 2 * v + 1;
+        m00[v] = Math.min(m00[l] + m00[r], m01[l] + m10[r]);
+        m01[v] = Math.min(m00[l] + m01[r], m01[l] + m11[r]);
+        m10[v] = Math.min(m10[l] + m00[r], m11[l] + m10[r]);
+        m11[v] = Math.min(m10[l] + m01[r], m11[l] + m11[r]);
+    }
+
+    private static void checkLine(int i) {
+        if (i != 0 && i != 1) {
+            throw new IndexOutOfBoundsException("Line: " + i + ", Size: 2");
+        }
+    }
+}
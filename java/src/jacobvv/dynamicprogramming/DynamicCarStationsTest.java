@@ -0,0 +1,78 @@
+package jacobvv.dynamicprogramming;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DynamicCarStationsTest {
+
+    @Test
+    void updateTest() {
+        CarStations expected = new CarStations();
+        Random random = new Random(23);
+        for (int c = 0; c < 50; c++) {
+            int n = 1 + random.nextInt(70);
+            int bound = random.nextBoolean() ? 3 : 100;
+            int[] e = {random.nextInt(bound), random.nextInt(bound)};
+            int[] x = {random.nextInt(bound), random.nextInt(bound)};
+            int[][] a = new int[2][n];
+            int[][] t = new int[2][n - 1];
+            for (int j = 0; j < n; j++) {
+                a[0][j] = random.nextInt(bound);
+                a[1][j] = random.nextInt(bound);
+                if (j < n - 1) {
+                    t[0][j] = random.nextInt(bound);
+                    t[1][j] = random.nextInt(bound);
+                }
+            }
+            DynamicCarStations target = new DynamicCarStations(e, x, a, t, n);
+            for (int u = 0; u < 40; u++) {
+                assertEquals(expected.fastestAssembly(e, x, a, t, n)[n], target.fastestTime());
+                int[] path = target.fastestPath();
+                assertEquals(target.fastestTime(), cost(e, x, a, t, path));
+                for (int j = 0; j < n; j++) {
+                    assertEquals(path[j], target.lineAt(j));
+                }
+                int i = random.nextInt(2);
+                int value = random.nextInt(bound);
+                if (n > 1 && random.nextBoolean()) {
+                    int j = random.nextInt(n - 1);
+                    t[i][j] = value;
+                    target.updateTransfer(i, j, value);
+                } else {
+                    int j = random.nextInt(n);
+                    a[i][j] = value;
+                    target.updateStation(i, j, value);
+                }
+            }
+        }
+    }
+
+    @Test
+    void invalidInputTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DynamicCarStations(new int[2], new int[2], new int[2][3], new int[2][3], 3));
+        DynamicCarStations target = new DynamicCarStations(new int[2], new int[2], new int[2][3], new int[2][2], 3);
+        assertThrows(IndexOutOfBoundsException.class, () -> target.updateStation(2, 0, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> target.updateStation(0, 3, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> target.updateTransfer(0, 2, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> target.lineAt(3));
+    }
+
+    /**
+     * 按给定的路径加工所需要的时间
+     */
+    private static long cost(int[] e, int[] x, int[][] a, int[][] t, int[] lines) {
+        long time = e[lines[0]] + a[lines[0]][0];
+        for (int j = 1; j < lines.length; j++) {
+            if (lines[j] != lines[j - 1]) {
+                time += t[lines[j - 1]][j - 1];
+            }
+            time += a[lines[j]][j];
+        }
+        return time + x[lines[lines.length - 1]];
+    }
+}
@@ -0,0 +1,250 @@
+package jacobvv.dynamicprogramming;
+
+import jacobvv.metrics.Metrics;
+import jacobvv.metrics.Probe;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 并行求解汽车装配线调度问题
+ * {@link CarStations#fastestAssembly}中的递推公式
+ * f[q][j] = min(f[q][j-1], f[p][j-1] + t[p][j-1]) + a[q][j]
+ * 可以写成min-plus(热带半环)下的向量与矩阵的乘法：f[·][j] = f[·][j-1] ⊗ M[j]，其中
+ * M[j][p][q] = a[q][j] (p == q)
+ * M[j][p][q] = t[p][j-1] + a[q][j] (p != q)
+ * 矩阵的min-plus乘法满足结合律，所以f[·][n-1] = f[·][0] ⊗ (M[1] ⊗ M[2] ⊗ ... ⊗ M[n-1])可以分块并行计算：
+ * 1. 将装配站分为若干块，并行地计算每一块内所有M的乘积；
+ * 2. 顺序地用每一块的乘积推出每一块开始前的f，块的数量很少；
+ * 3. 并行地从每一块开始前的f出发，按原来的递推公式重新计算该块的f，并记录l；
+ * 4. 并行地计算每一块内回溯的映射(块结束时所在的装配线 -> 块开始前所在的装配线)，
+ * 顺序地确定每一块结束时所在的装配线，再并行地回溯每一块，得到完整的路径。
+ * 第3步与{@link CarStations#fastestAssembly}使用相同的int运算和相同的比较，
+ * 而块开始前的f是精确的整数最小值，所以结果与顺序算法完全相同，包括时间相同时对装配线的选择。
+ * <p>
+ * 时间复杂度O(n/p + n/B)，B为块的大小，p为并行度；空间复杂度O(n)
+ */
+public class ParallelCarStations {
+
+    /**
+     * 默认每块64K个装配站
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    private final ForkJoinPool pool;
+    private final int blockSize;
+
+    public ParallelCarStations() {
+        this(ForkJoinPool.commonPool(), DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param pool      用于并行计算的线程池
+     * @param blockSize 每块的装配站数量
+     */
+    public ParallelCarStations(ForkJoinPool pool, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize must be positive: " + blockSize);
+        }
+        this.pool = pool;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * 参数和返回值与{@link CarStations#fastestAssembly}相同
+     *
+     * @param e 进入装配线所需要的时间
+     * @param x 全部装配完成后，离开装配线所需要的时间
+     * @param a 在装配站S[i][j]装配所需要的时间
+     * @param t 从装配线i的装配站j完成后移走到另一条装配线上所需要时间
+     * @param n 每条装配线上装配站的数量
+     * @return 工件加工完成的最快方式，[0～n-1]为依次加工的装配线编号，[n]为所需总时间
+     */
+    public int[] fastestAssembly(int[] e, int[] x, int[][] a, int[][] t, int n) {
+        // 输入校验
+        if (e == null || e.length != 2 || x == null || x.length != 2 ||
+                a == null || a.length != 2 || a[0].length != n ||
+                t == null || t.length != 2 || t[0].length != n - 1) {
+            return null;
+        }
+        try (Probe probe = Metrics.start("ParallelCarStations.fastestAssembly")) {
+            int blocks = (n + blockSize - 1) / blockSize;
+            // 计数只写入调用方线程的探针，并行的各块不需要同步
+            probe.cells(2L * n);
+            // 第1步每个装配站4次，第3步每个装配站2次，第2步每块2次，以及最后选择装配线的1次
+            probe.costComparisons(6L * (n - 1) + 2L * blocks + 1);
+            // l、结果数组，以及每块的乘积、边界、映射和结束位置
+            probe.tableBytes(2L * n + (n + 1L) * Integer.BYTES
+                    + (long) blocks * (4 * Long.BYTES + 5 * Integer.BYTES) + 2 * Integer.BYTES);
+            // 块b包括装配站[b*B, min(n, (b+1)*B))，其中装配站0为入口，不对应矩阵
+            // 第1步：每一块内所有M的乘积，按[b][p*2+q]保存
+            long[][] products = new long[blocks][];
+            invoke(blocks, b -> products[b] = product(a, t, Math.max(1, b * blockSize), end(b, n)));
+            // 第2步：boundaries[b]为块b的第一个矩阵之前的f，即装配站max(0, b*B-1)的f
+            int[][] boundaries = new int[blocks + 1][];
+            boundaries[0] = new int[]{e[0] + a[0][0], e[1] + a[1][0]};
+            for (int b = 0; b < blocks; b++) {
+                boundaries[b + 1] = multiply(boundaries[b], products[b]);
+            }
+            // 第3步：按原来的递推公式重新计算每一块，记录l
+            byte[][] l = new byte[2][n];
+            invoke(blocks, b -> forward(a, t, Math.max(1, b * blockSize), end(b, n), boundaries[b], l));
+            int[] result = new int[n + 1];
+            int[] f = boundaries[blocks];
+            int last;
+            if (f[0] + x[0] < f[1] + x[1]) {
+                result[n] = f[0] + x[0];
+                last = 0;
+            } else {
+                result[n] = f[1] + x[1];
+                last = 1;
+            }
+            // 第4步：maps[b][i]为块b结束时在装配线i上，块b开始前所在的装配线
+            int[][] maps = new int[blocks][];
+            invoke(blocks, b -> maps[b] = backwardMap(l, Math.max(1, b * blockSize), end(b, n)));
+            int[] ends = new int[blocks];
+            for (int b = blocks - 1; b >= 0; b--) {
+                ends[b] = last;
+                last = maps[b][last];
+            }
+            invoke(blocks, b -> backward(l, Math.max(1, b * blockSize), end(b, n), ends[b], result));
+            result[n - 1] = ends[blocks - 1];
+            return result;
+        }
+    }
+
+    private int end(int block, int n) {
+        return (int) Math.min(n, (long) (block + 1) * blockSize);
+    }
+
+    /**
+     * @return 装配站[from, to)对应的矩阵的乘积，from >= 1，区间为空时为单位矩阵
+     */
+    private static long[] product(int[] a0, int[] a1, int[] t0, int[] t1, int from, int to) {
+        // min-plus的单位矩阵：对角线为0，其余为无穷大
+        long m00 = 0;
+        long m01 = Long.MAX_VALUE / 4;
+        long m10 = Long.MAX_VALUE / 4;
+        long m11 = 0;
+        for (int j = from; j < to; j++) {
+            long s00 = a0[j];
+            long s01 = (long) t0[j - 1] + a1[j];
+            long s10 = (long) t1[j - 1] + a0[j];
+            long s11 = a1[j];
+            long n00 = Math.min(m00 + s00, m01 + s10);
+            long n01 = Math.min(m00 + s01, m01 + s11);
+            long n10 = Math.min(m10 + s00, m11 + s10);
+            long n11 = Math.min(m10 + s01, m11 + s11);
+            m00 = n00;
+            m01 = n01;
+            m10 = n10;
+            m11 = n11;
+        }
+        return new long[]{m00, m01, m10, m11};
+    }
+
+    private static long[] product(int[][] a, int[][] t, int from, int to) {
+        return product(a[0], a[1], t[0], t[1], from, to);
+    }
+
+    private static int[] multiply(int[] f, long[] m) {
+        return new int[]{
+                (int) Math.min(f[0] + m[0], f[1] + m[2]),
+                (int) Math.min(f[0] + m[1], f[1] + m[3])
+        };
+    }
+
+    /**
+     * 与{@link CarStations#fastestAssembly}相同的递推，从f出发计算装配站[from, to)，记录l
+     */
+    private static void forward(int[][] a, int[][] t, int from, int to, int[] f, byte[][] l) {
+        int f0 = f[0];
+        int f1 = f[1];
+        for (int j = from; j < to; j++) {
+            int next0;
+            int next1;
+            int from0 = f0 + a[0][j];
+            int from1 = f1 + t[1][j - 1] + a[0][j];
+            if (from0 < from1) {
+                next0 = from0;
+                l[0][j] = 0;
+            } else {
+                next0 = from1;
+                l[0][j] = 1;
+            }
+            from1 = f1 + a[1][j];
+            from0 = f0 + t[0][j - 1] + a[1][j];
+            if (from1 < from0) {
+                next1 = from1;
+                l[1][j] = 1;
+            } else {
+                next1 = from0;
+                l[1][j] = 0;
+            }
+            f0 = next0;
+            f1 = next1;
+        }
+    }
+
+    /**
+     * @return 在装配站to-1分别位于装配线0和1时，回溯到装配站from-1时所在的装配线
+     */
+    private static int[] backwardMap(byte[][] l, int from, int to) {
+        int g0 = 0;
+        int g1 = 1;
+        for (int j = to - 1; j >= from; j--) {
+            g0 = l[g0][j];
+            g1 = l[g1][j];
+        }
+        return new int[]{g0, g1};
+    }
+
+    /**
+     * 从装配站to-1所在的装配线last回溯，写入result[from-1, to-1)
+     */
+    private static void backward(byte[][] l, int from, int to, int last, int[] result) {
+        for (int j = to - 1; j >= from; j--) {
+            last = l[last][j];
+            result[j - 1] = last;
+        }
+    }
+
+    private void invoke(int blocks, BlockAction action) {
+        if (blocks == 1) {
+            action.compute(0);
+        } else {
+            pool.invoke(new BlockTask(0, blocks, action));
+        }
+    }
+
+    private interface BlockAction {
+        void compute(int block);
+    }
+
+    /**
+     * 二分地拆分块的区间[from, to)，直到只剩一块
+     */
+    private static class BlockTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final BlockAction action;
+
+        BlockTask(int from, int to, BlockAction action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BlockTask(from, mid, action), new BlockTask(mid, to, action));
+                return;
+            }
+            action.compute(from);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package jacobvv.dynamicprogramming;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ParallelCarStationsTest {
+
+    @Test
+    void sameAsSequentialTest() {
+        CarStations expected = new CarStations();
+        Random random = new Random(22);
+        int[] blockSizes = {1, 2, 3, 7, 64, ParallelCarStations.DEFAULT_BLOCK_SIZE};
+        for (int blockSize : blockSizes) {
+            ParallelCarStations target = new ParallelCarStations(ForkJoinPool.commonPool(), blockSize);
+            for (int c = 0; c < 100; c++) {
+                int n = 1 + random.nextInt(300);
+                // 取值范围很小时有大量时间相同的路径，检查对装配线的选择也相同
+                int bound = random.nextBoolean() ? 3 : 100;
+                int[] e = {random.nextInt(bound), random.nextInt(bound)};
+                int[] x = {random.nextInt(bound), random.nextInt(bound)};
+                int[][] a = new int[2][n];
+                int[][] t = new int[2][n - 1];
+                for (int j = 0; j < n; j++) {
+                    a[0][j] = random.nextInt(bound);
+                    a[1][j] = random.nextInt(bound);
+                    if (j < n - 1) {
+                        t[0][j] = random.nextInt(bound);
+                        t[1][j] = random.nextInt(bound);
+                    }
+                }
+                assertArrayEquals(expected.fastestAssembly(e, x, a, t, n),
+                        target.fastestAssembly(e, x, a, t, n), "blockSize=" + blockSize + ", n=" + n);
+            }
+        }
+    }
+
+    @Test
+    void invalidInputTest() {
+        ParallelCarStations target = new ParallelCarStations();
+        assertNull(target.fastestAssembly(new int[1], new int[2], new int[2][3], new int[2][2], 3));
+        assertNull(target.fastestAssembly(new int[2], new int[2], new int[2][3], new int[2][3], 3));
+    }
+}
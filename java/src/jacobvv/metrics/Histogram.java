@@ -0,0 +1,85 @@
+package jacobvv.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按2的幂分桶的直方图
+ * 第i个桶记录二进制位数为i的值，即(2^(i-1) - 1, 2^i - 1]，第0个桶只记录0。
+ * 所有计数都使用分段的LongAdder，多个线程同时记录时不会竞争同一个变量。
+ */
+public final class Histogram {
+
+    /**
+     * 桶的个数，覆盖所有非负的long
+     */
+    public static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param value 记录的值，负数视为0
+     */
+    void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets[64 - Long.numberOfLeadingZeros(value)].increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * @param bucket 桶的下标
+     * @return 第bucket个桶的上界(包含)
+     */
+    public static long upperBound(int bucket) {
+        return bucket >= 63 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    /**
+     * @return 累积计数，第i个元素为不超过{@link #upperBound(int)}的值的个数，最后一个元素为总数
+     */
+    public long[] cumulativeCounts() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += buckets[i].sum();
+            counts[i] = total;
+        }
+        return counts;
+    }
+
+    /**
+     * @return 记录的值的个数
+     */
+    public long count() {
+        long total = 0;
+        for (LongAdder bucket : buckets) {
+            total += bucket.sum();
+        }
+        return total;
+    }
+
+    /**
+     * @return 记录的值之和
+     */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return 记录的最大值，没有记录时为0
+     */
+    public long max() {
+        return max.get();
+    }
+}
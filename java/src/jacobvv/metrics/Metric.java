@@ -0,0 +1,35 @@
+package jacobvv.metrics;
+
+/**
+ * 每次调用报告的指标
+ */
+public enum Metric {
+    /**
+     * 计算的动态规划单元格数
+     */
+    DP_CELLS,
+    /**
+     * 字符(或字节)比较次数
+     */
+    CHAR_COMPARISONS,
+    /**
+     * 动态规划中候选代价(整数)之间的比较次数
+     */
+    COST_COMPARISONS,
+    /**
+     * KMP失配时沿部分匹配表回退的次数
+     */
+    KMP_FALLBACKS,
+    /**
+     * 创建的String个数
+     */
+    STRINGS_ALLOCATED,
+    /**
+     * 同时存在的记录表的最大字节数
+     */
+    PEAK_TABLE_BYTES,
+    /**
+     * 耗时(纳秒)
+     */
+    ELAPSED_NANOS
+}
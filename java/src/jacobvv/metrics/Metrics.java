@@ -0,0 +1,49 @@
+package jacobvv.metrics;
+
+/**
+ * 算法指标的入口
+ * 默认不收集指标：{@link #start(String)}只读取一次volatile变量，返回共享的空探针，
+ * 空探针的所有方法都直接返回，不调用System.nanoTime()，也不分配内存。
+ * 设置监听器后，每次调用创建一个只属于当前线程的{@link Probe}，算法在局部变量中计数，
+ * 结束时一次性写入探针，调用{@link Probe#close()}后交给监听器，计数过程不需要同步。
+ * <p>
+ * 使用方式：
+ * <pre>
+ * MetricsRegistry registry = new MetricsRegistry();
+ * Metrics.setListener(registry);
+ * ...
+ * Histogram cells = registry.histogram("LongestCommonSubsequence.calc", Metric.DP_CELLS);
+ * </pre>
+ */
+public final class Metrics {
+
+    private static volatile MetricsListener listener;
+
+    private Metrics() {
+    }
+
+    /**
+     * @param listener 接收指标的监听器，为null时停止收集
+     */
+    public static void setListener(MetricsListener listener) {
+        Metrics.listener = listener;
+    }
+
+    /**
+     * @return 当前的监听器，未收集时为null
+     */
+    public static MetricsListener getListener() {
+        return listener;
+    }
+
+    /**
+     * 开始记录一次调用
+     *
+     * @param operation 算法的名称
+     * @return 探针，未收集时为共享的空探针
+     */
+    public static Probe start(String operation) {
+        MetricsListener current = listener;
+        return current == null ? Probe.NULL : new Probe(operation, current);
+    }
+}
@@ -0,0 +1,14 @@
+package jacobvv.metrics;
+
+/**
+ * 接收每次调用的指标
+ * 在调用算法的线程中同步回调，实现需要是线程安全的，并且应该尽快返回。
+ */
+public interface MetricsListener {
+
+    /**
+     * @param operation 算法的名称，如"StringPatternMatching.kmpMatch"
+     * @param probe     本次调用的指标，只在回调期间有效
+     */
+    void onCall(String operation, Probe probe);
+}
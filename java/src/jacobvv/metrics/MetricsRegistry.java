@@ -0,0 +1,82 @@
+package jacobvv.metrics;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按算法累计指标的监听器
+ * 每个算法的每个指标对应一个{@link Histogram}，每次调用的指标作为一个值记录到直方图中。
+ */
+public class MetricsRegistry implements MetricsListener {
+
+    private final ConcurrentHashMap<String, Histogram[]> operations = new ConcurrentHashMap<>();
+
+    @Override
+    public void onCall(String operation, Probe probe) {
+        Histogram[] histograms = operations.computeIfAbsent(operation, key -> {
+            Histogram[] created = new Histogram[Metric.values().length];
+            for (int i = 0; i < created.length; i++) {
+                created[i] = new Histogram();
+            }
+            return created;
+        });
+        for (Metric metric : Metric.values()) {
+            histograms[metric.ordinal()].record(probe.get(metric));
+        }
+    }
+
+    /**
+     * @return 已经记录过的算法名称
+     */
+    public Set<String> operations() {
+        return Collections.unmodifiableSet(new TreeSet<>(operations.keySet()));
+    }
+
+    /**
+     * @param operation 算法的名称
+     * @param metric    指标
+     * @return 该算法该指标的直方图，没有记录过时返回null
+     */
+    public Histogram histogram(String operation, Metric metric) {
+        Histogram[] histograms = operations.get(operation);
+        return histograms == null ? null : histograms[metric.ordinal()];
+    }
+
+    /**
+     * 清空所有记录
+     */
+    public void clear() {
+        operations.clear();
+    }
+
+    /**
+     * 以Prometheus文本格式导出所有的累积直方图，每个直方图输出全部的桶
+     *
+     * @return 导出的文本
+     */
+    public String export() {
+        StringBuilder sb = new StringBuilder();
+        for (Metric metric : Metric.values()) {
+            String name = "jacobvv_" + metric.name().toLowerCase(Locale.ROOT);
+            sb.append("# TYPE ").append(name).append(" histogram\n");
+            for (String operation : operations()) {
+                Histogram histogram = histogram(operation, metric);
+                String label = "operation=\"" + operation + "\"";
+                long[] counts = histogram.cumulativeCounts();
+                for (int i = 0; i < Histogram.BUCKETS; i++) {
+                    sb.append(name).append("_bucket{").append(label)
+                            .append(",le=\"").append(Histogram.upperBound(i)).append("\"} ")
+                            .append(counts[i]).append('\n');
+                }
+                long total = counts[Histogram.BUCKETS - 1];
+                sb.append(name).append("_bucket{").append(label).append(",le=\"+Inf\"} ").append(total).append('\n');
+                sb.append(name).append("_sum{").append(label).append("} ").append(histogram.sum()).append('\n');
+                sb.append(name).append("_count{").append(label).append("} ").append(total).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+}
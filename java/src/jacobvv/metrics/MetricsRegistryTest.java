@@ -0,0 +1,188 @@
+package jacobvv.metrics;
+
+import jacobvv.dynamicprogramming.BatchCarStations;
+import jacobvv.dynamicprogramming.CarStations;
+import jacobvv.dynamicprogramming.DynamicCarStations;
+import jacobvv.dynamicprogramming.ParallelCarStations;
+import jacobvv.string.LongestCommonSubsequence;
+import jacobvv.string.KmpPattern;
+import jacobvv.string.LongestCommonSubstring;
+import jacobvv.string.PatternCache;
+import jacobvv.string.StringPatternMatching;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    @AfterEach
+    void tearDown() {
+        Metrics.setListener(null);
+    }
+
+    @Test
+    void disabledTest() {
+        Metrics.setListener(null);
+        Probe probe = Metrics.start("test");
+        assertSame(Probe.NULL, probe);
+        assertFalse(probe.isEnabled());
+        probe.cells(10);
+        probe.tableBytes(10);
+        probe.close();
+        assertEquals(0, probe.get(Metric.DP_CELLS));
+        assertEquals(0, probe.get(Metric.PEAK_TABLE_BYTES));
+    }
+
+    @Test
+    void kmpMatchTest() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Metrics.setListener(registry);
+        StringPatternMatching target = new StringPatternMatching();
+        assertEquals(7, target.kmpMatch("ABABABAABAABABAABAABABA", "ABAABABA"));
+        assertEquals(-1, target.kmpMatch("world.", "abc"));
+        String operation = "StringPatternMatching.kmpMatch";
+        assertEquals(2, registry.histogram(operation, Metric.CHAR_COMPARISONS).count());
+        assertTrue(registry.histogram(operation, Metric.CHAR_COMPARISONS).sum() > 15);
+        assertTrue(registry.histogram(operation, Metric.KMP_FALLBACKS).sum() > 0);
+        // 部分匹配表的大小
+        assertEquals(8 * Integer.BYTES, registry.histogram(operation, Metric.PEAK_TABLE_BYTES).max());
+        assertEquals(2, registry.histogram(operation, Metric.ELAPSED_NANOS).count());
+    }
+
+    @Test
+    void cachedKmpMatchTest() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Metrics.setListener(registry);
+        StringPatternMatching target = new StringPatternMatching(new PatternCache(4));
+        assertEquals(7, target.kmpMatch("ABABABAABAABABAABAABABA", "ABAABABA"));
+        assertEquals(7, target.kmpMatch("ABABABAABAABABAABAABABA", "ABAABABA"));
+        assertEquals(0, KmpPattern.compile("java").indexIn("java"));
+        // 使用缓存时同样记录比较和回退的次数，部分匹配表已经编译好，不计入表的大小
+        String operation = "StringPatternMatching.kmpMatch";
+        assertEquals(2, registry.histogram(operation, Metric.ELAPSED_NANOS).count());
+        assertTrue(registry.histogram(operation, Metric.CHAR_COMPARISONS).sum() > 30);
+        assertTrue(registry.histogram(operation, Metric.KMP_FALLBACKS).sum() > 0);
+        assertEquals(0, registry.histogram(operation, Metric.PEAK_TABLE_BYTES).max());
+        assertEquals(4, registry.histogram("KmpPattern.indexIn", Metric.CHAR_COMPARISONS).sum());
+    }
+
+    @Test
+    void algorithmsTest() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Metrics.setListener(registry);
+        new LongestCommonSubsequence().findByDp("hello java", "java");
+        new LongestCommonSubstring().findAllByKmp("hello java", "world see aha.");
+        new LongestCommonSubstring().findAllByDp("hello java", "java");
+        new CarStations().fastestAssembly(new int[]{2, 4}, new int[]{3, 2},
+                new int[][]{{7, 9, 3, 4, 8, 4}, {8, 5, 6, 4, 5, 7}},
+                new int[][]{{2, 3, 1, 3, 4}, {2, 1, 2, 2, 1}}, 6);
+        assertEquals(Arrays.asList("CarStations.fastestAssembly", "LongestCommonSubsequence.calc",
+                "LongestCommonSubstring.findAllByDp", "LongestCommonSubstring.findAllByKmp"),
+                Arrays.asList(registry.operations().toArray()));
+        assertEquals(11 * 5, registry.histogram("LongestCommonSubsequence.calc", Metric.DP_CELLS).sum());
+        assertEquals(10 * 4, registry.histogram("LongestCommonSubstring.findAllByDp", Metric.DP_CELLS).sum());
+        assertEquals(12, registry.histogram("CarStations.fastestAssembly", Metric.DP_CELLS).sum());
+        // 装配线比较的是整数代价，不计入字符比较
+        assertEquals(11, registry.histogram("CarStations.fastestAssembly", Metric.COST_COMPARISONS).sum());
+        assertEquals(0, registry.histogram("CarStations.fastestAssembly", Metric.CHAR_COMPARISONS).sum());
+        assertTrue(registry.histogram("LongestCommonSubstring.findAllByKmp", Metric.STRINGS_ALLOCATED).sum() > 0);
+        assertTrue(registry.histogram("LongestCommonSubstring.findAllByKmp", Metric.KMP_FALLBACKS).sum() > 0);
+    }
+
+    @Test
+    void overloadsTest() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Metrics.setListener(registry);
+        StringPatternMatching matching = new StringPatternMatching();
+        byte[] src = "hello java".getBytes(StandardCharsets.US_ASCII);
+        byte[] target = "java".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(6, matching.bfMatch("hello java", "java"));
+        assertEquals(6, matching.bfMatch(new StringBuilder("hello java"), "java"));
+        assertEquals(6, matching.bfMatch(src, 0, src.length, target, 0, target.length));
+        assertEquals(6, matching.kmpMatch(new StringBuilder("hello java"), "java"));
+        assertEquals(6, matching.kmpMatch(src, 0, src.length, target, 0, target.length));
+        // 每个位置比较到第一个不同的字符，最后一个位置比较4次
+        assertEquals(3 * (6 + 4), registry.histogram("StringPatternMatching.bfMatch", Metric.CHAR_COMPARISONS).sum());
+        assertEquals(2, registry.histogram("StringPatternMatching.kmpMatch", Metric.ELAPSED_NANOS).count());
+        assertEquals(4 * Integer.BYTES, registry.histogram("StringPatternMatching.kmpMatch", Metric.PEAK_TABLE_BYTES).max());
+
+        LongestCommonSubstring substring = new LongestCommonSubstring();
+        substring.findAllByDp(new StringBuilder("hello java"), "java");
+        substring.findAllByDp(src, 0, src.length, target, 0, target.length);
+        substring.findAllByDpUpdate1("hello java", "java");
+        substring.findAllByDpUpdate2("hello java", "java");
+        assertEquals(2 * 10 * 4, registry.histogram("LongestCommonSubstring.findAllByDp", Metric.DP_CELLS).sum());
+        assertEquals(10 * 4, registry.histogram("LongestCommonSubstring.findAllByDpUpdate1", Metric.DP_CELLS).sum());
+        assertEquals(10 * 4 + 4, registry.histogram("LongestCommonSubstring.findAllByDpUpdate2", Metric.DP_CELLS).sum());
+
+        LongestCommonSubsequence subsequence = new LongestCommonSubsequence(16);
+        assertEquals("java", subsequence.findByDp("hello java", "java"));
+        assertEquals("java", subsequence.findByHirschberg("hello java", "java"));
+        assertEquals("java", subsequence.findByMyers("hello java", "java"));
+        assertEquals(4, new LongestCommonSubsequence().findByDp(src, 0, src.length, target, 0, target.length).length);
+        // 超过内存上限时至少计算一遍完整的表
+        assertTrue(registry.histogram("LongestCommonSubsequence.checkpointTraceback", Metric.DP_CELLS).sum() >= 10 * 4);
+        assertTrue(registry.histogram("LongestCommonSubsequence.findByHirschberg", Metric.DP_CELLS).sum() >= 10 * 4);
+        assertTrue(registry.histogram("MyersDiff.diff", Metric.CHAR_COMPARISONS).sum() > 0);
+        assertEquals(11 * 5, registry.histogram("LongestCommonSubsequence.calc", Metric.DP_CELLS).sum());
+
+        int[] e = {2, 4};
+        int[] x = {3, 2};
+        int[][] a = {{7, 9, 3, 4, 8, 4}, {8, 5, 6, 4, 5, 7}};
+        int[][] t = {{2, 3, 1, 3, 4}, {2, 1, 2, 2, 1}};
+        new ParallelCarStations().fastestAssembly(e, x, a, t, 6);
+        DynamicCarStations dynamic = new DynamicCarStations(e, x, a, t, 6);
+        dynamic.updateStation(0, 2, 1);
+        dynamic.fastestPath();
+        new BatchCarStations(1, 6).fastestAssembly(e, x, a, t, new int[1], new int[6]);
+        assertEquals(12, registry.histogram("ParallelCarStations.fastestAssembly", Metric.DP_CELLS).sum());
+        assertEquals(12, registry.histogram("BatchCarStations.fastestAssembly", Metric.DP_CELLS).sum());
+        assertEquals(11, registry.histogram("BatchCarStations.fastestAssembly", Metric.COST_COMPARISONS).sum());
+        assertEquals(1, registry.histogram("DynamicCarStations.build", Metric.ELAPSED_NANOS).count());
+        assertEquals(1, registry.histogram("DynamicCarStations.update", Metric.ELAPSED_NANOS).count());
+        assertTrue(registry.histogram("DynamicCarStations.fastestPath", Metric.COST_COMPARISONS).sum() > 0);
+        assertEquals(0, registry.histogram("ParallelCarStations.fastestAssembly", Metric.CHAR_COMPARISONS).sum());
+    }
+
+    @Test
+    void histogramTest() {
+        Histogram histogram = new Histogram();
+        for (long value : new long[]{0, 1, 2, 3, 4, 1000, Long.MAX_VALUE}) {
+            histogram.record(value);
+        }
+        long[] counts = histogram.cumulativeCounts();
+        // <=0, <=1, <=3, <=7
+        assertEquals(1, counts[0]);
+        assertEquals(2, counts[1]);
+        assertEquals(4, counts[2]);
+        assertEquals(5, counts[3]);
+        assertEquals(6, counts[10]);
+        assertEquals(7, counts[Histogram.BUCKETS - 1]);
+        assertEquals(7, histogram.count());
+        assertEquals(Long.MAX_VALUE, histogram.max());
+        assertEquals(1023, Histogram.upperBound(10));
+    }
+
+    @Test
+    void exportTest() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Metrics.setListener(registry);
+        new StringPatternMatching().kmpMatch("hello java", "java");
+        String text = registry.export();
+        assertTrue(text.contains("# TYPE jacobvv_dp_cells histogram\n"));
+        assertTrue(text.contains("jacobvv_peak_table_bytes_bucket{operation=\"StringPatternMatching.kmpMatch\",le=\"31\"} 1\n"));
+        // 计数与前一个桶相同的桶也要输出，否则按le查询时会缺少数据点
+        assertTrue(text.contains("jacobvv_peak_table_bytes_bucket{operation=\"StringPatternMatching.kmpMatch\",le=\"63\"} 1\n"));
+        assertTrue(text.contains("jacobvv_dp_cells_bucket{operation=\"StringPatternMatching.kmpMatch\",le=\"1\"} 1\n"));
+        String prefix = "jacobvv_elapsed_nanos_bucket{operation=\"StringPatternMatching.kmpMatch\",le=";
+        assertEquals(Histogram.BUCKETS + 1, text.split(Pattern.quote(prefix), -1).length - 1);
+        assertTrue(text.contains("jacobvv_kmp_fallbacks_count{operation=\"StringPatternMatching.kmpMatch\"} 1\n"));
+        registry.clear();
+        assertTrue(registry.operations().isEmpty());
+    }
+}
@@ -0,0 +1,86 @@
+package jacobvv.metrics;
+
+/**
+ * 一次调用的指标
+ * 由{@link Metrics#start(String)}创建，只在调用算法的线程中使用，不需要同步。
+ * 空探针(未收集指标时)忽略所有的写入。
+ */
+public final class Probe implements AutoCloseable {
+
+    static final Probe NULL = new Probe(null, null);
+
+    private final String operation;
+    private final MetricsListener listener;
+    private final long start;
+    private final long[] values = new long[Metric.values().length];
+
+    Probe(String operation, MetricsListener listener) {
+        this.operation = operation;
+        this.listener = listener;
+        this.start = listener == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * @return 是否在收集指标，算法可以据此跳过只为指标而做的计算
+     */
+    public boolean isEnabled() {
+        return listener != null;
+    }
+
+    public void cells(long count) {
+        add(Metric.DP_CELLS, count);
+    }
+
+    public void comparisons(long count) {
+        add(Metric.CHAR_COMPARISONS, count);
+    }
+
+    public void costComparisons(long count) {
+        add(Metric.COST_COMPARISONS, count);
+    }
+
+    public void fallbacks(long count) {
+        add(Metric.KMP_FALLBACKS, count);
+    }
+
+    public void strings(long count) {
+        add(Metric.STRINGS_ALLOCATED, count);
+    }
+
+    /**
+     * 报告当前存在的记录表的字节数，保留最大值
+     *
+     * @param bytes 字节数
+     */
+    public void tableBytes(long bytes) {
+        if (listener != null && bytes > values[Metric.PEAK_TABLE_BYTES.ordinal()]) {
+            values[Metric.PEAK_TABLE_BYTES.ordinal()] = bytes;
+        }
+    }
+
+    private void add(Metric metric, long count) {
+        if (listener != null) {
+            values[metric.ordinal()] += count;
+        }
+    }
+
+    /**
+     * @param metric 指标
+     * @return 指标的值，{@link Metric#ELAPSED_NANOS}在{@link #close()}之后才有值
+     */
+    public long get(Metric metric) {
+        return values[metric.ordinal()];
+    }
+
+    /**
+     * 结束本次调用，记录耗时并交给监听器
+     */
+    @Override
+    public void close() {
+        if (listener == null) {
+            return;
+        }
+        values[Metric.ELAPSED_NANOS.ordinal()] = System.nanoTime() - start;
+        listener.onCall(operation, this);
+    }
+}
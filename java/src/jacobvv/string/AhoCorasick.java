@@ -0,0 +1,222 @@
+package jacobvv.string;
+
+import java.util.Arrays;
+
+/**
+ * Aho-Corasick多模式匹配自动机
+ * 用KMP对每个模式串分别匹配，总的代价为O(n * k)，k为模式串的个数。
+ * Aho-Corasick把所有模式串放入一棵字典树(trie)，并像KMP的部分匹配表一样，
+ * 为每个节点计算失败指针(fail)：节点所代表字符串的最长真后缀，且该后缀也在字典树中。
+ * 匹配失败时沿失败指针跳转，而不需要回退文本，所以只需要扫描文本一遍即可找出所有模式串的所有出现。
+ * <p>
+ * 这里将字典树和失败指针预先展开为完整的确定性自动机(DFA)，转移表为一个int[]，
+ * 每个文本字符只需要一次查表。模式串中未出现的字符全部归为同一个字符类，以压缩转移表。
+ * 每个状态还记录输出链接(output link)：沿失败指针遇到的第一个有模式串结束的状态，
+ * 用来在O(1)时间内枚举下一个匹配。
+ * <p>
+ * 构建完成后的自动机是不可变的，可以被多个线程同时使用。
+ * <p>
+ * 构建时先用每个节点的子节点链表构建稀疏的字典树，得到状态数S后再分配S * σ的转移表，
+ * 而不是按最坏情况的L * σ分配(共享前缀越多，S比L小得越多)。
+ * <p>
+ * 构建的时间复杂度O(Lσ)，空间复杂度O(L + Sσ)，L为模式串的总长度，σ为模式串中不同字符的个数
+ * 匹配的时间复杂度O(n + z)，z为匹配的个数
+ */
+public class AhoCorasick {
+
+    /**
+     * 匹配结果的回调，避免为每个匹配创建对象
+     */
+    public interface MatchListener {
+        /**
+         * @param patternId 匹配的模式串在构建时的下标
+         * @param offset    匹配在文本中的起始下标
+         */
+        void onMatch(int patternId, int offset);
+    }
+
+    /**
+     * charClass[c]为字符c的字符类，0表示未在模式串中出现
+     */
+    private final char[] charClass;
+    /**
+     * 转移表的列数，即字符类的个数
+     */
+    private final int stride;
+    /**
+     * 转移表，delta[s * stride + c]为状态s读入字符类c后的状态
+     */
+    private final int[] delta;
+    /**
+     * firstPattern[s]为在状态s结束的第一个模式串，-1表示没有
+     */
+    private final int[] firstPattern;
+    /**
+     * nextPattern[p]为与模式串p在同一状态结束的下一个模式串(重复的模式串)，-1表示没有
+     */
+    private final int[] nextPattern;
+    /**
+     * outputLink[s]为沿失败指针遇到的第一个有模式串结束的状态，0表示没有
+     */
+    private final int[] outputLink;
+    private final int[] patternLength;
+
+    /**
+     * 编译模式串，null和空字符串不会匹配任何位置
+     *
+     * @param patterns 模式串，匹配结果中的patternId即为模式串在此数组中的下标
+     */
+    public AhoCorasick(String... patterns) {
+        int count = patterns.length;
+        patternLength = new int[count];
+        nextPattern = new int[count];
+        // 字符集压缩
+        charClass = new char[Character.MAX_VALUE + 1];
+        int classes = 1;
+        int total = 0;
+        for (String pattern : patterns) {
+            if (pattern == null) {
+                continue;
+            }
+            total += pattern.length();
+            for (int i = 0; i < pattern.length(); i++) {
+                char ch = pattern.charAt(i);
+                if (charClass[ch] == 0) {
+                    charClass[ch] = (char) classes++;
+                }
+            }
+        }
+        stride = classes;
+        int capacity = total + 1;
+        // 稀疏的字典树：节点s的子节点为firstChild[s]及其nextSibling链，label[s]为进入节点s的字符类
+        int[] firstChild = new int[capacity];
+        int[] nextSibling = new int[capacity];
+        int[] parent = new int[capacity];
+        char[] label = new char[capacity];
+        int[] first = new int[capacity];
+        Arrays.fill(first, -1);
+        // 1. 构建字典树，状态0为根节点，0同时表示没有子节点
+        int states = 1;
+        for (int p = 0; p < count; p++) {
+            nextPattern[p] = -1;
+            String pattern = patterns[p];
+            if (pattern == null || pattern.isEmpty()) {
+                continue;
+            }
+            patternLength[p] = pattern.length();
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = charClass[pattern.charAt(i)];
+                int child = firstChild[state];
+                while (child != 0 && label[child] != c) {
+                    child = nextSibling[child];
+                }
+                if (child == 0) {
+                    child = states++;
+                    label[child] = c;
+                    parent[child] = state;
+                    nextSibling[child] = firstChild[state];
+                    firstChild[state] = child;
+                }
+                state = child;
+            }
+            // 重复的模式串挂在同一个状态的链表上
+            nextPattern[p] = first[state];
+            first[state] = p;
+        }
+        // 2. 状态数确定后分配转移表，填入字典树的边
+        if ((long) states * stride > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many patterns: " + states + " states, " + stride + " classes");
+        }
+        int[] goTo = new int[states * stride];
+        Arrays.fill(goTo, -1);
+        for (int s = 1; s < states; s++) {
+            goTo[parent[s] * stride + label[s]] = s;
+        }
+        // 3. 按广度优先顺序计算失败指针，并补全转移表
+        int[] fail = new int[states];
+        int[] output = new int[states];
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int c = 0; c < stride; c++) {
+            int child = goTo[c];
+            if (child < 0) {
+                goTo[c] = 0;
+            } else {
+                fail[child] = 0;
+                queue[tail++] = child;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            int f = fail[state];
+            output[state] = first[f] >= 0 ? f : output[f];
+            for (int c = 0; c < stride; c++) {
+                int index = state * stride + c;
+                int child = goTo[index];
+                if (child < 0) {
+                    goTo[index] = goTo[f * stride + c];
+                } else {
+                    fail[child] = goTo[f * stride + c];
+                    queue[tail++] = child;
+                }
+            }
+        }
+        delta = goTo;
+        firstPattern = Arrays.copyOf(first, states);
+        outputLink = output;
+    }
+
+    /**
+     * 扫描文本一遍，报告所有模式串的所有出现(包括相互重叠的出现)
+     * 同一结束位置的多个匹配，按模式串从长到短的顺序报告
+     *
+     * @param text     文本
+     * @param listener 匹配结果的回调
+     */
+    public void search(CharSequence text, MatchListener listener) {
+        int state = 0;
+        int len = text.length();
+        for (int i = 0; i < len; i++) {
+            state = delta[state * stride + charClass[text.charAt(i)]];
+            int s = firstPattern[state] >= 0 ? state : outputLink[state];
+            while (s > 0) {
+                for (int p = firstPattern[s]; p >= 0; p = nextPattern[p]) {
+                    listener.onMatch(p, i - patternLength[p] + 1);
+                }
+                s = outputLink[s];
+            }
+        }
+    }
+
+    /**
+     * 统计所有模式串在文本中出现的总次数
+     *
+     * @param text 文本
+     * @return 出现的总次数
+     */
+    public long count(CharSequence text) {
+        long count = 0;
+        int state = 0;
+        int len = text.length();
+        for (int i = 0; i < len; i++) {
+            state = delta[state * stride + charClass[text.charAt(i)]];
+            int s = firstPattern[state] >= 0 ? state : outputLink[state];
+            while (s > 0) {
+                for (int p = firstPattern[s]; p >= 0; p = nextPattern[p]) {
+                    count++;
+                }
+                s = outputLink[s];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return 自动机的状态数
+     */
+    public int stateCount() {
+        return firstPattern.length;
+    }
+}
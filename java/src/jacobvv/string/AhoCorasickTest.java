@@ -0,0 +1,83 @@
+package jacobvv.string;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+
+class AhoCorasickTest {
+
+    private String[][] patterns = new String[][]{
+            {"he", "she", "his", "hers"},
+            {"java", "a", "av"},
+            {"aa", "aa", "a"},
+            {"", null, "world"},
+            {"abc"},
+    };
+    private String[] texts = new String[]{
+            "ushers",
+            "hello java",
+            "aaa",
+            "hello world",
+            "",
+    };
+
+    @Test
+    void searchTest() {
+        for (int i = 0; i < patterns.length; i++) {
+            AhoCorasick target = new AhoCorasick(patterns[i]);
+            List<String> result = new ArrayList<>();
+            target.search(texts[i], (id, offset) -> result.add(id + "@" + offset));
+            List<String> expected = naive(patterns[i], texts[i]);
+            expected.sort(null);
+            result.sort(null);
+            assertIterableEquals(expected, result, "Text: " + texts[i]);
+            assertEquals(expected.size(), target.count(texts[i]));
+        }
+    }
+
+    @Test
+    void randomTest() {
+        Random random = new Random(3);
+        for (int n = 0; n < 50; n++) {
+            String[] keywords = new String[1 + random.nextInt(20)];
+            for (int k = 0; k < keywords.length; k++) {
+                keywords[k] = randomString(random, 1 + random.nextInt(5));
+            }
+            String text = randomString(random, 500);
+            AhoCorasick target = new AhoCorasick(keywords);
+            List<String> result = new ArrayList<>();
+            target.search(text, (id, offset) -> result.add(id + "@" + offset));
+            List<String> expected = naive(keywords, text);
+            expected.sort(null);
+            result.sort(null);
+            assertIterableEquals(expected, result);
+        }
+    }
+
+    private static List<String> naive(String[] patterns, String text) {
+        List<String> result = new ArrayList<>();
+        for (int id = 0; id < patterns.length; id++) {
+            String pattern = patterns[id];
+            if (pattern == null || pattern.isEmpty()) {
+                continue;
+            }
+            for (int i = text.indexOf(pattern); i >= 0; i = text.indexOf(pattern, i + 1)) {
+                result.add(id + "@" + i);
+            }
+        }
+        return result;
+    }
+
+    private static String randomString(Random random, int len) {
+        StringBuilder sb = new StringBuilder(len);
+        for (int i = 0; i < len; i++) {
+            sb.append((char) ('a' + random.nextInt(3)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,361 @@
+package jacobvv.string;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 预先编译的位并行近似匹配模式串
+ * 与{@link BitParallelLcs}一样，把动态规划表的一列压缩成位向量，一次字长运算就能处理64个单元格。
+ * 设M[c]为模式串中等于字符c的位置组成的位向量，模式串长度为m。
+ * <p>
+ * 1. 精确匹配(Shift-And)
+ * R的第i位为1表示模式串的前缀P[0..i]是当前文本前缀的后缀，
+ * 读入字符c后R' = ((R << 1) | 1) & M[c]，R的第m-1位为1时即找到一个匹配。
+ * <p>
+ * 2. 至多k个字符不同的匹配(Hamming距离)
+ * 为每个d = 0..k维护一个位向量R[d]，第i位为1表示P[0..i]与文本的后缀至多有d个字符不同，
+ * R[d]' = (((R[d] << 1) | 1) & M[c]) | ((R[d-1] << 1) | 1)，即当前字符相同，或者当前字符不同并多用一次不同。
+ * <p>
+ * 3. 编辑距离至多为k的匹配(Myers位向量算法)
+ * 近似匹配的动态规划表中，相邻单元格的差值只可能是-1、0、+1，
+ * 用Pv/Mv表示一列中垂直方向的差值为+1/-1的位置，用Ph/Mh表示水平方向的差值，
+ * 每读入一个字符，用常数次字长运算即可由上一列的Pv/Mv得到新的一列，同时维护最后一行的值score，
+ * score <= k时即找到一个匹配。运行时间与k无关。
+ * <p>
+ * 模式串不超过64个字符时用一个long表示位向量；更长的模式串用多个long分块表示，
+ * 移位和加法在字之间传递进位。
+ * 结果以流的形式返回匹配的结束下标(不包含)，流是惰性的，只在消费时才扫描文本。
+ * <p>
+ * 对象创建后不可变，可以被多个线程同时使用。
+ * <p>
+ * 精确匹配和编辑距离匹配的时间复杂度O(n⌈m/64⌉)，k个字符不同的匹配的时间复杂度O(kn⌈m/64⌉)，
+ * 空间复杂度O(σ⌈m/64⌉)，σ为模式串中不同字符的个数
+ */
+public final class ApproximatePattern {
+
+    private final String pattern;
+    private final int words;
+    private final CharMasks table;
+    /**
+     * 匹配表，与{@link CharMasks#masks()}相同
+     */
+    private final long[] masks;
+    /**
+     * 最后一个字中第m-1位的掩码
+     */
+    private final long lastBit;
+
+    private ApproximatePattern(String pattern) {
+        this.pattern = pattern;
+        int m = pattern.length();
+        table = new CharMasks();
+        table.build(pattern);
+        words = table.words();
+        masks = table.masks();
+        lastBit = m == 0 ? 0 : 1L << ((m - 1) & 63);
+    }
+
+    /**
+     * 编译模式串
+     *
+     * @param pattern 模式串
+     * @return 编译后的模式串
+     */
+    public static ApproximatePattern compile(String pattern) {
+        return new ApproximatePattern(Objects.requireNonNull(pattern, "pattern"));
+    }
+
+    public String pattern() {
+        return pattern;
+    }
+
+    /**
+     * 精确匹配，找出模式串在文本中的所有出现(包括相互重叠的出现)
+     *
+     * @param text 文本
+     * @return 按升序排列的所有匹配的结束下标(不包含)，模式串为空时返回空流
+     */
+    public IntStream exactEnds(CharSequence text) {
+        return mismatchEnds(text, 0);
+    }
+
+    /**
+     * 找出文本中与模式串至多有k个字符不同的所有位置(长度与模式串相同)
+     *
+     * @param text 文本
+     * @param k    允许不同的字符个数
+     * @return 按升序排列的所有匹配的结束下标(不包含)，模式串为空时返回空流
+     */
+    public IntStream mismatchEnds(CharSequence text, int k) {
+        Objects.requireNonNull(text, "text");
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        if (pattern.isEmpty()) {
+            return IntStream.empty();
+        }
+        if (words == 1) {
+            return stream(k == 0 ? new ShiftAnd(text) : new ShiftAndMismatch(text, k));
+        }
+        return stream(new BlockedShiftAndMismatch(text, k));
+    }
+
+    /**
+     * 找出文本中与模式串的编辑距离(插入、删除、替换)至多为k的子串的所有结束位置
+     * 同一个结束位置只报告一次，起始位置可以由调用者按需要在结束位置附近求出。
+     *
+     * @param text 文本
+     * @param k    允许的编辑距离
+     * @return 按升序排列的所有匹配的结束下标(不包含)，模式串为空时返回空流
+     */
+    public IntStream editEnds(CharSequence text, int k) {
+        Objects.requireNonNull(text, "text");
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        if (pattern.isEmpty()) {
+            return IntStream.empty();
+        }
+        if (words == 1) {
+            return stream(new MyersSearch(text, k));
+        }
+        return stream(new BlockedMyersSearch(text, k));
+    }
+
+    private static IntStream stream(EndIterator iterator) {
+        return StreamSupport.intStream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED
+                        | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    /**
+     * 逐个字符扫描文本，每次找出下一个匹配的结束下标
+     */
+    private abstract static class EndIterator implements PrimitiveIterator.OfInt {
+        final CharSequence text;
+        /**
+         * 下一个要读入的字符的下标
+         */
+        int position;
+        private int next = -1;
+        private boolean ready;
+
+        EndIterator(CharSequence text) {
+            this.text = text;
+        }
+
+        /**
+         * @return 下一个匹配的结束下标(不包含)，没有则返回-1
+         */
+        abstract int advance();
+
+        @Override
+        public boolean hasNext() {
+            if (!ready) {
+                next = advance();
+                ready = true;
+            }
+            return next >= 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ready = false;
+            return next;
+        }
+    }
+
+    private final class ShiftAnd extends EndIterator {
+        private long r;
+
+        ShiftAnd(CharSequence text) {
+            super(text);
+        }
+
+        @Override
+        int advance() {
+            int n = text.length();
+            while (position < n) {
+                int base = table.base(text.charAt(position++));
+                r = base < 0 ? 0 : ((r << 1) | 1) & masks[base];
+                if ((r & lastBit) != 0) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private final class ShiftAndMismatch extends EndIterator {
+        private final long[] r;
+
+        ShiftAndMismatch(CharSequence text, int k) {
+            super(text);
+            r = new long[k + 1];
+        }
+
+        @Override
+        int advance() {
+            int n = text.length();
+            long[] r = this.r;
+            int k = r.length - 1;
+            while (position < n) {
+                int base = table.base(text.charAt(position++));
+                long mask = base < 0 ? 0 : masks[base];
+                // d从大到小更新，R[d-1]仍为上一列的值
+                for (int d = k; d > 0; d--) {
+                    r[d] = (((r[d] << 1) | 1) & mask) | ((r[d - 1] << 1) | 1);
+                }
+                r[0] = ((r[0] << 1) | 1) & mask;
+                if ((r[k] & lastBit) != 0 && position >= pattern.length()) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private final class BlockedShiftAndMismatch extends EndIterator {
+        /**
+         * r[d * words + w]为R[d]的第w个字
+         */
+        private final long[] r;
+        private final int k;
+
+        BlockedShiftAndMismatch(CharSequence text, int k) {
+            super(text);
+            this.k = k;
+            r = new long[(k + 1) * words];
+        }
+
+        @Override
+        int advance() {
+            int n = text.length();
+            long[] r = this.r;
+            int last = words - 1;
+            while (position < n) {
+                int base = table.base(text.charAt(position++));
+                for (int d = k; d >= 0; d--) {
+                    int row = d * words;
+                    int below = row - words;
+                    // 从高位字到低位字左移一位，进位来自低一位的字的最高位
+                    for (int w = last; w >= 0; w--) {
+                        long shifted = (r[row + w] << 1) | (w == 0 ? 1 : r[row + w - 1] >>> 63);
+                        long value = base < 0 ? 0 : shifted & masks[base + w];
+                        if (d > 0) {
+                            value |= (r[below + w] << 1) | (w == 0 ? 1 : r[below + w - 1] >>> 63);
+                        }
+                        r[row + w] = value;
+                    }
+                }
+                if ((r[k * words + last] & lastBit) != 0 && position >= pattern.length()) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private final class MyersSearch extends EndIterator {
+        private final int k;
+        private long pv = -1L;
+        private long mv;
+        private int score = pattern.length();
+
+        MyersSearch(CharSequence text, int k) {
+            super(text);
+            this.k = k;
+        }
+
+        @Override
+        int advance() {
+            int n = text.length();
+            while (position < n) {
+                int base = table.base(text.charAt(position++));
+                long eq = base < 0 ? 0 : masks[base];
+                long xv = eq | mv;
+                long xh = (((eq & pv) + pv) ^ pv) | eq;
+                long ph = mv | ~(xh | pv);
+                long mh = pv & xh;
+                if ((ph & lastBit) != 0) {
+                    score++;
+                } else if ((mh & lastBit) != 0) {
+                    score--;
+                }
+                // 搜索时第0行全为0，所以移入的水平差值为0
+                ph <<= 1;
+                mh <<= 1;
+                pv = mh | ~(xv | ph);
+                mv = ph & xv;
+                if (score <= k) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private final class BlockedMyersSearch extends EndIterator {
+        private final int k;
+        private final long[] pv;
+        private final long[] mv;
+        private int score = pattern.length();
+
+        BlockedMyersSearch(CharSequence text, int k) {
+            super(text);
+            this.k = k;
+            pv = new long[words];
+            mv = new long[words];
+            Arrays.fill(pv, -1L);
+        }
+
+        @Override
+        int advance() {
+            int n = text.length();
+            int last = words - 1;
+            while (position < n) {
+                int base = table.base(text.charAt(position++));
+                // 上一个块最后一行的水平差值，第0行全为0
+                int carry = 0;
+                for (int w = 0; w <= last; w++) {
+                    long eq = base < 0 ? 0 : masks[base + w];
+                    long p = pv[w];
+                    long m = mv[w];
+                    long xv = eq | m;
+                    if (carry < 0) {
+                        eq |= 1;
+                    }
+                    long xh = (((eq & p) + p) ^ p) | eq;
+                    long ph = m | ~(xh | p);
+                    long mh = p & xh;
+                    long high = w == last ? lastBit : Long.MIN_VALUE;
+                    int out = (ph & high) != 0 ? 1 : (mh & high) != 0 ? -1 : 0;
+                    ph <<= 1;
+                    mh <<= 1;
+                    if (carry < 0) {
+                        mh |= 1;
+                    } else if (carry > 0) {
+                        ph |= 1;
+                    }
+                    pv[w] = mh | ~(xv | ph);
+                    mv[w] = ph & xv;
+                    carry = out;
+                }
+                score += carry;
+                if (score <= k) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package jacobvv.string;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ApproximatePatternTest {
+
+    private String[][] inputs = new String[][]{
+            {"hello java", "java"},
+            {"hello jav", "java"},
+            {"hello jeva", "java"},
+            {"ABABABAABAABABAABAABABA", "ABAABABA"},
+            {"world.", "abc"},
+            {"", "1"},
+            {"a", ""},
+    };
+    private int[][] exactOutputs = new int[][]{
+            {10},
+            {},
+            {},
+            {15, 23},
+            {},
+            {},
+            {},
+    };
+    /**
+     * 至多1个字符不同
+     */
+    private int[][] mismatchOutputs = new int[][]{
+            {10},
+            {},
+            {10},
+            {15, 23},
+            {},
+            {},
+            {},
+    };
+    /**
+     * 编辑距离至多为1
+     */
+    private int[][] editOutputs = new int[][]{
+            {9, 10},
+            {9},
+            {10},
+            {7, 11, 13, 14, 15, 16, 19, 21, 22, 23},
+            {},
+            {},
+            {},
+    };
+
+    @Test
+    void exactEndsTest() {
+        for (int i = 0; i < inputs.length; i++) {
+            ApproximatePattern target = ApproximatePattern.compile(inputs[i][1]);
+            assertArrayEquals(exactOutputs[i], target.exactEnds(inputs[i][0]).toArray());
+        }
+    }
+
+    @Test
+    void mismatchEndsTest() {
+        for (int i = 0; i < inputs.length; i++) {
+            ApproximatePattern target = ApproximatePattern.compile(inputs[i][1]);
+            assertArrayEquals(mismatchOutputs[i], target.mismatchEnds(inputs[i][0], 1).toArray());
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> ApproximatePattern.compile("java").mismatchEnds("java", -1));
+    }
+
+    @Test
+    void editEndsTest() {
+        for (int i = 0; i < inputs.length; i++) {
+            ApproximatePattern target = ApproximatePattern.compile(inputs[i][1]);
+            assertArrayEquals(editOutputs[i], target.editEnds(inputs[i][0], 1).toArray());
+        }
+    }
+
+    @Test
+    void longPatternTest() {
+        // 超过64个字符时使用多个字表示位向量，结果应与逐个窗口比较/动态规划的结果相同
+        Random random = new Random(17);
+        for (int m : new int[]{63, 64, 65, 128, 150}) {
+            String pattern = randomString(random, m, 3);
+            String text = randomString(random, 200, 3) + pattern.substring(0, m / 2) + "x"
+                    + pattern.substring(m / 2 + 1) + randomString(random, 50, 3);
+            ApproximatePattern target = ApproximatePattern.compile(pattern);
+            for (int k = 0; k <= 2; k++) {
+                assertArrayEquals(mismatches(text, pattern, k), target.mismatchEnds(text, k).toArray());
+                assertArrayEquals(edits(text, pattern, k), target.editEnds(text, k).toArray());
+            }
+        }
+    }
+
+    private static int[] mismatches(String text, String pattern, int k) {
+        int m = pattern.length();
+        return IntStream.rangeClosed(m, text.length()).filter(end -> {
+            int count = 0;
+            for (int i = 0; i < m; i++) {
+                if (text.charAt(end - m + i) != pattern.charAt(i)) {
+                    count++;
+                }
+            }
+            return count <= k;
+        }).toArray();
+    }
+
+    /**
+     * 第0行全为0的编辑距离动态规划，最后一行不大于k的列即为匹配的结束位置
+     */
+    private static int[] edits(String text, String pattern, int k) {
+        int n = text.length();
+        int[] prev = new int[n + 1];
+        int[] curr = new int[n + 1];
+        for (int i = 1; i <= pattern.length(); i++) {
+            curr[0] = i;
+            for (int j = 1; j <= n; j++) {
+                int cost = pattern.charAt(i - 1) == text.charAt(j - 1) ? 0 : 1;
+                curr[j] = Math.min(prev[j - 1] + cost, Math.min(prev[j], curr[j - 1]) + 1);
+            }
+            int[] tmp = prev;
+            prev = curr;
+            curr = tmp;
+        }
+        int[] row = prev;
+        return IntStream.rangeClosed(1, n).filter(j -> row[j] <= k).toArray();
+    }
+
+    private static String randomString(Random random, int len, int alphabet) {
+        StringBuilder sb = new StringBuilder(len);
+        for (int i = 0; i < len; i++) {
+            sb.append((char) ('a' + random.nextInt(alphabet)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,85 @@
+package jacobvv.string;
+
+import java.util.Arrays;
+
+/**
+ * 位并行计算LCS的长度(Allison-Dix / Hyyrö算法)
+ * 将动态规划表c的一列用一个位向量V表示：设X为模式串，长度为m，
+ * 对于Y的前缀Yj，V的第i位为0表示c[i+1][j] = c[i][j] + 1，为1表示c[i+1][j] = c[i][j]。
+ * 那么c[m][j]即为V中0的个数。
+ * <p>
+ * 对于Y的每个字符y，设M[y]为X中等于y的位置组成的位向量，则有
+ * U = V & M[y]
+ * V' = (V + U) | (V - U)
+ * 其中加法的进位恰好完成了“每一段连续的1中，找到最低的匹配位并将其变为0”的操作，
+ * 所以一次字长运算就能处理64个单元格。当m > 64时，用多个long表示位向量，加法在字之间传递进位。
+ * <p>
+ * 对象中的匹配表和位向量可以在多次计算中复用，但对象本身不是线程安全的。
+ * <p>
+ * 时间复杂度O(n⌈m/64⌉)，空间复杂度O(σ⌈m/64⌉)，σ为X中不同字符的个数
+ */
+class BitParallelLcs {
+
+    /**
+     * 较短字符串的匹配表
+     */
+    private final CharMasks table = new CharMasks();
+    private long[] v = new long[0];
+
+    /**
+     * 计算字符串X和字符串Y的LCS长度
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     * @return LCS长度
+     */
+    int length(String x, String y) {
+        if (x == null || x.isEmpty() || y == null || y.isEmpty()) {
+            return 0;
+        }
+        // 较短的字符串作为位向量，匹配表更小
+        String pattern = x.length() < y.length() ? x : y;
+        String text = x.length() < y.length() ? y : x;
+        int m = pattern.length();
+        table.build(pattern);
+        int words = table.words();
+        long[] masks = table.masks();
+        if (v.length < words) {
+            v = new long[words];
+        }
+        long[] v = this.v;
+        Arrays.fill(v, 0, words, -1L);
+        int n = text.length();
+        for (int j = 0; j < n; j++) {
+            int base = table.base(text.charAt(j));
+            if (base < 0) {
+                // U = 0，V' = V
+                continue;
+            }
+            if (words == 1) {
+                long vw = v[0];
+                long u = vw & masks[base];
+                v[0] = (vw + u) | (vw - u);
+                continue;
+            }
+            long carry = 0;
+            for (int w = 0; w < words; w++) {
+                long vw = v[w];
+                long u = vw & masks[base + w];
+                long sum = vw + u + carry;
+                // 全加器的进位
+                carry = ((vw & u) | ((vw | u) & ~sum)) >>> 63;
+                v[w] = sum | (vw - u);
+            }
+        }
+        // 统计m位中0的个数
+        int ones = 0;
+        for (int w = 0; w < words - 1; w++) {
+            ones += Long.bitCount(v[w]);
+        }
+        int rest = m - ((words - 1) << 6);
+        long last = rest == 64 ? v[words - 1] : v[words - 1] & ((1L << rest) - 1);
+        ones += Long.bitCount(last);
+        return m - ones;
+    }
+}
@@ -0,0 +1,24 @@
+package jacobvv.string;
+
+import java.nio.ByteBuffer;
+
+/**
+ * ByteBuffer的辅助方法
+ */
+final class Buffers {
+
+    private Buffers() {
+    }
+
+    /**
+     * 复制缓冲区position到limit之间的字节，不改变缓冲区的position
+     *
+     * @param buffer 缓冲区
+     * @return 剩余字节的副本
+     */
+    static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+}
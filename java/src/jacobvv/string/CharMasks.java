@@ -0,0 +1,103 @@
+package jacobvv.string;
+
+import java.util.Arrays;
+
+/**
+ * 位并行算法的匹配表
+ * 设模式串长度为m，对于模式串中出现的每个字符c，M[c]为模式串中等于c的位置组成的位向量，
+ * 每个位向量用⌈m/64⌉个long表示。{@link BitParallelLcs}和{@link ApproximatePattern}共用这一构建方式。
+ * <p>
+ * 对象可以通过{@link #build(String)}为不同的模式串重新构建，复用已经分配的数组；
+ * 构建完成后只读的对象可以被多个线程同时使用。
+ * <p>
+ * 构建的时间复杂度O(m log m)，空间复杂度O(σ⌈m/64⌉)，σ为模式串中不同字符的个数
+ */
+class CharMasks {
+
+    /**
+     * 对于Latin-1字符，直接通过下标找到匹配表，其余字符使用二分查找
+     */
+    private static final int DIRECT_RANGE = 256;
+
+    /**
+     * 模式串中出现的字符，升序排列，只有前keyCount个有效
+     */
+    private char[] keys = new char[0];
+    private int keyCount;
+    /**
+     * direct[c]为字符c在keys中的下标+1，0表示模式串中不存在字符c
+     */
+    private final int[] direct = new int[DIRECT_RANGE];
+    /**
+     * 匹配表，masks[k * words + w]为字符keys[k]的位向量的第w个字
+     */
+    private long[] masks = new long[0];
+    private int words;
+
+    /**
+     * 构建模式串的匹配表
+     *
+     * @param pattern 模式串
+     * @return 模式串中不同字符的个数
+     */
+    int build(String pattern) {
+        int m = pattern.length();
+        words = (m + 63) >>> 6;
+        if (keys.length < m) {
+            keys = new char[m];
+        }
+        pattern.getChars(0, m, keys, 0);
+        Arrays.sort(keys, 0, m);
+        keyCount = 0;
+        for (int i = 0; i < m; i++) {
+            if (keyCount == 0 || keys[keyCount - 1] != keys[i]) {
+                keys[keyCount++] = keys[i];
+            }
+        }
+        Arrays.fill(direct, 0);
+        for (int k = 0; k < keyCount && keys[k] < DIRECT_RANGE; k++) {
+            direct[keys[k]] = k + 1;
+        }
+        if (masks.length < keyCount * words) {
+            masks = new long[keyCount * words];
+        }
+        Arrays.fill(masks, 0, keyCount * words, 0L);
+        for (int i = 0; i < m; i++) {
+            masks[indexOf(pattern.charAt(i)) * words + (i >>> 6)] |= 1L << i;
+        }
+        return keyCount;
+    }
+
+    /**
+     * @return 每个位向量的字数
+     */
+    int words() {
+        return words;
+    }
+
+    /**
+     * 匹配表，重新构建后可能换成新的数组
+     */
+    long[] masks() {
+        return masks;
+    }
+
+    /**
+     * @return 字符c在keys中的下标，模式串中不存在字符c则返回-1
+     */
+    int indexOf(char c) {
+        if (c < DIRECT_RANGE) {
+            return direct[c] - 1;
+        }
+        int k = Arrays.binarySearch(keys, 0, keyCount, c);
+        return k < 0 ? -1 : k;
+    }
+
+    /**
+     * @return 字符c的位向量在masks中的起始下标，模式串中不存在字符c则返回-1
+     */
+    int base(char c) {
+        int k = indexOf(c);
+        return k < 0 ? -1 : k * words;
+    }
+}
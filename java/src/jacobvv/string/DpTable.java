@@ -0,0 +1,224 @@
+package jacobvv.string;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 动态规划的记录表
+ * int[m+1][n+1]形式的记录表受限于堆的大小，并且m*n个单元格都会给GC带来压力。
+ * 这里把记录表按行优先的顺序保存在若干个ByteBuffer段中，每段不超过1GB，
+ * 段可以分配在堆中、堆外(direct buffer)或者映射到一个临时文件，由{@link Storage}决定；
+ * 映射到文件时记录表的大小只受磁盘空间的限制，由操作系统负责换入换出。
+ * <p>
+ * 单元格的宽度根据值的上限决定：不超过255时为1字节，不超过65535时为2字节，否则为4字节。
+ * LCS和最长公共子串的记录值都不超过min(m,n)，所以长度在65535以内时记录表只有int[][]的一半大小。
+ * <p>
+ * 同一个记录表可以在多次计算中复用(见{@link #fits})，避免每次都重新分配和映射。
+ * <p>
+ * 对象不是线程安全的。
+ */
+public final class DpTable implements AutoCloseable {
+
+    /**
+     * 记录表的存储位置
+     */
+    public enum Storage {
+        /**
+         * 堆中的byte[]
+         */
+        HEAP,
+        /**
+         * 堆外内存，受-XX:MaxDirectMemorySize的限制
+         */
+        OFF_HEAP,
+        /**
+         * 映射到临时文件，文件在映射建立后立即被删除。
+         * 删除的只是目录项：映射没有公开的立即解除的方法，{@link #close()}之后
+         * 文件占用的磁盘块和映射的地址空间仍被保留，直到段不可达并被GC回收。
+         * 频繁计算时每次分配都会留下一个这样的文件，应复用调用方持有的记录表。
+         */
+        MAPPED
+    }
+
+    /**
+     * 每段2^30字节
+     */
+    private static final int SEGMENT_BYTES_SHIFT = 30;
+
+    private final int rows;
+    private final int columns;
+    private final int cellBytes;
+    /**
+     * 每段的单元格数为2^segmentShift
+     */
+    private final int segmentShift;
+    private final long segmentMask;
+    private ByteBuffer[] segments;
+
+    private DpTable(int rows, int columns, int cellBytes, ByteBuffer[] segments) {
+        this.rows = rows;
+        this.columns = columns;
+        this.cellBytes = cellBytes;
+        this.segmentShift = SEGMENT_BYTES_SHIFT - Integer.numberOfTrailingZeros(cellBytes);
+        this.segmentMask = (1L << segmentShift) - 1;
+        this.segments = segments;
+    }
+
+    /**
+     * 分配记录表，所有单元格的初始值为0
+     *
+     * @param rows     行数
+     * @param columns  列数
+     * @param maxValue 单元格的最大值，决定单元格的宽度
+     * @param storage  存储位置
+     * @return 记录表
+     * @throws IOException 创建或映射临时文件失败
+     */
+    public static DpTable allocate(int rows, int columns, int maxValue, Storage storage) throws IOException {
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException("rows and columns must not be negative: " + rows + "x" + columns);
+        }
+        if (maxValue < 0) {
+            throw new IllegalArgumentException("maxValue must not be negative: " + maxValue);
+        }
+        int cellBytes = maxValue <= 0xFF ? 1 : maxValue <= 0xFFFF ? 2 : 4;
+        long totalBytes = (long) rows * columns * cellBytes;
+        long segmentBytes = 1L << SEGMENT_BYTES_SHIFT;
+        int count = (int) ((totalBytes + segmentBytes - 1) >>> SEGMENT_BYTES_SHIFT);
+        ByteBuffer[] segments = new ByteBuffer[count];
+        if (storage == Storage.MAPPED) {
+            map(segments, totalBytes);
+        } else {
+            for (int s = 0; s < count; s++) {
+                int size = (int) Math.min(segmentBytes, totalBytes - s * segmentBytes);
+                segments[s] = storage == Storage.OFF_HEAP ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+            }
+        }
+        for (ByteBuffer segment : segments) {
+            segment.order(ByteOrder.nativeOrder());
+        }
+        return new DpTable(rows, columns, cellBytes, segments);
+    }
+
+    private static void map(ByteBuffer[] segments, long totalBytes) throws IOException {
+        Path file = Files.createTempFile("dp-table", ".tmp");
+        // 映射建立后关闭通道即删除文件，已映射的内存仍然有效
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE)) {
+            long segmentBytes = 1L << SEGMENT_BYTES_SHIFT;
+            for (int s = 0; s < segments.length; s++) {
+                long position = s * segmentBytes;
+                segments[s] = channel.map(FileChannel.MapMode.READ_WRITE, position,
+                        Math.min(segmentBytes, totalBytes - position));
+            }
+        } catch (Throwable e) {
+            // 通道没有打开时DELETE_ON_CLOSE不会生效，由这里删除临时文件
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * @return 每个单元格的字节数，1、2或4
+     */
+    public int cellBytes() {
+        return cellBytes;
+    }
+
+    /**
+     * @return 单元格能保存的最大值
+     */
+    public int maxValue() {
+        return cellBytes == 1 ? 0xFF : cellBytes == 2 ? 0xFFFF : Integer.MAX_VALUE;
+    }
+
+    /**
+     * 判断记录表能否作为rows*columns、单元格最大值为maxValue的记录表使用，
+     * 行数和列数较大的记录表只使用左上角的部分
+     *
+     * @param rows     需要的行数
+     * @param columns  需要的列数
+     * @param maxValue 需要的单元格最大值
+     * @return 记录表足够大时返回true
+     */
+    public boolean fits(int rows, int columns, int maxValue) {
+        return rows <= this.rows && columns <= this.columns && maxValue <= maxValue();
+    }
+
+    /**
+     * @throws IllegalArgumentException 记录表不够大
+     */
+    void checkFits(int rows, int columns, int maxValue) {
+        if (!fits(rows, columns, maxValue)) {
+            throw new IllegalArgumentException("Table " + this.rows + "x" + this.columns + " (max " + maxValue()
+                    + ") is too small for " + rows + "x" + columns + " (max " + maxValue + ")");
+        }
+    }
+
+    /**
+     * @param i 行
+     * @param j 列
+     * @return 单元格的值
+     */
+    public int get(int i, int j) {
+        long index = (long) i * columns + j;
+        ByteBuffer segment = segments[(int) (index >>> segmentShift)];
+        int offset = (int) (index & segmentMask) * cellBytes;
+        switch (cellBytes) {
+            case 1:
+                return segment.get(offset) & 0xFF;
+            case 2:
+                return segment.getShort(offset) & 0xFFFF;
+            default:
+                return segment.getInt(offset);
+        }
+    }
+
+    /**
+     * @param i     行
+     * @param j     列
+     * @param value 单元格的值，不能超过分配时的最大值
+     */
+    public void set(int i, int j, int value) {
+        long index = (long) i * columns + j;
+        ByteBuffer segment = segments[(int) (index >>> segmentShift)];
+        int offset = (int) (index & segmentMask) * cellBytes;
+        switch (cellBytes) {
+            case 1:
+                segment.put(offset, (byte) value);
+                break;
+            case 2:
+                segment.putShort(offset, (short) value);
+                break;
+            default:
+                segment.putInt(offset, value);
+                break;
+        }
+    }
+
+    /**
+     * 释放对各段的引用，之后不能再访问记录表
+     * 堆外内存和文件映射没有公开的立即释放的方法，在段不可达后由GC释放
+     */
+    @Override
+    public void close() {
+        segments = null;
+    }
+}
@@ -0,0 +1,241 @@
+package jacobvv.string;
+
+import java.util.*;
+
+/**
+ * 广义后缀树(Generalized Suffix Tree)
+ * 将字符串X和Y用两个互不相同、且不在字符集中的终结符拼接成X#Y$，
+ * 对拼接后的文本构建后缀树，则X和Y的所有后缀都对应树中的一个叶子节点。
+ * <p>
+ * 构建使用Ukkonen在线算法，从左到右依次加入每个字符，借助后缀链接(suffix link)、
+ * 活动点(active point)以及全局叶子终点，使得每个阶段的均摊代价为O(1)。
+ * <p>
+ * 时间复杂度O(n+m)，空间复杂度O(n+m)
+ */
+public class GeneralizedSuffixTree {
+
+    /**
+     * 字符串X的终结符，字符的取值范围为[0, 65535]，所以使用负数作为终结符
+     */
+    private static final int SEPARATOR_X = -1;
+    /**
+     * 字符串Y的终结符
+     */
+    private static final int SEPARATOR_Y = -2;
+    /**
+     * 叶子节点的边终点为全局终点，随构建过程自动延长
+     */
+    private static final int LEAF_END = -1;
+
+    private final String x;
+    private final String y;
+    private final int[] text;
+    private final Node root;
+
+    // Ukkonen算法构建过程中的状态
+    private int leafEnd = -1;
+    private Node activeNode;
+    private int activeEdge = -1;
+    private int activeLength = 0;
+    private int remainder = 0;
+
+    /**
+     * 构建字符串X和Y的广义后缀树
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     */
+    public GeneralizedSuffixTree(String x, String y) {
+        this.x = x;
+        this.y = y;
+        int lenX = x.length();
+        int lenY = y.length();
+        text = new int[lenX + lenY + 2];
+        for (int i = 0; i < lenX; i++) {
+            text[i] = x.charAt(i);
+        }
+        text[lenX] = SEPARATOR_X;
+        for (int i = 0; i < lenY; i++) {
+            text[lenX + 1 + i] = y.charAt(i);
+        }
+        text[lenX + lenY + 1] = SEPARATOR_Y;
+        root = new Node(-1, -1, -1);
+        activeNode = root;
+        for (int pos = 0; pos < text.length; pos++) {
+            extend(pos);
+        }
+    }
+
+    /**
+     * Ukkonen算法的一个阶段：将text[pos]加入到所有尚未显式插入的后缀中
+     * 1. 全局叶子终点后移，所有叶子节点自动延长(规则1)
+     * 2. 活动点处没有以text[pos]开始的路径时，新建叶子节点，必要时分裂边(规则2)
+     * 3. 活动点处已经存在text[pos]时，只需要移动活动点，并结束本阶段(规则3)
+     *
+     * @param pos 当前加入字符的下标
+     */
+    private void extend(int pos) {
+        leafEnd = pos;
+        remainder++;
+        Node lastNewNode = null;
+        while (remainder > 0) {
+            if (activeLength == 0) {
+                activeEdge = pos;
+            }
+            Node next = activeNode.child(text[activeEdge]);
+            if (next == null) {
+                activeNode.addChild(text[activeEdge], new Node(pos, LEAF_END, pos - remainder + 1));
+                if (lastNewNode != null) {
+                    lastNewNode.link = activeNode;
+                    lastNewNode = null;
+                }
+            } else {
+                // 活动长度超过了当前边的长度，需要沿着边向下走(skip/count)
+                int edgeLength = edgeLength(next);
+                if (activeLength >= edgeLength) {
+                    activeEdge += edgeLength;
+                    activeLength -= edgeLength;
+                    activeNode = next;
+                    continue;
+                }
+                if (text[next.start + activeLength] == text[pos]) {
+                    if (lastNewNode != null && activeNode != root) {
+                        lastNewNode.link = activeNode;
+                    }
+                    activeLength++;
+                    break;
+                }
+                // 在活动点处分裂边，新建内部节点和叶子节点
+                Node split = new Node(next.start, next.start + activeLength - 1, -1);
+                activeNode.addChild(text[activeEdge], split);
+                split.addChild(text[pos], new Node(pos, LEAF_END, pos - remainder + 1));
+                next.start += activeLength;
+                split.addChild(text[next.start], next);
+                if (lastNewNode != null) {
+                    lastNewNode.link = split;
+                }
+                lastNewNode = split;
+            }
+            remainder--;
+            if (activeNode == root && activeLength > 0) {
+                activeLength--;
+                activeEdge = pos - remainder + 1;
+            } else if (activeNode != root) {
+                activeNode = activeNode.link == null ? root : activeNode.link;
+            }
+        }
+    }
+
+    private int edgeLength(Node node) {
+        int end = node.end == LEAF_END ? leafEnd : node.end;
+        return end - node.start + 1;
+    }
+
+    /**
+     * 找出字符串X和Y的所有最长公共子串
+     * 对后缀树进行后序遍历，计算每个节点的路径长度(string depth)，
+     * 以及子树中的叶子来自哪些字符串(用位掩码表示，1为X，2为Y)。
+     * 子树中同时包含X和Y后缀的内部节点，其路径即为X和Y的一个公共子串，
+     * 其中路径最长的节点即为最长公共子串。
+     * 由于后缀树中每个内部节点的路径互不相同，所以结果天然无重复。
+     * <p>
+     * 为了避免在退化输入(例如aaaa...)上递归过深，这里使用显式栈遍历。
+     *
+     * @return 字符串X和字符串Y的最长公共子串集合，无则返回空集合
+     */
+    public List<String> longestCommonSubstrings() {
+        int lenX = x.length();
+        // 先序遍历，记录每个节点的父节点以及路径长度
+        List<Node> order = new ArrayList<>();
+        List<Integer> parents = new ArrayList<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        Deque<Integer> parentStack = new ArrayDeque<>();
+        stack.push(root);
+        parentStack.push(-1);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            int parent = parentStack.pop();
+            int index = order.size();
+            order.add(node);
+            parents.add(parent);
+            node.depth = parent < 0 ? 0 : order.get(parent).depth + edgeLength(node);
+            if (node.children != null) {
+                for (Node child : node.children.values()) {
+                    stack.push(child);
+                    parentStack.push(index);
+                }
+            }
+        }
+        // 逆先序即可保证子节点先于父节点处理
+        int size = order.size();
+        int[] mask = new int[size];
+        int[] suffixStart = new int[size];
+        int maxLen = 0;
+        for (int i = size - 1; i >= 0; i--) {
+            Node node = order.get(i);
+            if (node.children == null) {
+                mask[i] |= node.suffixIndex <= lenX ? 1 : 2;
+                suffixStart[i] = node.suffixIndex;
+            } else if (mask[i] == 3 && node.depth > maxLen) {
+                maxLen = node.depth;
+            }
+            int parent = parents.get(i);
+            if (parent >= 0) {
+                mask[parent] |= mask[i];
+                suffixStart[parent] = suffixStart[i];
+            }
+        }
+        List<String> result = new ArrayList<>();
+        if (maxLen == 0) {
+            return result;
+        }
+        for (int i = 0; i < size; i++) {
+            Node node = order.get(i);
+            if (node.children != null && mask[i] == 3 && node.depth == maxLen) {
+                int start = suffixStart[i];
+                if (start < lenX) {
+                    result.add(x.substring(start, start + maxLen));
+                } else {
+                    start -= lenX + 1;
+                    result.add(y.substring(start, start + maxLen));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static class Node {
+        /**
+         * 边的起始下标(包含)
+         */
+        private int start;
+        /**
+         * 边的终止下标(包含)，叶子节点为LEAF_END
+         */
+        private int end;
+        /**
+         * 叶子节点对应后缀的起始下标，内部节点为-1
+         */
+        private int suffixIndex;
+        private Node link;
+        private Map<Integer, Node> children;
+        private int depth;
+
+        public Node(int start, int end, int suffixIndex) {
+            this.start = start;
+            this.end = end;
+            this.suffixIndex = suffixIndex;
+        }
+
+        private Node child(int c) {
+            return children == null ? null : children.get(c);
+        }
+
+        private void addChild(int c, Node child) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+            children.put(c, child);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package jacobvv.string;
+
+import jacobvv.metrics.Metrics;
+import jacobvv.metrics.Probe;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 预先编译的KMP模式串
+ * {@link StringPatternMatching#kmpMatch(String, String)}每次调用都会重新构建部分匹配表，
+ * 对于反复匹配的同一个模式串，可以只构建一次部分匹配表，然后在多次匹配中复用。
+ * <p>
+ * 对象创建后不可变，可以被多个线程同时使用。
+ * <p>
+ * 编译的时间复杂度O(m)，每次匹配的时间复杂度O(n)
+ */
+public final class KmpPattern {
+
+    private final String pattern;
+    /**
+     * 部分匹配表，与{@link StringPatternMatching}中的相同，table[i]为前缀pattern[0, i)的最长公共前后缀长度
+     */
+    private final int[] table;
+    /**
+     * 整个模式串的最长公共前后缀长度，找到一个匹配后从这里继续匹配，以找出相互重叠的匹配
+     */
+    private final int border;
+
+    private KmpPattern(String pattern) {
+        this.pattern = pattern;
+        this.table = StringPatternMatching.kmpTable(pattern);
+        int m = pattern.length();
+        if (m == 0) {
+            border = 0;
+        } else {
+            int k = table[m - 1];
+            while (k >= 0 && pattern.charAt(k) != pattern.charAt(m - 1)) {
+                k = table[k];
+            }
+            border = k + 1;
+        }
+    }
+
+    /**
+     * 编译模式串
+     *
+     * @param pattern 模式串
+     * @return 编译后的模式串
+     */
+    public static KmpPattern compile(String pattern) {
+        return new KmpPattern(Objects.requireNonNull(pattern, "pattern"));
+    }
+
+    public String pattern() {
+        return pattern;
+    }
+
+    /**
+     * 查找模式串在源字符串中第一次出现的位置，与{@link StringPatternMatching#kmpMatch(String, String)}相同
+     *
+     * @param src 源字符串
+     * @return 第一次出现的下标，没有则返回-1
+     */
+    public int indexIn(String src) {
+        try (Probe probe = Metrics.start("KmpPattern.indexIn")) {
+            return indexIn(src, probe);
+        }
+    }
+
+    /**
+     * 与{@link #indexIn(String)}相同，比较和回退的次数写入调用方的探针
+     * 部分匹配表在编译时已经构建，不计入表的大小
+     *
+     * @param src   源字符串
+     * @param probe 记录比较和回退的次数
+     * @return 第一次出现的下标，没有则返回-1
+     */
+    int indexIn(String src, Probe probe) {
+        if (!matchable(src)) {
+            return -1;
+        }
+        int len = src.length();
+        int targetLen = pattern.length();
+        int m = 0;
+        int i = 0;
+        int index = -1;
+        long comparisons = 0;
+        long fallbacks = 0;
+        while (m < len) {
+            if (i < 0) {
+                m++;
+                i++;
+            } else if (src.charAt(m) == pattern.charAt(i)) {
+                comparisons++;
+                m++;
+                i++;
+            } else {
+                comparisons++;
+                fallbacks++;
+                i = table[i];
+            }
+            if (i == targetLen) {
+                index = m - targetLen;
+                break;
+            }
+        }
+        probe.comparisons(comparisons);
+        probe.fallbacks(fallbacks);
+        return index;
+    }
+
+    /**
+     * 查找模式串在源字符串中所有出现的位置(包括相互重叠的出现)
+     *
+     * @param src 源字符串
+     * @return 按升序排列的所有出现的下标
+     */
+    public int[] findAll(String src) {
+        if (!matchable(src)) {
+            return new int[0];
+        }
+        int len = src.length();
+        int targetLen = pattern.length();
+        int[] result = new int[4];
+        int found = 0;
+        int m = 0;
+        int i = 0;
+        while (m < len) {
+            if (i < 0 || src.charAt(m) == pattern.charAt(i)) {
+                m++;
+                i++;
+            } else {
+                i = table[i];
+            }
+            if (i == targetLen) {
+                if (found == result.length) {
+                    result = Arrays.copyOf(result, found * 2);
+                }
+                result[found++] = m - targetLen;
+                // 从整个模式串的最长公共前后缀处继续，不需要回退源字符串
+                i = border;
+            }
+        }
+        return Arrays.copyOf(result, found);
+    }
+
+    /**
+     * 统计模式串在源字符串中出现的次数(包括相互重叠的出现)
+     *
+     * @param src 源字符串
+     * @return 出现的次数
+     */
+    public int count(String src) {
+        if (!matchable(src)) {
+            return 0;
+        }
+        int len = src.length();
+        int targetLen = pattern.length();
+        int count = 0;
+        int m = 0;
+        int i = 0;
+        while (m < len) {
+            if (i < 0 || src.charAt(m) == pattern.charAt(i)) {
+                m++;
+                i++;
+            } else {
+                i = table[i];
+            }
+            if (i == targetLen) {
+                count++;
+                i = border;
+            }
+        }
+        return count;
+    }
+
+    private boolean matchable(String src) {
+        return src != null && !src.isEmpty() && !pattern.isEmpty() && pattern.length() <= src.length();
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
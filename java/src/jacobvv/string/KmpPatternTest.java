@@ -0,0 +1,66 @@
+package jacobvv.string;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KmpPatternTest {
+
+    private String[][] inputs = new String[][]{
+            {"hello java", "java"},
+            {"best practice of algorithms.", "best practice of algorithms."},
+            {"world.", "abc"},
+            {"", "1"},
+            {null, ""},
+            {"a", ""},
+            {"ABABABAABAABABAABAABABA", "ABAABABA"},
+            {"aaaaa", "aa"},
+    };
+    private int[][] outputs = new int[][]{
+            {6},
+            {0},
+            {},
+            {},
+            {},
+            {},
+            {7, 15},
+            {0, 1, 2, 3},
+    };
+
+    @Test
+    void indexInTest() {
+        StringPatternMatching expected = new StringPatternMatching();
+        for (String[] input : inputs) {
+            assertEquals(expected.kmpMatch(input[0], input[1]),
+                    KmpPattern.compile(input[1]).indexIn(input[0]));
+        }
+    }
+
+    @Test
+    void findAllTest() {
+        for (int i = 0; i < inputs.length; i++) {
+            KmpPattern target = KmpPattern.compile(inputs[i][1]);
+            assertArrayEquals(outputs[i], target.findAll(inputs[i][0]));
+            assertEquals(outputs[i].length, target.count(inputs[i][0]));
+        }
+    }
+
+    @Test
+    void cacheTest() {
+        PatternCache cache = new PatternCache(2);
+        StringPatternMatching target = new StringPatternMatching(cache);
+        assertEquals(6, target.kmpMatch("hello java", "java"));
+        assertEquals(6, target.kmpMatch("hello java", "java"));
+        assertEquals(0, target.kmpMatch("hello java", "hello"));
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+        // "java"最近被访问过，放入第3个模式串时淘汰"hello"
+        assertEquals(6, target.kmpMatch("hello java", "java"));
+        assertEquals(-1, target.kmpMatch("hello java", "abc"));
+        assertEquals(2, cache.size());
+        assertEquals(0, target.kmpMatch("hello java", "hello"));
+        assertEquals(2, cache.hits());
+        assertEquals(4, cache.misses());
+    }
+}
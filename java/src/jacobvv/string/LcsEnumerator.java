@@ -0,0 +1,213 @@
+package jacobvv.string;
+
+import java.util.*;
+
+/**
+ * 无重复地枚举/计数所有的LCS
+ * 回溯法沿着记录表c的所有路径构建LCS，不同的路径可能得到相同的LCS，所以需要HashSet去重，
+ * 并且共享的子路径会被反复走过。
+ * <p>
+ * 这里换一个角度：对于前缀Xi和Yj(c[i,j] = v > 0)，按照LCS的最后一个字符ch来划分所有的LCS。
+ * 设px为Xi中ch最后一次出现的位置，py为Yj中ch最后一次出现的位置，
+ * 那么以ch结尾的LCS存在，当且仅当c[px,py] == v，
+ * 并且以ch结尾的所有LCS，恰好是X(px-1)和Y(py-1)的所有LCS后面加上ch。
+ * 因为不同的ch得到的LCS结尾不同，同一个ch只对应唯一的子问题，
+ * 所以沿着这个DAG走出的每一条路径都对应一个不同的LCS，不需要去重。
+ */
+class LcsEnumerator {
+
+    private final int[][] c;
+    /**
+     * X和Y中都出现过的字符，升序排列
+     */
+    private final char[] alphabet;
+    /**
+     * positionsX[k]为字符alphabet[k]在X中出现的位置(从1开始)，升序排列
+     */
+    private final int[][] positionsX;
+    private final int[][] positionsY;
+
+    LcsEnumerator(String x, String y, int[][] c) {
+        this.c = c;
+        Map<Character, List<Integer>> inX = positions(x);
+        Map<Character, List<Integer>> inY = positions(y);
+        List<Character> common = new ArrayList<>();
+        for (Character ch : inX.keySet()) {
+            if (inY.containsKey(ch)) {
+                common.add(ch);
+            }
+        }
+        Collections.sort(common);
+        alphabet = new char[common.size()];
+        positionsX = new int[common.size()][];
+        positionsY = new int[common.size()][];
+        for (int k = 0; k < alphabet.length; k++) {
+            alphabet[k] = common.get(k);
+            positionsX[k] = toArray(inX.get(alphabet[k]));
+            positionsY[k] = toArray(inY.get(alphabet[k]));
+        }
+    }
+
+    /**
+     * 用显式栈深度优先遍历DAG，每到达一个c[i,j] == 0的状态就得到一个LCS
+     * 栈的深度至多为LCS的长度，每个LCS只在调用next()时才创建
+     *
+     * @return 所有不同LCS的迭代器
+     */
+    Iterator<String> iterator() {
+        int rows = c.length - 1;
+        int cols = c[0].length - 1;
+        int length = c[rows][cols];
+        return new Iterator<String>() {
+            private final char[] buffer = new char[length];
+            private final int[] stackI = new int[length + 1];
+            private final int[] stackJ = new int[length + 1];
+            private final int[] stackNext = new int[length + 1];
+            private int top = -1;
+            private String next;
+
+            {
+                if (length > 0) {
+                    push(rows, cols);
+                }
+                next = advance();
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public String next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                String result = next;
+                next = advance();
+                return result;
+            }
+
+            private void push(int i, int j) {
+                top++;
+                stackI[top] = i;
+                stackJ[top] = j;
+                stackNext[top] = 0;
+            }
+
+            private String advance() {
+                while (top >= 0) {
+                    int i = stackI[top];
+                    int j = stackJ[top];
+                    int v = c[i][j];
+                    if (v == 0) {
+                        top--;
+                        return new String(buffer);
+                    }
+                    boolean pushed = false;
+                    for (int k = stackNext[top]; k < alphabet.length; k++) {
+                        int px = lastAtOrBefore(positionsX[k], i);
+                        int py = lastAtOrBefore(positionsY[k], j);
+                        if (px > 0 && py > 0 && c[px][py] == v) {
+                            stackNext[top] = k + 1;
+                            buffer[v - 1] = alphabet[k];
+                            push(px - 1, py - 1);
+                            pushed = true;
+                            break;
+                        }
+                    }
+                    if (!pushed) {
+                        top--;
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * 计算不同LCS的个数
+     * count[i,j] = 1, (c[i,j] == 0)
+     * count[i,j] = ∑count[px-1,py-1], (c[i,j] > 0，对所有满足c[px,py] == c[i,j]的字符ch求和)
+     * 只计算从(m,n)可达的状态，用显式栈后序计算以避免递归过深。
+     *
+     * @return 不同LCS的个数，无LCS时返回0
+     * @throws ArithmeticException 个数超出long的范围
+     */
+    long count() {
+        int rows = c.length - 1;
+        int cols = c[0].length - 1;
+        if (c[rows][cols] == 0) {
+            return 0;
+        }
+        long[][] memo = new long[rows + 1][cols + 1];
+        for (long[] row : memo) {
+            Arrays.fill(row, -1);
+        }
+        Deque<int[]> stack = new ArrayDeque<>();
+        stack.push(new int[]{rows, cols});
+        while (!stack.isEmpty()) {
+            int[] state = stack.peek();
+            int i = state[0];
+            int j = state[1];
+            if (memo[i][j] >= 0) {
+                stack.pop();
+                continue;
+            }
+            int v = c[i][j];
+            if (v == 0) {
+                memo[i][j] = 1;
+                stack.pop();
+                continue;
+            }
+            long sum = 0;
+            boolean ready = true;
+            for (int k = 0; k < alphabet.length; k++) {
+                int px = lastAtOrBefore(positionsX[k], i);
+                int py = lastAtOrBefore(positionsY[k], j);
+                if (px > 0 && py > 0 && c[px][py] == v) {
+                    long sub = memo[px - 1][py - 1];
+                    if (sub < 0) {
+                        stack.push(new int[]{px - 1, py - 1});
+                        ready = false;
+                    } else if (ready) {
+                        sum = Math.addExact(sum, sub);
+                    }
+                }
+            }
+            if (ready) {
+                memo[i][j] = sum;
+                stack.pop();
+            }
+        }
+        return memo[rows][cols];
+    }
+
+    /**
+     * @return positions中不大于limit的最大值，不存在则返回0
+     */
+    private static int lastAtOrBefore(int[] positions, int limit) {
+        int index = Arrays.binarySearch(positions, limit);
+        if (index >= 0) {
+            return positions[index];
+        }
+        int insertion = -index - 1;
+        return insertion == 0 ? 0 : positions[insertion - 1];
+    }
+
+    private static Map<Character, List<Integer>> positions(String s) {
+        Map<Character, List<Integer>> map = new HashMap<>();
+        for (int i = 0; i < s.length(); i++) {
+            map.computeIfAbsent(s.charAt(i), k -> new ArrayList<>()).add(i + 1);
+        }
+        return map;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}
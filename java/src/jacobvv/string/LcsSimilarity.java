@@ -0,0 +1,207 @@
+package jacobvv.string;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 基于LCS的批量相似度计算
+ * 两个字符串的相似度定义为 2 * |LCS| / (|A| + |B|)，取值范围[0, 1]，两个空字符串的相似度为1。
+ * <p>
+ * 对N个字符串两两计算相似度时，逐对调用{@link LongestCommonSubsequence}每次都会分配新的记录表，
+ * 并且只使用一个核。这里：
+ * 1. 只需要LCS的长度，所以使用{@link BitParallelLcs}，不需要记录表；
+ * 2. 每个线程持有一个BitParallelLcs，其匹配表和位向量在该线程计算的所有字符串对之间复用；
+ * 3. 按行把计算拆分为ForkJoinPool中的任务，由工作窃取平衡各行不同的计算量。
+ * <p>
+ * 时间复杂度O(N² * n⌈m/64⌉ / p)，p为并行度
+ */
+public class LcsSimilarity {
+
+    /**
+     * 一个相似的字符串
+     */
+    public static class Neighbor {
+        private final int index;
+        private final double similarity;
+
+        public Neighbor(int index, double similarity) {
+            this.index = index;
+            this.similarity = similarity;
+        }
+
+        /**
+         * @return 字符串在输入列表中的下标
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public double getSimilarity() {
+            return similarity;
+        }
+
+        @Override
+        public String toString() {
+            return index + "=" + similarity;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    /**
+     * 每个线程复用的匹配表和位向量
+     */
+    private final ThreadLocal<BitParallelLcs> scratch = ThreadLocal.withInitial(BitParallelLcs::new);
+
+    public LcsSimilarity() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool 用于并行计算的线程池
+     */
+    public LcsSimilarity(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * 计算两个字符串的相似度
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     * @return 相似度
+     */
+    public double similarity(String x, String y) {
+        int total = length(x) + length(y);
+        if (total == 0) {
+            return 1.0;
+        }
+        return 2.0 * scratch.get().length(x, y) / total;
+    }
+
+    /**
+     * 计算所有字符串两两之间的相似度，每一对只计算一次
+     *
+     * @param items 字符串列表，null视为空字符串
+     * @return 对称的相似度矩阵，matrix[i][j]为第i个和第j个字符串的相似度，对角线为1
+     */
+    public double[][] matrix(List<String> items) {
+        String[] values = items.toArray(new String[0]);
+        int n = values.length;
+        double[][] matrix = new double[n][n];
+        if (n == 0) {
+            return matrix;
+        }
+        pool.invoke(new RowTask(0, n, row -> {
+            double[] current = matrix[row];
+            current[row] = 1.0;
+            for (int j = row + 1; j < n; j++) {
+                current[j] = similarity(values[row], values[j]);
+            }
+        }));
+        // 下三角由上三角复制得到，各行的任务只写自己的行，所以这里再统一复制
+        for (int i = 1; i < n; i++) {
+            for (int j = 0; j < i; j++) {
+                matrix[i][j] = matrix[j][i];
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * 为每个字符串找出与其最相似的k个其他字符串
+     * 为了不保存N×N的矩阵，每个字符串与其余所有字符串分别计算，计算量是{@link #matrix(List)}的两倍，
+     * 但是内存只需要O(Nk)。
+     *
+     * @param items 字符串列表，null视为空字符串
+     * @param k     每个字符串保留的相似字符串的个数
+     * @return 第i个元素为与第i个字符串最相似的至多k个字符串，按相似度降序排列，相似度相同时下标小的在前
+     */
+    public List<List<Neighbor>> topK(List<String> items, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        String[] values = items.toArray(new String[0]);
+        int n = values.length;
+        Neighbor[][] result = new Neighbor[n][];
+        if (n > 0) {
+            pool.invoke(new RowTask(0, n, row -> result[row] = nearest(values, row, k)));
+        }
+        List<List<Neighbor>> neighbors = new ArrayList<>(n);
+        for (Neighbor[] row : result) {
+            neighbors.add(Collections.unmodifiableList(Arrays.asList(row)));
+        }
+        return neighbors;
+    }
+
+    /**
+     * 插入排序维护前k个，k通常很小
+     */
+    private Neighbor[] nearest(String[] values, int row, int k) {
+        int limit = Math.min(k, values.length - 1);
+        int[] indexes = new int[limit];
+        double[] scores = new double[limit];
+        int size = 0;
+        for (int j = 0; j < values.length; j++) {
+            if (j == row) {
+                continue;
+            }
+            double score = similarity(values[row], values[j]);
+            if (size == limit && (limit == 0 || score <= scores[limit - 1])) {
+                continue;
+            }
+            int pos = size < limit ? size++ : limit - 1;
+            // j是递增的，相似度相同时不越过已有的元素，保证下标小的在前
+            while (pos > 0 && scores[pos - 1] < score) {
+                scores[pos] = scores[pos - 1];
+                indexes[pos] = indexes[pos - 1];
+                pos--;
+            }
+            scores[pos] = score;
+            indexes[pos] = j;
+        }
+        Neighbor[] neighbors = new Neighbor[size];
+        for (int i = 0; i < size; i++) {
+            neighbors[i] = new Neighbor(indexes[i], scores[i]);
+        }
+        return neighbors;
+    }
+
+    private static int length(String s) {
+        return s == null ? 0 : s.length();
+    }
+
+    private interface RowAction {
+        void compute(int row);
+    }
+
+    /**
+     * 二分地拆分行的区间[from, to)，直到只剩一行
+     */
+    private static class RowTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final RowAction action;
+
+        RowTask(int from, int to, RowAction action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RowTask(from, mid, action), new RowTask(mid, to, action));
+                return;
+            }
+            action.compute(from);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package jacobvv.string;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LcsSimilarityTest {
+
+    private List<String> items = Arrays.asList(
+            "hello java",
+            "hello jav",
+            "world see aha.",
+            "",
+            "best practice of algorithms.",
+            "best practice of java.",
+            null
+    );
+
+    @Test
+    void matrixTest() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            LcsSimilarity target = new LcsSimilarity(pool);
+            LongestCommonSubsequence lcs = new LongestCommonSubsequence();
+            double[][] matrix = target.matrix(items);
+            assertEquals(items.size(), matrix.length);
+            for (int i = 0; i < items.size(); i++) {
+                for (int j = 0; j < items.size(); j++) {
+                    String x = items.get(i) == null ? "" : items.get(i);
+                    String y = items.get(j) == null ? "" : items.get(j);
+                    double expected = x.isEmpty() && y.isEmpty() ? 1.0
+                            : 2.0 * lcs.lengthByDp(x, y) / (x.length() + y.length());
+                    assertEquals(expected, matrix[i][j], 1e-12, "(" + i + ", " + j + ")");
+                }
+            }
+            assertEquals(18.0 / 19, matrix[0][1], 1e-12);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void topKTest() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            LcsSimilarity target = new LcsSimilarity(pool);
+            // 随机字符串，结果应与按矩阵排序的结果相同
+            Random random = new Random(3);
+            List<String> values = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                StringBuilder sb = new StringBuilder();
+                for (int j = random.nextInt(100); j > 0; j--) {
+                    sb.append((char) ('a' + random.nextInt(4)));
+                }
+                values.add(sb.toString());
+            }
+            double[][] matrix = target.matrix(values);
+            List<List<LcsSimilarity.Neighbor>> neighbors = target.topK(values, 5);
+            for (int i = 0; i < values.size(); i++) {
+                int row = i;
+                List<Integer> expected = new ArrayList<>();
+                for (int j = 0; j < values.size(); j++) {
+                    if (j != i) {
+                        expected.add(j);
+                    }
+                }
+                expected.sort((a, b) -> matrix[row][a] != matrix[row][b]
+                        ? Double.compare(matrix[row][b], matrix[row][a]) : Integer.compare(a, b));
+                List<LcsSimilarity.Neighbor> actual = neighbors.get(i);
+                assertEquals(5, actual.size());
+                for (int k = 0; k < 5; k++) {
+                    assertEquals((int) expected.get(k), actual.get(k).getIndex());
+                    assertEquals(matrix[i][expected.get(k)], actual.get(k).getSimilarity(), 1e-12);
+                }
+            }
+            // k大于其他字符串的个数
+            assertEquals(1, target.topK(Arrays.asList("a", "b"), 3).get(0).size());
+            assertTrue(target.topK(Arrays.asList("a", "b"), 0).get(0).isEmpty());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -1,6 +1,14 @@
 package jacobvv.string;
 
+import jacobvv.metrics.Metrics;
+import jacobvv.metrics.Probe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 最长公共子序列(LCS)问题
@@ -11,6 +19,27 @@ import java.util.*;
  */
 public class LongestCommonSubsequence {
 
+    /**
+     * 默认的记录表内存上限，256MB
+     */
+    public static final long DEFAULT_TABLE_BUDGET_BYTES = 256L * 1024 * 1024;
+
+    /**
+     * 记录表c所允许占用的内存上限(字节)，超过此上限时findByDp自动改用检查点回溯
+     */
+    private final long tableBudgetBytes;
+
+    public LongestCommonSubsequence() {
+        this(DEFAULT_TABLE_BUDGET_BYTES);
+    }
+
+    /**
+     * @param tableBudgetBytes 记录表c所允许占用的内存上限(字节)
+     */
+    public LongestCommonSubsequence(long tableBudgetBytes) {
+        this.tableBudgetBytes = tableBudgetBytes;
+    }
+
     /**
      * 动态规划
      * 1. 最优解的结构
@@ -29,6 +58,9 @@ public class LongestCommonSubsequence {
      * <p>
      * 时间复杂度O(mn)，空间复杂度O(mn)
      * 如果只需要LCS的长度，则空间复杂度可以优化到O(min(n,m))
+     * 如果记录表c的大小超过了内存上限，则只保存检查点行，分段重新计算并回溯，结果与完整记录表的回溯相同，
+     * 此时空间复杂度O(n√m)，时间约为两倍。只需要O(min(m,n))空间并且不要求与回溯法得到同一个LCS时，
+     * 可以直接调用{@link #findByHirschberg(String, String)}
      *
      * @param x 字符串A
      * @param y 字符串B
@@ -38,12 +70,171 @@ public class LongestCommonSubsequence {
         if (x == null || x.isEmpty() || y == null || y.isEmpty()) {
             return "";
         }
+        if (tableBytes(x.length(), y.length()) > tableBudgetBytes) {
+            return checkpointTraceback(x, y);
+        }
         // 根据最优解的构成和递归定义，自底向上计算最优解的值
         int[][] c = calc(x, y);
         // 根据记录得出LCS的解
+        return traceback(c, x, y);
+    }
+
+    /**
+     * {@link #findByDp(String, String)}的CharSequence版本，
+     * 可以直接用于StringBuilder、CharBuffer等，不需要先转换为String
+     *
+     * @param x 字符序列A
+     * @param y 字符序列B
+     * @return 字符序列A和字符序列B的最长公共子序列，无则返回空字符串
+     */
+    public String findByDp(CharSequence x, CharSequence y) {
+        if (x == null || x.length() == 0 || y == null || y.length() == 0) {
+            return "";
+        }
+        if (tableBytes(x.length(), y.length()) > tableBudgetBytes) {
+            return checkpointTraceback(x, y);
+        }
+        return traceback(calc(x, y), x, y);
+    }
+
+    /**
+     * {@link #findByDp(String, String)}的字节版本，直接比较字节，不需要先解码为字符串
+     * 对于UTF-8等多字节编码，结果是字节的公共子序列，不一定是完整字符的公共子序列。
+     * 如果记录表c的大小超过了内存上限，则改用检查点回溯，此时字节按ISO-8859-1一一对应为字符参与比较。
+     *
+     * @param x       字节数组A
+     * @param xOffset A的起始下标
+     * @param xLength A的长度
+     * @param y       字节数组B
+     * @param yOffset B的起始下标
+     * @param yLength B的长度
+     * @return 最长公共子序列，无则返回空数组
+     */
+    public byte[] findByDp(byte[] x, int xOffset, int xLength, byte[] y, int yOffset, int yLength) {
+        Objects.checkFromIndexSize(xOffset, xLength, x.length);
+        Objects.checkFromIndexSize(yOffset, yLength, y.length);
+        if (xLength == 0 || yLength == 0) {
+            return new byte[0];
+        }
+        if (tableBytes(xLength, yLength) > tableBudgetBytes) {
+            String lcs = checkpointTraceback(new String(x, xOffset, xLength, StandardCharsets.ISO_8859_1),
+                    new String(y, yOffset, yLength, StandardCharsets.ISO_8859_1));
+            return lcs.getBytes(StandardCharsets.ISO_8859_1);
+        }
+        try (Probe probe = Metrics.start("LongestCommonSubsequence.calc")) {
+            probe.cells((long) (xLength + 1) * (yLength + 1));
+            probe.comparisons((long) xLength * yLength);
+            probe.tableBytes(tableBytes(xLength, yLength));
+            int[][] c = new int[xLength + 1][yLength + 1];
+            for (int i = 1; i <= xLength; i++) {
+                byte b = x[xOffset + i - 1];
+                int[] prev = c[i - 1];
+                int[] curr = c[i];
+                for (int j = 1; j <= yLength; j++) {
+                    if (b == y[yOffset + j - 1]) {
+                        curr[j] = prev[j - 1] + 1;
+                    } else {
+                        curr[j] = prev[j] > curr[j - 1] ? prev[j] : curr[j - 1];
+                    }
+                }
+            }
+            int i = xLength;
+            int j = yLength;
+            byte[] lcs = new byte[c[i][j]];
+            while (i > 0 && j > 0) {
+                int len = c[i][j];
+                if (c[i - 1][j] == len) {
+                    i--;
+                } else if (c[i][j - 1] == len) {
+                    j--;
+                } else {
+                    lcs[len - 1] = x[xOffset + i - 1];
+                    i--;
+                    j--;
+                }
+            }
+            return lcs;
+        }
+    }
+
+    /**
+     * {@link #findByDp(String, String)}的ByteBuffer版本，比较position到limit之间的字节，不改变position
+     * 堆内的缓冲区直接访问其底层数组；直接缓冲区先复制出剩余的字节，
+     * 复制的代价O(m+n)相对于记录表的O(mn)可以忽略。
+     *
+     * @param x 缓冲区A
+     * @param y 缓冲区B
+     * @return 最长公共子序列，无则返回空数组
+     */
+    public byte[] findByDp(ByteBuffer x, ByteBuffer y) {
+        if (x.hasArray() && y.hasArray()) {
+            return findByDp(x.array(), x.arrayOffset() + x.position(), x.remaining(),
+                    y.array(), y.arrayOffset() + y.position(), y.remaining());
+        }
+        byte[] bx = Buffers.toArray(x);
+        byte[] by = Buffers.toArray(y);
+        return findByDp(bx, 0, bx.length, by, 0, by.length);
+    }
+
+    /**
+     * {@link #findByDp(String, String)}的大表版本，记录表保存在指定的{@link DpTable}中
+     * 不受内存上限的限制，总是计算完整的记录表并回溯，
+     * 记录表可以放在堆外或者映射到临时文件，单元格按min(m,n)收窄为1、2或4字节，
+     * 所以可以处理int[m+1][n+1]无法分配的输入。
+     * <p>
+     * 时间复杂度O(mn)，空间复杂度O(mn)，其中堆内存只有O(m+n)
+     *
+     * @param x       字符序列A
+     * @param y       字符序列B
+     * @param storage 记录表的存储位置
+     * @return 字符序列A和字符序列B的最长公共子序列，无则返回空字符串
+     * @throws IOException 创建或映射临时文件失败
+     */
+    public String findByDp(CharSequence x, CharSequence y, DpTable.Storage storage) throws IOException {
+        if (x == null || x.length() == 0 || y == null || y.length() == 0) {
+            return "";
+        }
+        int lenX = x.length();
+        int lenY = y.length();
+        try (DpTable c = DpTable.allocate(lenX + 1, lenY + 1, Math.min(lenX, lenY), storage)) {
+            return findByDp(x, y, c);
+        }
+    }
+
+    /**
+     * 与{@link #findByDp(CharSequence, CharSequence, DpTable.Storage)}相同，使用调用方持有的记录表，
+     * 多次计算时可以复用同一个记录表，不需要每次分配或映射；记录表由调用方关闭。
+     *
+     * @param x     字符序列A
+     * @param y     字符序列B
+     * @param table 记录表，至少为(m+1)*(n+1)，单元格的最大值不小于min(m,n)
+     * @return 字符序列A和字符序列B的最长公共子序列，无则返回空字符串
+     * @throws IllegalArgumentException 记录表不够大
+     */
+    public String findByDp(CharSequence x, CharSequence y, DpTable table) {
+        if (x == null || x.length() == 0 || y == null || y.length() == 0) {
+            return "";
+        }
+        int lenX = x.length();
+        int lenY = y.length();
+        table.checkFits(lenX + 1, lenY + 1, Math.min(lenX, lenY));
+        calc(x, y, table);
+        return traceback(table, x, y);
+    }
+
+    /**
+     * 根据最优解值的记录，从c[m][n]回溯出一个LCS
+     *
+     * @param c 最优解值的记录
+     * @param x 字符串A
+     * @param y 字符串B
+     * @return 字符串A和字符串B的一个最长公共子序列
+     */
+    static String traceback(int[][] c, CharSequence x, CharSequence y) {
         int i = x.length();
         int j = y.length();
-        StringBuilder lcs = new StringBuilder();
+        // LCS的长度已知，从后往前填入即可
+        char[] lcs = new char[c[i][j]];
         while (i > 0 && j > 0) {
             int len = c[i][j];
             if (c[i - 1][j] == len) {
@@ -51,12 +242,576 @@ public class LongestCommonSubsequence {
             } else if (c[i][j - 1] == len) {
                 j--;
             } else {
-                lcs.insert(0, x.charAt(i - 1));
+                lcs[len - 1] = x.charAt(i - 1);
+                i--;
+                j--;
+            }
+        }
+        return new String(lcs);
+    }
+
+    /**
+     * 与{@link #traceback(int[][], CharSequence, CharSequence)}相同，记录保存在DpTable中
+     */
+    private static String traceback(DpTable c, CharSequence x, CharSequence y) {
+        int i = x.length();
+        int j = y.length();
+        char[] lcs = new char[c.get(i, j)];
+        while (i > 0 && j > 0) {
+            int len = c.get(i, j);
+            if (c.get(i - 1, j) == len) {
+                i--;
+            } else if (c.get(i, j - 1) == len) {
+                j--;
+            } else {
+                lcs[len - 1] = x.charAt(i - 1);
                 i--;
                 j--;
             }
         }
-        return lcs.toString();
+        return new String(lcs);
+    }
+
+    /**
+     * 记录表超过内存上限时的回溯，结果与{@link #traceback(int[][], CharSequence, CharSequence)}相同
+     * 与{@link jacobvv.dynamicprogramming.AssemblyLines}相同的检查点法：
+     * 将X每s=⌈√m⌉行分为一段，正向计算时只保存每段开始的行(检查点)；
+     * 回溯时从检查点重新计算当前所在的一段，再按相同的规则在这一段中回溯，然后进入上一段。
+     * 回溯的每一步只依赖记录表中的值，所以结果与保存完整记录表时相同。
+     * <p>
+     * 时间复杂度O(mn)，约为两倍的计算量；空间复杂度O(n√m)
+     */
+    private String checkpointTraceback(CharSequence x, CharSequence y) {
+        int lenX = x.length();
+        int lenY = y.length();
+        try (Probe probe = Metrics.start("LongestCommonSubsequence.checkpointTraceback")) {
+            int s = (int) Math.ceil(Math.sqrt(lenX));
+            int segments = (lenX - 1) / s + 1;
+            // checkpoints[b]为记录表的第b*s行
+            int[][] checkpoints = new int[segments][];
+            // 检查点、正向计算的2行和一段的重新计算
+            probe.tableBytes((long) (segments + 2 + s) * (lenY + 1) * Integer.BYTES);
+            int[] prev = new int[lenY + 1];
+            int[] curr = new int[lenY + 1];
+            checkpoints[0] = prev.clone();
+            for (int i = 1; i <= lenX; i++) {
+                nextRow(x.charAt(i - 1), y, prev, curr);
+                int[] tmp = prev;
+                prev = curr;
+                curr = tmp;
+                if (i % s == 0 && i / s < segments) {
+                    checkpoints[i / s] = prev.clone();
+                }
+            }
+            int i = lenX;
+            int j = lenY;
+            char[] lcs = new char[prev[lenY]];
+            // 回溯时重新计算的行数
+            long recomputed = 0;
+            // rows[r]为记录表的第base+r行
+            int[][] rows = new int[s + 1][];
+            for (int r = 1; r <= s; r++) {
+                rows[r] = new int[lenY + 1];
+            }
+            while (i > 0 && j > 0) {
+                int base = (i - 1) / s * s;
+                rows[0] = checkpoints[base / s];
+                for (int r = 1; r <= i - base; r++) {
+                    nextRow(x.charAt(base + r - 1), y, rows[r - 1], rows[r]);
+                }
+                recomputed += i - base;
+                // 与traceback相同的规则，直到离开这一段
+                while (i > base && j > 0) {
+                    int[] row = rows[i - base];
+                    int[] above = rows[i - base - 1];
+                    int len = row[j];
+                    if (above[j] == len) {
+                        i--;
+                    } else if (row[j - 1] == len) {
+                        j--;
+                    } else {
+                        lcs[len - 1] = x.charAt(i - 1);
+                        i--;
+                        j--;
+                    }
+                }
+            }
+            probe.cells((lenX + recomputed) * lenY);
+            probe.comparisons((lenX + recomputed) * lenY);
+            return new String(lcs);
+        }
+    }
+
+    /**
+     * 由记录表的上一行计算下一行，ch为X中对应的字符
+     */
+    private static void nextRow(char ch, CharSequence y, int[] prev, int[] curr) {
+        curr[0] = 0;
+        for (int j = 1; j < curr.length; j++) {
+            if (ch == y.charAt(j - 1)) {
+                curr[j] = prev[j - 1] + 1;
+            } else {
+                curr[j] = prev[j] > curr[j - 1] ? prev[j] : curr[j - 1];
+            }
+        }
+    }
+
+    /**
+     * Hirschberg分治算法
+     * 如果只需要LCS的长度，那么c只需要保存2行进行滚动即可，但是这样就无法回溯出LCS了。
+     * Hirschberg算法将X从中间分为前后两半X1和X2：
+     * 正向计算X1与Y的每个前缀的LCS长度F[k]，反向计算X2与Y的每个后缀的LCS长度B[k]，
+     * 那么使F[k]+B[k]最大的k就是一个最优的分割点，LCS(X,Y) = LCS(X1,Y[0,k)) + LCS(X2,Y[k,n))。
+     * 然后对两个子问题递归求解，直到X只剩一个字符。
+     * 每一层递归计算的单元格总数是上一层的一半，所以总的时间仍然是O(mn)，
+     * 而计算F和B只需要长度为min(m,n)+1的滚动数组，并且可以在所有递归中复用。
+     * 当LCS不唯一时，返回的LCS与回溯法的结果可能不同，但长度一定相同。
+     * <p>
+     * 时间复杂度O(mn)，空间复杂度O(min(m,n))
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     * @return 字符串A和字符串B的最长公共子序列，无则返回空字符串
+     */
+    public String findByHirschberg(String x, String y) {
+        if (x == null || x.isEmpty() || y == null || y.isEmpty()) {
+            return "";
+        }
+        return hirschberg(x, y);
+    }
+
+    private String hirschberg(CharSequence x, CharSequence y) {
+        // 公共子序列是对称的，让滚动数组沿较短的字符串展开
+        CharSequence longer = x.length() < y.length() ? y : x;
+        CharSequence shorter = x.length() < y.length() ? x : y;
+        int len = shorter.length() + 1;
+        try (Probe probe = Metrics.start("LongestCommonSubsequence.findByHirschberg")) {
+            int[][] rows = new int[4][len];
+            probe.tableBytes(4L * len * Integer.BYTES);
+            StringBuilder lcs = new StringBuilder();
+            long cells = hirschberg(longer, 0, longer.length(), shorter, 0, shorter.length(), rows, lcs);
+            probe.cells(cells);
+            probe.comparisons(cells);
+            return lcs.toString();
+        }
+    }
+
+    /**
+     * 递归求解x[xFrom, xTo)与y[yFrom, yTo)的LCS，并按顺序追加到lcs
+     *
+     * @param rows 复用的滚动数组，rows[0..1]用于正向计算，rows[2..3]用于反向计算
+     * @return 计算的单元格数(每个单元格比较一次字符)
+     */
+    private long hirschberg(CharSequence x, int xFrom, int xTo, CharSequence y, int yFrom, int yTo,
+                            int[][] rows, StringBuilder lcs) {
+        if (xFrom >= xTo || yFrom >= yTo) {
+            return 0;
+        }
+        if (xTo - xFrom == 1) {
+            char ch = x.charAt(xFrom);
+            for (int j = yFrom; j < yTo; j++) {
+                if (y.charAt(j) == ch) {
+                    lcs.append(ch);
+                    return j - yFrom + 1;
+                }
+            }
+            return yTo - yFrom;
+        }
+        int xMid = (xFrom + xTo) >>> 1;
+        int[] forward = forwardRow(x, xFrom, xMid, y, yFrom, yTo, rows[0], rows[1]);
+        int[] backward = backwardRow(x, xMid, xTo, y, yFrom, yTo, rows[2], rows[3]);
+        // forward[k]为LCS(x[xFrom, xMid), y[yFrom, yFrom+k))
+        // backward[k]为LCS(x[xMid, xTo), y[yFrom+k, yTo))
+        int best = -1;
+        int k = 0;
+        for (int j = 0; j <= yTo - yFrom; j++) {
+            int value = forward[j] + backward[j];
+            if (value >= best) {
+                best = value;
+                k = j;
+            }
+        }
+        long cells = (long) (xTo - xFrom) * (yTo - yFrom);
+        cells += hirschberg(x, xFrom, xMid, y, yFrom, yFrom + k, rows, lcs);
+        return cells + hirschberg(x, xMid, xTo, y, yFrom + k, yTo, rows, lcs);
+    }
+
+    /**
+     * 正向滚动计算x[xFrom, xTo)与y[yFrom, yFrom+k)的LCS长度，k为[0, yTo-yFrom]
+     */
+    private int[] forwardRow(CharSequence x, int xFrom, int xTo, CharSequence y, int yFrom, int yTo,
+                             int[] prev, int[] curr) {
+        int lenY = yTo - yFrom;
+        Arrays.fill(prev, 0, lenY + 1, 0);
+        for (int i = xFrom; i < xTo; i++) {
+            char ch = x.charAt(i);
+            curr[0] = 0;
+            for (int j = 1; j <= lenY; j++) {
+                if (ch == y.charAt(yFrom + j - 1)) {
+                    curr[j] = prev[j - 1] + 1;
+                } else {
+                    curr[j] = prev[j] > curr[j - 1] ? prev[j] : curr[j - 1];
+                }
+            }
+            int[] tmp = prev;
+            prev = curr;
+            curr = tmp;
+        }
+        return prev;
+    }
+
+    /**
+     * 反向滚动计算x[xFrom, xTo)与y[yFrom+k, yTo)的LCS长度，k为[0, yTo-yFrom]
+     */
+    private int[] backwardRow(CharSequence x, int xFrom, int xTo, CharSequence y, int yFrom, int yTo,
+                              int[] prev, int[] curr) {
+        int lenY = yTo - yFrom;
+        Arrays.fill(prev, 0, lenY + 1, 0);
+        for (int i = xTo - 1; i >= xFrom; i--) {
+            char ch = x.charAt(i);
+            curr[lenY] = 0;
+            for (int j = lenY - 1; j >= 0; j--) {
+                if (ch == y.charAt(yFrom + j)) {
+                    curr[j] = prev[j + 1] + 1;
+                } else {
+                    curr[j] = prev[j] > curr[j + 1] ? prev[j] : curr[j + 1];
+                }
+            }
+            int[] tmp = prev;
+            prev = curr;
+            curr = tmp;
+        }
+        return prev;
+    }
+
+    /**
+     * 记录表c所占用的内存大小(字节)
+     */
+    private static long tableBytes(int lenX, int lenY) {
+        return (long) (lenX + 1) * (lenY + 1) * Integer.BYTES;
+    }
+
+    /**
+     * Myers差分算法
+     * 对于只有少数几处差异的两个字符串(例如同一文档的两个版本)，动态规划表中绝大部分的计算都是浪费的。
+     * Myers算法求出将X转换为Y的最短编辑脚本，其中保持不变的字符即为一个LCS，
+     * 当编辑距离D较小时，运行时间接近线性，详见{@link MyersDiff}
+     * 当LCS不唯一时，返回的LCS与回溯法的结果可能不同，但长度一定相同。
+     * <p>
+     * 时间复杂度O((m+n)D)，空间复杂度O(m+n)
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     * @return 字符串A和字符串B的最长公共子序列，无则返回空字符串
+     */
+    public String findByMyers(String x, String y) {
+        return new MyersDiff().lcs(x, y);
+    }
+
+    /**
+     * 位并行计算LCS的长度
+     * 只需要LCS的长度时，不需要保存记录表c，并且可以把c的一列压缩成位向量，
+     * 一次字长运算即可计算64个单元格，详见{@link BitParallelLcs}
+     * <p>
+     * 时间复杂度O(n⌈m/64⌉)，空间复杂度O(σ⌈m/64⌉)
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     * @return 字符串A和字符串B的最长公共子序列的长度
+     */
+    public int lengthByBitParallel(String x, String y) {
+        return new BitParallelLcs().length(x, y);
+    }
+
+    /**
+     * 动态规划计算LCS的长度
+     * 只需要长度时，c只需要保存2行进行滚动，让滚动数组沿较短的序列展开
+     * <p>
+     * 时间复杂度O(mn)，空间复杂度O(min(m,n))
+     *
+     * @param x 字符序列A
+     * @param y 字符序列B
+     * @return 字符序列A和字符序列B的最长公共子序列的长度
+     */
+    public int lengthByDp(CharSequence x, CharSequence y) {
+        if (x == null || x.length() == 0 || y == null || y.length() == 0) {
+            return 0;
+        }
+        CharSequence longer = x.length() < y.length() ? y : x;
+        CharSequence shorter = x.length() < y.length() ? x : y;
+        int len = shorter.length();
+        int[] row = forwardRow(longer, 0, longer.length(), shorter, 0, len, new int[len + 1], new int[len + 1]);
+        return row[len];
+    }
+
+    /**
+     * {@link #lengthByDp(CharSequence, CharSequence)}的字节版本
+     *
+     * @param x       字节数组A
+     * @param xOffset A的起始下标
+     * @param xLength A的长度
+     * @param y       字节数组B
+     * @param yOffset B的起始下标
+     * @param yLength B的长度
+     * @return 最长公共子序列的长度
+     */
+    public int lengthByDp(byte[] x, int xOffset, int xLength, byte[] y, int yOffset, int yLength) {
+        Objects.checkFromIndexSize(xOffset, xLength, x.length);
+        Objects.checkFromIndexSize(yOffset, yLength, y.length);
+        if (xLength < yLength) {
+            return lengthByDp(y, yOffset, yLength, x, xOffset, xLength);
+        }
+        int[] prev = new int[yLength + 1];
+        int[] curr = new int[yLength + 1];
+        for (int i = 0; i < xLength; i++) {
+            byte b = x[xOffset + i];
+            for (int j = 1; j <= yLength; j++) {
+                if (b == y[yOffset + j - 1]) {
+                    curr[j] = prev[j - 1] + 1;
+                } else {
+                    curr[j] = prev[j] > curr[j - 1] ? prev[j] : curr[j - 1];
+                }
+            }
+            int[] tmp = prev;
+            prev = curr;
+            curr = tmp;
+        }
+        return prev[yLength];
+    }
+
+    /**
+     * {@link #lengthByDp(CharSequence, CharSequence)}的ByteBuffer版本，比较position到limit之间的字节，不改变position
+     *
+     * @param x 缓冲区A
+     * @param y 缓冲区B
+     * @return 最长公共子序列的长度
+     */
+    public int lengthByDp(ByteBuffer x, ByteBuffer y) {
+        if (x.hasArray() && y.hasArray()) {
+            return lengthByDp(x.array(), x.arrayOffset() + x.position(), x.remaining(),
+                    y.array(), y.arrayOffset() + y.position(), y.remaining());
+        }
+        byte[] bx = Buffers.toArray(x);
+        byte[] by = Buffers.toArray(y);
+        return lengthByDp(bx, 0, bx.length, by, 0, by.length);
+    }
+
+    /**
+     * 带状(banded)动态规划计算LCS的长度
+     * 只允许下标相差不超过d的字符相匹配，即LCS中的每一对字符xi和yj都满足|i - j| <= d，
+     * 适用于两个序列基本对齐、只有少量插入删除的情况。
+     * 只计算记录表中|i - j| <= d的单元格，每行只有2d+1个单元格。
+     * 带外的相邻单元格不需要计算：例如j - i == d时，c[i-1,j]中的yj不可能与x1..x(i-1)在带内匹配，
+     * 所以c[i-1,j] == c[i-1,j-1]，后者在带内。
+     * 当d >= max(m,n)时，结果与{@link #lengthByDp(CharSequence, CharSequence)}相同。
+     * <p>
+     * 时间复杂度O(min(m,n+d) * d)，空间复杂度O(d)
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     * @param d 带宽，允许匹配的下标之差的最大值
+     * @return 带内的最长公共子序列的长度
+     */
+    public int lengthInBand(String x, String y, int d) {
+        if (d < 0) {
+            throw new IllegalArgumentException("d must not be negative: " + d);
+        }
+        if (x == null || x.isEmpty() || y == null || y.isEmpty()) {
+            return 0;
+        }
+        int lenX = x.length();
+        int lenY = y.length();
+        // 超过n+d的行不可能再有匹配
+        int rows = (int) Math.min(lenX, (long) lenY + d);
+        int width = (int) Math.min(2L * d + 1, 2L * Math.max(lenX, lenY) + 1);
+        int band = (width - 1) / 2;
+        // row[k]为c[i, i - band + k]，多一列使k+1不越界
+        int[] prev = new int[width + 1];
+        int[] curr = new int[width + 1];
+        for (int i = 1; i <= rows; i++) {
+            char ch = x.charAt(i - 1);
+            int from = Math.max(1, i - band);
+            int to = (int) Math.min(lenY, (long) i + band);
+            Arrays.fill(curr, 0);
+            for (int j = from; j <= to; j++) {
+                int k = j - i + band;
+                int value;
+                if (ch == y.charAt(j - 1)) {
+                    // c[i-1,j-1]在上一行的下标为k
+                    value = prev[k] + 1;
+                } else {
+                    // c[i-1,j]在上一行的下标为k+1，c[i,j-1]在本行的下标为k-1，带外的单元格为0，
+                    // 再与c[i-1,j-1]比较，这样带外的单元格按c[i-1,j-1]计算
+                    int up = prev[k + 1];
+                    int left = k > 0 ? curr[k - 1] : 0;
+                    value = up > left ? up : left;
+                    if (prev[k] > value) {
+                        value = prev[k];
+                    }
+                }
+                curr[k] = value;
+            }
+            int[] tmp = prev;
+            prev = curr;
+            curr = tmp;
+        }
+        // 最后一行中最右边的带内单元格，即c[rows, min(n, rows + d)]
+        int last = (int) Math.min(lenY, (long) rows + band);
+        return prev[last - rows + band];
+    }
+
+    /**
+     * 带状动态规划求LCS，只允许下标相差不超过d的字符相匹配，详见{@link #lengthInBand(String, String, int)}
+     * 为了回溯，需要保存带内的全部单元格。
+     * <p>
+     * 时间复杂度O(min(m,n+d) * d)，空间复杂度O(min(m,n+d) * d)
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     * @param d 带宽，允许匹配的下标之差的最大值
+     * @return 带内的一个最长公共子序列，无则返回空字符串
+     */
+    public String findInBand(String x, String y, int d) {
+        if (d < 0) {
+            throw new IllegalArgumentException("d must not be negative: " + d);
+        }
+        if (x == null || x.isEmpty() || y == null || y.isEmpty()) {
+            return "";
+        }
+        int lenX = x.length();
+        int lenY = y.length();
+        int rows = (int) Math.min(lenX, (long) lenY + d);
+        int width = (int) Math.min(2L * d + 1, 2L * Math.max(lenX, lenY) + 1);
+        int band = (width - 1) / 2;
+        // c[i][k]为c[i, i - band + k]，多一列使k+1不越界
+        int[][] c = new int[rows + 1][width + 1];
+        for (int i = 1; i <= rows; i++) {
+            char ch = x.charAt(i - 1);
+            int[] prev = c[i - 1];
+            int[] curr = c[i];
+            int from = Math.max(1, i - band);
+            int to = (int) Math.min(lenY, (long) i + band);
+            for (int j = from; j <= to; j++) {
+                int k = j - i + band;
+                if (ch == y.charAt(j - 1)) {
+                    curr[k] = prev[k] + 1;
+                } else {
+                    int up = prev[k + 1];
+                    int left = k > 0 ? curr[k - 1] : 0;
+                    int value = up > left ? up : left;
+                    curr[k] = prev[k] > value ? prev[k] : value;
+                }
+            }
+        }
+        int i = rows;
+        int j = (int) Math.min(lenY, (long) rows + band);
+        char[] lcs = new char[c[i][j - i + band]];
+        while (i > 0 && j > 0) {
+            int k = j - i + band;
+            int len = c[i][k];
+            if (len == 0) {
+                break;
+            }
+            // 与回溯法相同，优先向上，其次向左，只在带内移动
+            if (j - i < band && c[i - 1][k + 1] == len) {
+                i--;
+            } else if (i - j < band && c[i][k - 1] == len) {
+                j--;
+            } else {
+                // 上方和左方都不等于len，则由c[i-1,j-1]得到：xi == yj时匹配，否则上方和左方都在带外
+                if (x.charAt(i - 1) == y.charAt(j - 1)) {
+                    lcs[len - 1] = x.charAt(i - 1);
+                }
+                i--;
+                j--;
+            }
+        }
+        return new String(lcs);
+    }
+
+    /**
+     * 判断LCS的长度是否至少为k，适用于需要快速排除大部分字符串对的过滤阶段
+     * 1. 两个字符串中各字符出现次数的较小值之和是LCS长度的上界，不足k则直接返回false；
+     * 2. 逐行计算记录表(只保存2行)，计算完第i行后：
+     * 如果c[i,n] >= k，则已经达到目标，直接返回true；
+     * 剩余的行从c[i,j]出发至多还能增加min(m-i, n-j)，如果对所有j，c[i,j] + min(m-i, n-j) < k，
+     * 则已经不可能达到目标，直接返回false。
+     * <p>
+     * 最坏时间复杂度O(mn)，空间复杂度O(m+n)
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     * @param k 目标长度
+     * @return LCS的长度是否至少为k
+     */
+    public boolean atLeast(String x, String y, int k) {
+        if (k <= 0) {
+            return true;
+        }
+        if (x == null || y == null || k > Math.min(x.length(), y.length())) {
+            return false;
+        }
+        if (commonCharacters(x, y) < k) {
+            return false;
+        }
+        int lenX = x.length();
+        int lenY = y.length();
+        int[] prev = new int[lenY + 1];
+        int[] curr = new int[lenY + 1];
+        for (int i = 1; i <= lenX; i++) {
+            char ch = x.charAt(i - 1);
+            int rest = lenX - i;
+            // j = 0时c[i,0] = 0
+            int bound = rest < lenY ? rest : lenY;
+            for (int j = 1; j <= lenY; j++) {
+                int value;
+                if (ch == y.charAt(j - 1)) {
+                    value = prev[j - 1] + 1;
+                } else {
+                    value = prev[j] > curr[j - 1] ? prev[j] : curr[j - 1];
+                }
+                curr[j] = value;
+                int reachable = value + Math.min(rest, lenY - j);
+                if (reachable > bound) {
+                    bound = reachable;
+                }
+            }
+            if (curr[lenY] >= k) {
+                return true;
+            }
+            if (bound < k) {
+                return false;
+            }
+            int[] tmp = prev;
+            prev = curr;
+            curr = tmp;
+        }
+        return false;
+    }
+
+    /**
+     * 计算两个字符串中各字符出现次数的较小值之和，即LCS长度的上界
+     */
+    private static int commonCharacters(String x, String y) {
+        char[] cx = x.toCharArray();
+        char[] cy = y.toCharArray();
+        Arrays.sort(cx);
+        Arrays.sort(cy);
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < cx.length && j < cy.length) {
+            if (cx[i] == cy[j]) {
+                count++;
+                i++;
+                j++;
+            } else if (cx[i] < cy[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count;
     }
 
     /**
@@ -99,6 +854,51 @@ public class LongestCommonSubsequence {
         return buildAllByStack(c, x, y);
     }
 
+    /**
+     * 动态规划
+     * 惰性地枚举所有不同的LCS，每个LCS只生成一次，不需要用HashSet去重，
+     * 调用方可以自行决定需要取出多少个LCS，详见{@link LcsEnumerator}
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     * @return 字符串A和字符串B的全部最长公共子序列的迭代器，无则返回空迭代器
+     */
+    public Iterator<String> iterateAll(String x, String y) {
+        if (x == null || x.isEmpty() || y == null || y.isEmpty()) {
+            return Collections.emptyIterator();
+        }
+        return new LcsEnumerator(x, y, calc(x, y)).iterator();
+    }
+
+    /**
+     * 与{@link #iterateAll(String, String)}相同，以Stream的形式返回
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     * @return 字符串A和字符串B的全部最长公共子序列，无则返回空Stream
+     */
+    public Stream<String> streamAll(String x, String y) {
+        Spliterator<String> spliterator = Spliterators.spliteratorUnknownSize(iterateAll(x, y),
+                Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.ORDERED);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * 动态规划
+     * 只计算不同LCS的个数，不构建任何字符串
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     * @return 字符串A和字符串B的不同最长公共子序列的个数，无则返回0
+     * @throws ArithmeticException 个数超出long的范围
+     */
+    public long countAll(String x, String y) {
+        if (x == null || x.isEmpty() || y == null || y.isEmpty()) {
+            return 0;
+        }
+        return new LcsEnumerator(x, y, calc(x, y)).count();
+    }
+
     /**
      * 根据最优解的构成和递归定义，自底向上计算最优解的值
      *
@@ -106,26 +906,70 @@ public class LongestCommonSubsequence {
      * @param y 字符串B
      * @return 递归定义中对于所有匹配的字符计算最优解的值
      */
-    private int[][] calc(String x, String y) {
+    private int[][] calc(CharSequence x, CharSequence y) {
+        int lenX = x.length();
+        int lenY = y.length();
+        try (Probe probe = Metrics.start("LongestCommonSubsequence.calc")) {
+            probe.cells((long) (lenX + 1) * (lenY + 1));
+            probe.comparisons((long) lenX * lenY);
+            probe.tableBytes(tableBytes(lenX, lenY));
+            int[][] c = new int[lenX + 1][lenY + 1];
+            // 为了方便边界情况的处理，这里c中i=0或者j=0的情况其值均预设为0
+            // 当i>0，j>0时，开始对应字符串的字符。
+            // 因为字符串下标从0开始，而c相应下标从1开始，所以需要转换。
+            // i的上界为len，而非len-1，字符串取字符应该使用下标i-1，而非i。
+            for (int i = 0; i <= lenX; i++) {
+                for (int j = 0; j <= lenY; j++) {
+                    if (i == 0 || j == 0) {
+                        c[i][j] = 0;
+                    } else if (x.charAt(i - 1) == y.charAt(j - 1)) {
+                        c[i][j] = c[i - 1][j - 1] + 1;
+                    } else {
+                        c[i][j] = c[i - 1][j] > c[i][j - 1] ? c[i - 1][j] : c[i][j - 1];
+                    }
+                }
+            }
+            return c;
+        }
+    }
+
+    /**
+     * 与{@link #calc(CharSequence, CharSequence)}相同，结果写入记录表c
+     * 按行计算，上一行和当前行的值同时保存在两个int[]中，每个单元格只写一次、不读记录表
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     * @param c (m+1)*(n+1)的记录表
+     */
+    private void calc(CharSequence x, CharSequence y, DpTable c) {
         int lenX = x.length();
         int lenY = y.length();
-        int[][] c = new int[lenX + 1][lenY + 1];
-        // 为了方便边界情况的处理，这里c中i=0或者j=0的情况其值均预设为0
-        // 当i>0，j>0时，开始对应字符串的字符。
-        // 因为字符串下标从0开始，而c相应下标从1开始，所以需要转换。
-        // i的上界为len，而非len-1，字符串取字符应该使用下标i-1，而非i。
-        for (int i = 0; i <= lenX; i++) {
+        try (Probe probe = Metrics.start("LongestCommonSubsequence.calc")) {
+            probe.cells((long) (lenX + 1) * (lenY + 1));
+            probe.comparisons((long) lenX * lenY);
+            probe.tableBytes((long) (lenX + 1) * (lenY + 1) * c.cellBytes());
+            int[] prev = new int[lenY + 1];
+            int[] curr = new int[lenY + 1];
             for (int j = 0; j <= lenY; j++) {
-                if (i == 0 || j == 0) {
-                    c[i][j] = 0;
-                } else if (x.charAt(i - 1) == y.charAt(j - 1)) {
-                    c[i][j] = c[i - 1][j - 1] + 1;
-                } else {
-                    c[i][j] = c[i - 1][j] > c[i][j - 1] ? c[i - 1][j] : c[i][j - 1];
+                c.set(0, j, 0);
+            }
+            for (int i = 1; i <= lenX; i++) {
+                char xi = x.charAt(i - 1);
+                curr[0] = 0;
+                c.set(i, 0, 0);
+                for (int j = 1; j <= lenY; j++) {
+                    if (xi == y.charAt(j - 1)) {
+                        curr[j] = prev[j - 1] + 1;
+                    } else {
+                        curr[j] = prev[j] > curr[j - 1] ? prev[j] : curr[j - 1];
+                    }
+                    c.set(i, j, curr[j]);
                 }
+                int[] t = prev;
+                prev = curr;
+                curr = t;
             }
         }
-        return c;
     }
 
     /**
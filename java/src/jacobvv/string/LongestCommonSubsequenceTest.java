@@ -2,7 +2,11 @@ package jacobvv.string;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -46,6 +50,289 @@ class LongestCommonSubsequenceTest {
         }
     }
 
+    @Test
+    void findByHirschbergTest() {
+        LongestCommonSubsequence target = new LongestCommonSubsequence();
+        for (int i = 0; i < inputs.length; i++) {
+            String result = target.findByHirschberg(inputs[i][0], inputs[i][1]);
+            if (outputs[i].length == 0) {
+                assertEquals("", result);
+            } else {
+                assertTrue(Arrays.asList(outputs[i]).contains(result), "Expected: " +
+                        Arrays.toString(outputs[i]) + ", But actual: " + result);
+            }
+        }
+    }
+
+    @Test
+    void findByDpOverBudgetTest() {
+        // 内存上限为0时，findByDp总是改用检查点回溯
+        LongestCommonSubsequence target = new LongestCommonSubsequence(0);
+        for (int i = 0; i < inputs.length; i++) {
+            String result = target.findByDp(inputs[i][0], inputs[i][1]);
+            if (outputs[i].length == 0) {
+                assertEquals("", result);
+            } else {
+                assertTrue(Arrays.asList(outputs[i]).contains(result), "Expected: " +
+                        Arrays.toString(outputs[i]) + ", But actual: " + result);
+            }
+        }
+    }
+
+    @Test
+    void findByDpSameAsTracebackTest() {
+        // 超过内存上限时，结果与完整记录表的回溯相同，而不只是长度相同
+        LongestCommonSubsequence expected = new LongestCommonSubsequence();
+        LongestCommonSubsequence target = new LongestCommonSubsequence(16);
+        for (int i = 0; i < inputs.length; i++) {
+            assertEquals(expected.findByDp(inputs[i][0], inputs[i][1]), target.findByDp(inputs[i][0], inputs[i][1]));
+            assertEquals(expected.findByDp(inputs[i][1], inputs[i][0]), target.findByDp(inputs[i][1], inputs[i][0]));
+        }
+        assertEquals("aacccbba", target.findByDp("caacccbbcabb", "abbaaccbcbaba"));
+        Random random = new Random(3);
+        for (int n = 0; n < 2000; n++) {
+            String x = randomString(random, 1 + random.nextInt(40), "abc");
+            String y = randomString(random, 1 + random.nextInt(40), "abc");
+            assertEquals(expected.findByDp(x, y), target.findByDp(x, y), "Inputs: " + x + ", " + y);
+            assertEquals(expected.findByDp(new StringBuilder(x), new StringBuilder(y)),
+                    target.findByDp(new StringBuilder(x), new StringBuilder(y)), "Inputs: " + x + ", " + y);
+            byte[] bx = x.getBytes(StandardCharsets.ISO_8859_1);
+            byte[] by = y.getBytes(StandardCharsets.ISO_8859_1);
+            assertArrayEquals(expected.findByDp(bx, 0, bx.length, by, 0, by.length),
+                    target.findByDp(bx, 0, bx.length, by, 0, by.length), "Inputs: " + x + ", " + y);
+        }
+    }
+
+    @Test
+    void findByMyersTest() {
+        LongestCommonSubsequence target = new LongestCommonSubsequence();
+        for (int i = 0; i < inputs.length; i++) {
+            String result = target.findByMyers(inputs[i][0], inputs[i][1]);
+            if (outputs[i].length == 0) {
+                assertEquals("", result);
+            } else {
+                assertTrue(Arrays.asList(outputs[i]).contains(result), "Expected: " +
+                        Arrays.toString(outputs[i]) + ", But actual: " + result);
+            }
+        }
+    }
+
+    @Test
+    void lengthByBitParallelTest() {
+        LongestCommonSubsequence target = new LongestCommonSubsequence();
+        for (int i = 0; i < inputs.length; i++) {
+            int expected = outputs[i].length == 0 ? 0 : outputs[i][0].length();
+            assertEquals(expected, target.lengthByBitParallel(inputs[i][0], inputs[i][1]),
+                    "Inputs: " + Arrays.asList(inputs[i]));
+        }
+        // 超过64个字符时使用多个字表示位向量
+        Random random = new Random(7);
+        for (int len : new int[]{63, 64, 65, 130, 500}) {
+            String x = randomString(random, len, "abcd\u4e2d\u6587");
+            String y = randomString(random, len + 17, "abcd\u4e2d\u6587");
+            assertEquals(target.findByDp(x, y).length(), target.lengthByBitParallel(x, y),
+                    "Inputs: " + x + ", " + y);
+        }
+    }
+
+    @Test
+    void findByDpCharSequenceTest() {
+        LongestCommonSubsequence target = new LongestCommonSubsequence();
+        for (int i = 0; i < inputs.length; i++) {
+            StringBuilder x = inputs[i][0] == null ? null : new StringBuilder(inputs[i][0]);
+            StringBuilder y = inputs[i][1] == null ? null : new StringBuilder(inputs[i][1]);
+            String result = target.findByDp(x, y);
+            int expected = outputs[i].length == 0 ? 0 : outputs[i][0].length();
+            if (outputs[i].length == 0) {
+                assertEquals("", result);
+            } else {
+                assertTrue(Arrays.asList(outputs[i]).contains(result), "Expected: " +
+                        Arrays.toString(outputs[i]) + ", But actual: " + result);
+            }
+            assertEquals(expected, target.lengthByDp(x, y));
+        }
+    }
+
+    @Test
+    void findByDpBytesTest() {
+        LongestCommonSubsequence target = new LongestCommonSubsequence();
+        LongestCommonSubsequence overBudget = new LongestCommonSubsequence(0);
+        for (int i = 0; i < inputs.length; i++) {
+            if (inputs[i][0] == null) {
+                continue;
+            }
+            byte[] x = ("#" + inputs[i][0]).getBytes(StandardCharsets.UTF_8);
+            byte[] y = (inputs[i][1] + "$").getBytes(StandardCharsets.UTF_8);
+            int lenX = x.length - 1;
+            int lenY = y.length - 1;
+            int expected = outputs[i].length == 0 ? 0 : outputs[i][0].length();
+            List<String> results = new ArrayList<>();
+            results.add(new String(target.findByDp(x, 1, lenX, y, 0, lenY), StandardCharsets.UTF_8));
+            results.add(new String(overBudget.findByDp(x, 1, lenX, y, 0, lenY), StandardCharsets.UTF_8));
+            ByteBuffer heapX = ByteBuffer.wrap(x, 1, lenX);
+            ByteBuffer directY = ByteBuffer.allocateDirect(lenY);
+            directY.put(y, 0, lenY).flip();
+            results.add(new String(target.findByDp(heapX, directY), StandardCharsets.UTF_8));
+            for (String result : results) {
+                if (outputs[i].length == 0) {
+                    assertEquals("", result);
+                } else {
+                    assertTrue(Arrays.asList(outputs[i]).contains(result), "Expected: " +
+                            Arrays.toString(outputs[i]) + ", But actual: " + result);
+                }
+            }
+            assertEquals(expected, target.lengthByDp(x, 1, lenX, y, 0, lenY));
+            assertEquals(expected, target.lengthByDp(heapX, directY));
+        }
+    }
+
+    @Test
+    void findByDpStorageTest() throws IOException {
+        LongestCommonSubsequence target = new LongestCommonSubsequence();
+        for (DpTable.Storage storage : DpTable.Storage.values()) {
+            for (int i = 0; i < inputs.length; i++) {
+                String result = target.findByDp(inputs[i][0], inputs[i][1], storage);
+                // 回溯的规则与int[][]版本相同，结果也相同
+                assertEquals(target.findByDp(inputs[i][0], inputs[i][1]), result, storage.name());
+            }
+        }
+        // 超过255需要2字节的单元格
+        Random random = new Random(20);
+        String x = randomString(random, 700, "ab");
+        String y = randomString(random, 600, "ab");
+        String expected = target.findByDp(x, y);
+        assertTrue(expected.length() > 255);
+        for (DpTable.Storage storage : DpTable.Storage.values()) {
+            assertEquals(expected, target.findByDp(x, y, storage), storage.name());
+        }
+    }
+
+    @Test
+    void findByDpReusedTableTest() throws IOException {
+        LongestCommonSubsequence target = new LongestCommonSubsequence();
+        Random random = new Random(21);
+        // 同一个映射的记录表在所有输入之间复用，较短的输入只使用左上角
+        try (DpTable table = DpTable.allocate(701, 601, 600, DpTable.Storage.MAPPED)) {
+            for (int i = 0; i < inputs.length; i++) {
+                assertEquals(target.findByDp(inputs[i][0], inputs[i][1]),
+                        target.findByDp(inputs[i][0], inputs[i][1], table));
+            }
+            String x = randomString(random, 700, "ab");
+            String y = randomString(random, 600, "ab");
+            assertEquals(target.findByDp(x, y), target.findByDp(x, y, table));
+            assertThrows(IllegalArgumentException.class, () -> target.findByDp(x + "a", y, table));
+        }
+        try (DpTable table = DpTable.allocate(701, 601, 255, DpTable.Storage.HEAP)) {
+            assertFalse(table.fits(701, 601, 256));
+            assertThrows(IllegalArgumentException.class,
+                    () -> target.findByDp(randomString(random, 300, "ab"), randomString(random, 300, "ab"), table));
+        }
+    }
+
+    @Test
+    void dpTableTest() throws IOException {
+        int[] maxValues = {0, 255, 256, 65535, 65536, Integer.MAX_VALUE};
+        int[] cellBytes = {1, 1, 2, 2, 4, 4};
+        for (DpTable.Storage storage : DpTable.Storage.values()) {
+            for (int k = 0; k < maxValues.length; k++) {
+                try (DpTable table = DpTable.allocate(3, 5, maxValues[k], storage)) {
+                    assertEquals(cellBytes[k], table.cellBytes());
+                    assertEquals(0, table.get(2, 4));
+                    for (int i = 0; i < 3; i++) {
+                        for (int j = 0; j < 5; j++) {
+                            table.set(i, j, maxValues[k] - i * 5 - j < 0 ? 0 : maxValues[k] - i * 5 - j);
+                        }
+                    }
+                    for (int i = 0; i < 3; i++) {
+                        for (int j = 0; j < 5; j++) {
+                            assertEquals(Math.max(0, maxValues[k] - i * 5 - j), table.get(i, j));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void lengthInBandTest() {
+        LongestCommonSubsequence target = new LongestCommonSubsequence();
+        // 带宽足够大时与完整的动态规划相同
+        for (int i = 0; i < inputs.length; i++) {
+            int expected = outputs[i].length == 0 ? 0 : outputs[i][0].length();
+            assertEquals(expected, target.lengthInBand(inputs[i][0], inputs[i][1], 100));
+        }
+        // "abcde"与"cdeab"：带宽为2时只能匹配"cde"，带宽为0时没有公共子序列
+        assertEquals(3, target.lengthInBand("abcde", "cdeab", 2));
+        assertEquals("cde", target.findInBand("abcde", "cdeab", 2));
+        assertEquals(0, target.lengthInBand("abcde", "cdeab", 0));
+        assertEquals("", target.findInBand("abcde", "cdeab", 0));
+        Random random = new Random(11);
+        for (int n = 0; n < 300; n++) {
+            String x = randomString(random, random.nextInt(40), "abc");
+            String y = randomString(random, random.nextInt(40), "abc");
+            int d = random.nextInt(8);
+            int expected = bandedLength(x, y, d);
+            assertEquals(expected, target.lengthInBand(x, y, d), x + ", " + y + ", " + d);
+            String lcs = target.findInBand(x, y, d);
+            assertEquals(expected, lcs.length(), x + ", " + y + ", " + d);
+            assertTrue(isSubsequence(lcs, x) && isSubsequence(lcs, y), lcs);
+        }
+        assertThrows(IllegalArgumentException.class, () -> target.lengthInBand("a", "a", -1));
+    }
+
+    @Test
+    void atLeastTest() {
+        LongestCommonSubsequence target = new LongestCommonSubsequence();
+        for (int i = 0; i < inputs.length; i++) {
+            int length = outputs[i].length == 0 ? 0 : outputs[i][0].length();
+            assertTrue(target.atLeast(inputs[i][0], inputs[i][1], length));
+            assertFalse(target.atLeast(inputs[i][0], inputs[i][1], length + 1));
+        }
+        Random random = new Random(13);
+        for (int n = 0; n < 200; n++) {
+            String x = randomString(random, random.nextInt(50), "abcd");
+            String y = randomString(random, random.nextInt(50), "abcd");
+            int length = target.lengthByDp(x, y);
+            for (int k = 0; k <= length + 2; k++) {
+                assertEquals(k <= length, target.atLeast(x, y, k), x + ", " + y + ", " + k);
+            }
+        }
+    }
+
+    /**
+     * 完整的记录表，只允许|i - j| <= d的字符相匹配
+     */
+    private static int bandedLength(String x, String y, int d) {
+        int[][] c = new int[x.length() + 1][y.length() + 1];
+        for (int i = 1; i <= x.length(); i++) {
+            for (int j = 1; j <= y.length(); j++) {
+                c[i][j] = Math.max(c[i - 1][j], c[i][j - 1]);
+                if (Math.abs(i - j) <= d && x.charAt(i - 1) == y.charAt(j - 1)) {
+                    c[i][j] = Math.max(c[i][j], c[i - 1][j - 1] + 1);
+                }
+            }
+        }
+        return c[x.length()][y.length()];
+    }
+
+    private static boolean isSubsequence(String sub, String s) {
+        int i = 0;
+        for (int j = 0; j < s.length() && i < sub.length(); j++) {
+            if (sub.charAt(i) == s.charAt(j)) {
+                i++;
+            }
+        }
+        return i == sub.length();
+    }
+
+    private static String randomString(Random random, int len, String alphabet) {
+        StringBuilder sb = new StringBuilder(len);
+        for (int i = 0; i < len; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+
     @Test
     void findAllByRecursionTest() {
         LongestCommonSubsequence target = new LongestCommonSubsequence();
@@ -74,5 +361,43 @@ class LongestCommonSubsequenceTest {
         }
     }
 
+    @Test
+    void iterateAllTest() {
+        LongestCommonSubsequence target = new LongestCommonSubsequence();
+        for (int i = 0; i < inputs.length; i++) {
+            List<String> result = new ArrayList<>();
+            target.iterateAll(inputs[i][0], inputs[i][1]).forEachRemaining(result::add);
+            List<String> expected = Arrays.asList(outputs[i]);
+            expected.sort(null);
+            result.sort(null);
+            assertIterableEquals(expected, result,
+                    "Inputs: " + Arrays.asList(inputs[i]) +
+                            "Expected: " + expected +
+                            ", But actual: " + result);
+        }
+    }
+
+    @Test
+    void streamAllTest() {
+        // 重复输入的LCS个数随长度指数增长，只取出前几个
+        LongestCommonSubsequence target = new LongestCommonSubsequence();
+        String x = "abcabcabcabcabcabc";
+        String y = "cbacbacbacbacbacba";
+        List<String> first = target.streamAll(x, y).limit(10).collect(Collectors.toList());
+        assertEquals(10, first.size());
+        assertEquals(10, new HashSet<>(first).size());
+        assertEquals(target.findAllByDpStack(x, y).size(), target.streamAll(x, y).count());
+    }
+
+    @Test
+    void countAllTest() {
+        LongestCommonSubsequence target = new LongestCommonSubsequence();
+        for (int i = 0; i < inputs.length; i++) {
+            assertEquals(outputs[i].length, target.countAll(inputs[i][0], inputs[i][1]),
+                    "Inputs: " + Arrays.asList(inputs[i]));
+        }
+        assertEquals(1836, target.countAll("abcabcabcabcabcabc", "cbacbacbacbacbacba"));
+        assertEquals(84, target.countAll("aabbccaabbccaabbcc", "abcabcabcabcabcabc"));
+    }
 
-}
\ No newline at end of file
+}
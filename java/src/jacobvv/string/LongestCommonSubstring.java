@@ -1,5 +1,10 @@
 package jacobvv.string;
 
+import jacobvv.metrics.Metrics;
+import jacobvv.metrics.Probe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
@@ -27,41 +32,237 @@ public class LongestCommonSubstring {
      * @return 字符串A和字符串B的最长公共子串集合，无则返回空集合
      */
     public List<String> findAllByDp(String x, String y) {
-        ArrayList<String> result = new ArrayList<>();
+        SubstringMatches matches = new SubstringMatches();
+        findAllByDp(x, y, matches);
+        return matches.toList();
+    }
+
+    /**
+     * {@link #findAllByDp(String, String)}的无分配版本，下标为在X中的下标
+     * 结果以公共子串的起始下标的形式写入可复用的matches，计算过程中不创建任何String
+     *
+     * @param x       字符串A
+     * @param y       字符串B
+     * @param matches 保存结果，原有的结果会被清空
+     */
+    public void findAllByDp(String x, String y, SubstringMatches matches) {
         if (x == null || x.isEmpty() || y == null || y.isEmpty()) {
-            return result;
+            matches.reset(null);
+            return;
         }
         // 根据最优解的递归定义，自底向上计算最优解的值，并找出最长公共子串
-        Set<String> resultSet = new HashSet<>();
+        matches.reset(x);
         int maxLen = 0;
         int lenX = x.length();
         int lenY = y.length();
-        int[][] c = new int[lenX][lenY];
-        for (int i = 0; i < lenX; i++) {
-            for (int j = 0; j < lenY; j++) {
-                if (x.charAt(i) == y.charAt(j)) {
-                    if (i == 0 || j == 0) {
-                        c[i][j] = 1;
+        try (Probe probe = Metrics.start("LongestCommonSubstring.findAllByDp")) {
+            probe.cells((long) lenX * lenY);
+            probe.comparisons((long) lenX * lenY);
+            probe.tableBytes((long) lenX * lenY * Integer.BYTES);
+            int[][] c = new int[lenX][lenY];
+            for (int i = 0; i < lenX; i++) {
+                for (int j = 0; j < lenY; j++) {
+                    if (x.charAt(i) == y.charAt(j)) {
+                        if (i == 0 || j == 0) {
+                            c[i][j] = 1;
+                        } else {
+                            c[i][j] = c[i - 1][j - 1] + 1;
+                        }
+                        if (c[i][j] >= maxLen) {
+                            maxLen = c[i][j];
+                            matches.offer(i - maxLen + 1, maxLen);
+                        }
                     } else {
-                        c[i][j] = c[i - 1][j - 1] + 1;
+                        c[i][j] = 0;
                     }
-                    if (c[i][j] >= maxLen) {
-                        if (c[i][j] != maxLen) {
-                            resultSet.clear();
-                            maxLen = c[i][j];
+                }
+            }
+        }
+    }
+
+    /**
+     * {@link #findAllByDp(String, String, SubstringMatches)}的大表版本，记录表保存在指定的{@link DpTable}中
+     * 记录表可以放在堆外或者映射到临时文件，单元格按min(m,n)收窄为1、2或4字节。
+     *
+     * @param x       字符串A
+     * @param y       字符串B
+     * @param matches 保存结果，原有的结果会被清空
+     * @param storage 记录表的存储位置
+     * @throws IOException 创建或映射临时文件失败
+     */
+    public void findAllByDp(String x, String y, SubstringMatches matches, DpTable.Storage storage)
+            throws IOException {
+        if (x == null || x.isEmpty() || y == null || y.isEmpty()) {
+            matches.reset(null);
+            return;
+        }
+        int lenX = x.length();
+        int lenY = y.length();
+        try (DpTable c = DpTable.allocate(lenX, lenY, Math.min(lenX, lenY), storage)) {
+            findAllByDp(x, y, matches, c);
+        }
+    }
+
+    /**
+     * 与{@link #findAllByDp(String, String, SubstringMatches, DpTable.Storage)}相同，使用调用方持有的记录表，
+     * 多次计算时可以复用同一个记录表，不需要每次分配或映射；记录表由调用方关闭。
+     *
+     * @param x       字符串A
+     * @param y       字符串B
+     * @param matches 保存结果，原有的结果会被清空
+     * @param table   记录表，至少为m*n，单元格的最大值不小于min(m,n)
+     * @throws IllegalArgumentException 记录表不够大
+     */
+    public void findAllByDp(String x, String y, SubstringMatches matches, DpTable table) {
+        if (x == null || x.isEmpty() || y == null || y.isEmpty()) {
+            matches.reset(null);
+            return;
+        }
+        int lenX = x.length();
+        int lenY = y.length();
+        table.checkFits(lenX, lenY, Math.min(lenX, lenY));
+        try (Probe probe = Metrics.start("LongestCommonSubstring.findAllByDp")) {
+            probe.cells((long) lenX * lenY);
+            probe.comparisons((long) lenX * lenY);
+            probe.tableBytes((long) lenX * lenY * table.cellBytes());
+            matches.reset(x);
+            int maxLen = 0;
+            for (int i = 0; i < lenX; i++) {
+                for (int j = 0; j < lenY; j++) {
+                    if (x.charAt(i) == y.charAt(j)) {
+                        int len = i == 0 || j == 0 ? 1 : table.get(i - 1, j - 1) + 1;
+                        table.set(i, j, len);
+                        if (len >= maxLen) {
+                            maxLen = len;
+                            matches.offer(i - maxLen + 1, maxLen);
                         }
-                        String lcsub = x.substring(i - maxLen + 1, i + 1);
-                        if (lcsub.length() > 0) {
-                            resultSet.add(lcsub);
+                    } else {
+                        table.set(i, j, 0);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * {@link #findAllByDp(String, String)}的CharSequence版本，
+     * 可以直接用于StringBuilder、CharBuffer等，不需要先转换为String
+     * 计算过程中只把候选的起始下标记录在{@link SubstringMatches}中，最后才创建结果，并且只保存2行记录
+     * <p>
+     * 时间复杂度O(mn)，空间复杂度O(n)
+     *
+     * @param x 字符序列A
+     * @param y 字符序列B
+     * @return 字符序列A和字符序列B的最长公共子串集合，无则返回空集合
+     */
+    public List<String> findAllByDp(CharSequence x, CharSequence y) {
+        if (x == null || x.length() == 0 || y == null || y.length() == 0) {
+            return new ArrayList<>();
+        }
+        SubstringMatches matches = new SubstringMatches();
+        matches.reset(x);
+        int maxLen = 0;
+        int lenX = x.length();
+        int lenY = y.length();
+        try (Probe probe = Metrics.start("LongestCommonSubstring.findAllByDp")) {
+            probe.cells((long) lenX * lenY);
+            probe.comparisons((long) lenX * lenY);
+            // 滚动的2行
+            probe.tableBytes(2L * (lenY + 1) * Integer.BYTES);
+            int[] prev = new int[lenY + 1];
+            int[] curr = new int[lenY + 1];
+            for (int i = 0; i < lenX; i++) {
+                char ch = x.charAt(i);
+                for (int j = 1; j <= lenY; j++) {
+                    if (ch == y.charAt(j - 1)) {
+                        int len = prev[j - 1] + 1;
+                        curr[j] = len;
+                        if (len >= maxLen) {
+                            maxLen = len;
+                            matches.offer(i - len + 1, len);
                         }
+                    } else {
+                        curr[j] = 0;
                     }
-                } else {
-                    c[i][j] = 0;
                 }
+                int[] tmp = prev;
+                prev = curr;
+                curr = tmp;
             }
+            return matches.toList();
+        }
+    }
+
+    /**
+     * {@link #findAllByDp(String, String)}的字节版本，直接比较字节，不需要先解码为字符串
+     * 与CharSequence版本相同，候选的公共子串只以起始下标的形式记录在{@link SubstringMatches}中，
+     * 用前缀哈希去重，最后才复制出结果。
+     * 对于UTF-8等多字节编码，结果是字节的公共子串，不一定由完整的字符组成。
+     * <p>
+     * 时间复杂度O(mn)，空间复杂度O(n)
+     *
+     * @param x       字节数组A
+     * @param xOffset A的起始下标
+     * @param xLength A的长度
+     * @param y       字节数组B
+     * @param yOffset B的起始下标
+     * @param yLength B的长度
+     * @return 最长公共子串集合，无则返回空集合
+     */
+    public List<byte[]> findAllByDp(byte[] x, int xOffset, int xLength, byte[] y, int yOffset, int yLength) {
+        Objects.checkFromIndexSize(xOffset, xLength, x.length);
+        Objects.checkFromIndexSize(yOffset, yLength, y.length);
+        if (xLength == 0 || yLength == 0) {
+            return new ArrayList<>();
+        }
+        SubstringMatches matches = new SubstringMatches();
+        matches.reset(x, xOffset, xLength);
+        int maxLen = 0;
+        try (Probe probe = Metrics.start("LongestCommonSubstring.findAllByDp")) {
+            probe.cells((long) xLength * yLength);
+            probe.comparisons((long) xLength * yLength);
+            probe.tableBytes(2L * (yLength + 1) * Integer.BYTES);
+            int[] prev = new int[yLength + 1];
+            int[] curr = new int[yLength + 1];
+            for (int i = 0; i < xLength; i++) {
+                byte b = x[xOffset + i];
+                for (int j = 1; j <= yLength; j++) {
+                    if (b == y[yOffset + j - 1]) {
+                        int len = prev[j - 1] + 1;
+                        curr[j] = len;
+                        if (len >= maxLen) {
+                            maxLen = len;
+                            matches.offer(i - len + 1, len);
+                        }
+                    } else {
+                        curr[j] = 0;
+                    }
+                }
+                int[] tmp = prev;
+                prev = curr;
+                curr = tmp;
+            }
+            return matches.toByteList();
         }
-        result.addAll(resultSet);
-        return result;
+    }
+
+    /**
+     * {@link #findAllByDp(String, String)}的ByteBuffer版本，比较position到limit之间的字节，不改变position
+     * 堆内的缓冲区直接访问其底层数组；直接缓冲区先复制出剩余的字节，
+     * 复制的代价O(m+n)相对于计算的O(mn)可以忽略。
+     *
+     * @param x 缓冲区A
+     * @param y 缓冲区B
+     * @return 最长公共子串集合，无则返回空集合
+     */
+    public List<byte[]> findAllByDp(ByteBuffer x, ByteBuffer y) {
+        if (x.hasArray() && y.hasArray()) {
+            return findAllByDp(x.array(), x.arrayOffset() + x.position(), x.remaining(),
+                    y.array(), y.arrayOffset() + y.position(), y.remaining());
+        }
+        byte[] bx = Buffers.toArray(x);
+        byte[] by = Buffers.toArray(y);
+        return findAllByDp(bx, 0, bx.length, by, 0, by.length);
     }
 
     /**
@@ -76,43 +277,54 @@ public class LongestCommonSubstring {
      * @return 字符串A和字符串B的最长公共子串集合，无则返回空集合
      */
     public List<String> findAllByDpUpdate1(String x, String y) {
-        ArrayList<String> result = new ArrayList<>();
+        SubstringMatches matches = new SubstringMatches();
+        findAllByDpUpdate1(x, y, matches);
+        return matches.toList();
+    }
+
+    /**
+     * {@link #findAllByDpUpdate1(String, String)}的无分配版本，下标为在较长的字符串中的下标，长度相同时为X
+     * 结果以公共子串的起始下标的形式写入可复用的matches，计算过程中不创建任何String
+     *
+     * @param x       字符串A
+     * @param y       字符串B
+     * @param matches 保存结果，原有的结果会被清空
+     */
+    public void findAllByDpUpdate1(String x, String y, SubstringMatches matches) {
         if (x == null || x.isEmpty() || y == null || y.isEmpty()) {
-            return result;
+            matches.reset(null);
+            return;
         }
         // 根据最优解的递归定义，自底向上计算最优解的值，并找出最长公共子串
-        Set<String> resultSet = new HashSet<>();
         int maxLen = 0;
         String shorter = x.length() < y.length() ? x : y;
         String longer = x.length() < y.length() ? y : x;
+        matches.reset(longer);
         int lenShorter = shorter.length();
         int lenLonger = longer.length();
-        int[][] c = new int[2][lenShorter];
-        for (int i = 0; i < lenLonger; i++) {
-            for (int j = 0; j < lenShorter; j++) {
-                if (longer.charAt(i) == shorter.charAt(j)) {
-                    if (i == 0 || j == 0) {
-                        c[i % 2][j] = 1;
-                    } else {
-                        c[i % 2][j] = c[(i - 1) % 2][j - 1] + 1;
-                    }
-                    if (c[i % 2][j] >= maxLen) {
-                        if (c[i % 2][j] != maxLen) {
-                            resultSet.clear();
-                            maxLen = c[i % 2][j];
+        try (Probe probe = Metrics.start("LongestCommonSubstring.findAllByDpUpdate1")) {
+            probe.cells((long) lenLonger * lenShorter);
+            probe.comparisons((long) lenLonger * lenShorter);
+            probe.tableBytes(2L * lenShorter * Integer.BYTES);
+            int[][] c = new int[2][lenShorter];
+            for (int i = 0; i < lenLonger; i++) {
+                for (int j = 0; j < lenShorter; j++) {
+                    if (longer.charAt(i) == shorter.charAt(j)) {
+                        if (i == 0 || j == 0) {
+                            c[i % 2][j] = 1;
+                        } else {
+                            c[i % 2][j] = c[(i - 1) % 2][j - 1] + 1;
                         }
-                        String lcsub = longer.substring(i - maxLen + 1, i + 1);
-                        if (lcsub.length() > 0) {
-                            resultSet.add(lcsub);
+                        if (c[i % 2][j] >= maxLen) {
+                            maxLen = c[i % 2][j];
+                            matches.offer(i - maxLen + 1, maxLen);
                         }
+                    } else {
+                        c[i % 2][j] = 0;
                     }
-                } else {
-                    c[i % 2][j] = 0;
                 }
             }
         }
-        result.addAll(resultSet);
-        return result;
     }
 
     /**
@@ -128,52 +340,120 @@ public class LongestCommonSubstring {
      * @return 字符串A和字符串B的最长公共子串集合，无则返回空集合
      */
     public List<String> findAllByDpUpdate2(String x, String y) {
-        ArrayList<String> result = new ArrayList<>();
+        SubstringMatches matches = new SubstringMatches();
+        findAllByDpUpdate2(x, y, matches);
+        return matches.toList();
+    }
+
+    /**
+     * {@link #findAllByDpUpdate2(String, String)}的无分配版本，下标为在X中的下标
+     * 结果以公共子串的起始下标的形式写入可复用的matches，计算过程中不创建任何String
+     *
+     * @param x       字符串A
+     * @param y       字符串B
+     * @param matches 保存结果，原有的结果会被清空
+     */
+    public void findAllByDpUpdate2(String x, String y, SubstringMatches matches) {
         if (x == null || x.isEmpty() || y == null || y.isEmpty()) {
-            return result;
+            matches.reset(null);
+            return;
         }
         // 根据最优解的递归定义，自底向上计算最优解的值，并找出最长公共子串
-        Set<String> resultSet = new HashSet<>();
+        matches.reset(x);
         int lenX = x.length();
         int lenY = y.length();
-        int maxLen = 0;
-        int lengthOfSubstring = 0;
-        for (int start = 0; start < lenX; start++) {
-            for (int i = start, j = 0; i < lenX && j < lenY; i++, j++) {
-                if (x.charAt(i) == y.charAt(j)) {
-                    lengthOfSubstring++;
-                    if (lengthOfSubstring >= maxLen) {
-                        if (lengthOfSubstring != maxLen) {
-                            resultSet.clear();
+        try (Probe probe = Metrics.start("LongestCommonSubstring.findAllByDpUpdate2")) {
+            // 两组斜线都从主对角线开始，主对角线扫描了两次；只保存当前长度，没有记录表
+            long cells = (long) lenX * lenY + Math.min(lenX, lenY);
+            probe.cells(cells);
+            probe.comparisons(cells);
+            int maxLen = 0;
+            for (int start = 0; start < lenX; start++) {
+                // 每条斜线重新开始计算长度
+                int lengthOfSubstring = 0;
+                for (int i = start, j = 0; i < lenX && j < lenY; i++, j++) {
+                    if (x.charAt(i) == y.charAt(j)) {
+                        lengthOfSubstring++;
+                        if (lengthOfSubstring >= maxLen) {
                             maxLen = lengthOfSubstring;
+                            matches.offer(i - maxLen + 1, maxLen);
                         }
-                        String lcsub = x.substring(i - maxLen + 1, i + 1);
-                        if (lcsub.length() > 0) {
-                            resultSet.add(lcsub);
-                        }
+                    } else {
+                        lengthOfSubstring = 0;
                     }
-                } else {
-                    lengthOfSubstring = 0;
                 }
             }
-        }
-        lengthOfSubstring = 0;
-        for (int start = 0; start < lenY; start++) {
-            for (int i = 0, j = start; i < lenX && j < lenY; i++, j++) {
-                if (x.charAt(i) == y.charAt(j)) {
-                    lengthOfSubstring++;
-                    if (lengthOfSubstring >= maxLen) {
-                        if (lengthOfSubstring != maxLen) {
-                            resultSet.clear();
+            for (int start = 0; start < lenY; start++) {
+                int lengthOfSubstring = 0;
+                for (int i = 0, j = start; i < lenX && j < lenY; i++, j++) {
+                    if (x.charAt(i) == y.charAt(j)) {
+                        lengthOfSubstring++;
+                        if (lengthOfSubstring >= maxLen) {
                             maxLen = lengthOfSubstring;
+                            matches.offer(i - maxLen + 1, maxLen);
                         }
-                        String lcsub = x.substring(i - maxLen + 1, i + 1);
-                        if (lcsub.length() > 0) {
-                            resultSet.add(lcsub);
-                        }
+                    } else {
+                        lengthOfSubstring = 0;
                     }
-                } else {
-                    lengthOfSubstring = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * findAll的优化版本2的批量比较版本
+     * 与优化版本2一样沿着每条斜线扫描，但不再逐个字符比较并累加长度，
+     * 而是用{@link Arrays#mismatch(char[], int, int, char[], int, int)}直接求出从当前位置开始的相同字符段的长度。
+     * HotSpot将Arrays.mismatch实现为向量化的内部函数(intrinsic)，一次比较多个字符，
+     * 在不支持的平台上会自动退回逐个比较的实现。
+     * 每个相同字符段只在结束时与当前的最大长度比较一次，也不需要在扫描过程中反复截取子串。
+     * <p>
+     * 时间复杂度O(mn)，空间复杂度O(m+n)
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     * @return 字符串A和字符串B的最长公共子串集合，无则返回空集合
+     */
+    public List<String> findAllByDiagonalScan(String x, String y) {
+        ArrayList<String> result = new ArrayList<>();
+        if (x == null || x.isEmpty() || y == null || y.isEmpty()) {
+            return result;
+        }
+        char[] cx = x.toCharArray();
+        char[] cy = y.toCharArray();
+        Set<String> resultSet = new HashSet<>();
+        // 斜线d上的单元格为(i, i - d)，d从-(lenY-1)到lenX-1
+        int maxLen = 0;
+        for (int d = 1 - cy.length; d < cx.length; d++) {
+            int i = Math.max(d, 0);
+            int j = i - d;
+            int diagonalLen = Math.min(cx.length - i, cy.length - j);
+            if (diagonalLen < maxLen) {
+                continue;
+            }
+            int k = 0;
+            while (k < diagonalLen) {
+                // 随机文本中大部分位置都不相同，先比较一个字符，避免为很短的相同字符段调用mismatch
+                if (cx[i + k] != cy[j + k]) {
+                    k++;
+                    continue;
+                }
+                int run = Arrays.mismatch(cx, i + k, i + diagonalLen, cy, j + k, j + diagonalLen);
+                if (run < 0) {
+                    run = diagonalLen - k;
+                }
+                if (run > 0 && run >= maxLen) {
+                    if (run != maxLen) {
+                        resultSet.clear();
+                        maxLen = run;
+                    }
+                    resultSet.add(x.substring(i + k, i + k + run));
+                }
+                // 跳过相同字符段和随后的第一个不同字符
+                k += run + 1;
+                // 斜线剩余的部分已经不可能比maxLen更长
+                if (diagonalLen - k < maxLen) {
+                    break;
                 }
             }
         }
@@ -181,6 +461,24 @@ public class LongestCommonSubstring {
         return result;
     }
 
+    /**
+     * 利用后缀自动机解出最长公共子串
+     * 为字符串X构建后缀自动机，然后用字符串Y在自动机上查询，详见{@link SuffixAutomaton}
+     * 如果X是固定的语料库，应当只构建一次SuffixAutomaton，然后反复查询。
+     * <p>
+     * 时间复杂度O(m+n)，空间复杂度O(m)
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     * @return 字符串A和字符串B的最长公共子串集合，无则返回空集合
+     */
+    public List<String> findAllBySuffixAutomaton(String x, String y) {
+        if (x == null || x.isEmpty() || y == null || y.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return new SuffixAutomaton(x).longestCommonSubstrings(y);
+    }
+
     /**
      * 利用后缀数组和KMP算法解出最长公共子串
      * 对于任意字符串X和Y，其最大公共子串一定是字符串X的某个前缀和字符串Y的某个前缀的共同后缀
@@ -213,23 +511,28 @@ public class LongestCommonSubstring {
         String shorter = x.length() > y.length() ? y : x;
         int shorterLen = shorter.length();
         int max = 0;
-        // 取出较短字符串的所有后缀进行KMP字符串匹配
-        for (int i = 0; i < shorterLen; i++) {
-            int lcsubLen = kmpMatch(longer, shorter, i);
-            // 保存最大匹配长度即为最长公共子串
-            if (lcsubLen >= max) {
-                if (lcsubLen != max) {
-                    resultSet.clear();
-                    max = lcsubLen;
-                }
-                String lcsub = shorter.substring(i, i + max);
-                if (lcsub.length() > 0) {
-                    resultSet.add(lcsub);
+        try (Probe probe = Metrics.start("LongestCommonSubstring.findAllByKmp")) {
+            long strings = 0;
+            // 取出较短字符串的所有后缀进行KMP字符串匹配
+            for (int i = 0; i < shorterLen; i++) {
+                int lcsubLen = kmpMatch(longer, shorter, i, probe);
+                // 保存最大匹配长度即为最长公共子串
+                if (lcsubLen >= max) {
+                    if (lcsubLen != max) {
+                        resultSet.clear();
+                        max = lcsubLen;
+                    }
+                    String lcsub = shorter.substring(i, i + max);
+                    strings++;
+                    if (lcsub.length() > 0) {
+                        resultSet.add(lcsub);
+                    }
                 }
             }
+            result.addAll(resultSet);
+            probe.strings(strings);
+            return result;
         }
-        result.addAll(resultSet);
-        return result;
     }
 
     private static int[] kmpTable(String target, int start) {
@@ -266,9 +569,10 @@ public class LongestCommonSubstring {
      * @param src         源字符串
      * @param target      目标字符串
      * @param targetStart 目标字符串开始下标
+     * @param probe       记录比较和回退的次数
      * @return 匹配的最大长度
      */
-    private int kmpMatch(String src, String target, int targetStart) {
+    private int kmpMatch(String src, String target, int targetStart, Probe probe) {
         if (src == null || target == null) {
             return -1;
         }
@@ -279,28 +583,45 @@ public class LongestCommonSubstring {
         }
         int max = 0;
         int[] table = kmpTable(target, targetStart);
+        probe.tableBytes((long) table.length * Integer.BYTES);
         int m = 0;
         int i = targetStart;
+        long comparisons = 0;
+        long fallbacks = 0;
         while (m < len) {
-            if (i < targetStart || src.charAt(m) == target.charAt(i)) {
+            if (i < targetStart) {
+                m++;
+                i++;
+            } else if (src.charAt(m) == target.charAt(i)) {
+                comparisons++;
                 m++;
                 i++;
             } else {
+                comparisons++;
+                fallbacks++;
                 i = table[i - targetStart] + targetStart;
             }
             if (i - targetStart == targetLen) {
-                return targetLen;
+                max = targetLen;
+                break;
             }
             if (i - targetStart > max) {
                 max = i - targetStart;
             }
         }
+        probe.comparisons(comparisons);
+        probe.fallbacks(fallbacks);
         return max;
     }
 
     /**
      * 广义后缀树
-     * TODO： 广义后缀树数据结构的实现
+     * 对于任意字符串X和Y，其最大公共子串一定是字符串X的某个后缀和字符串Y的某个后缀的共同前缀
+     * 将X和Y的所有后缀放入同一棵后缀树中，则任意两个后缀的共同前缀即为它们在树中最近公共祖先的路径。
+     * 那么子树中同时包含X和Y后缀的内部节点中，路径最长的即为最长公共子串。
+     * 后缀树使用Ukkonen算法在线构建，详见{@link GeneralizedSuffixTree}
+     * <p>
+     * 时间复杂度O(n+m)，空间复杂度O(n+m)
      *
      * @param x 字符串A
      * @param y 字符串B
@@ -311,8 +632,76 @@ public class LongestCommonSubstring {
         if (x == null || x.isEmpty() || y == null || y.isEmpty()) {
             return result;
         }
-        // TODO: 利用广义后缀树进行多字符串匹配
+        // 利用广义后缀树进行多字符串匹配
+        GeneralizedSuffixTree tree = new GeneralizedSuffixTree(x, y);
+        result.addAll(tree.longestCommonSubstrings());
+        return result;
+    }
+
+    /**
+     * 后缀数组 + LCP数组
+     * 与广义后缀树的思路相同，将X和Y用一个唯一的分隔符拼接成X#Y，
+     * 那么X和Y的公共子串一定是X的某个后缀与Y的某个后缀的共同前缀。
+     * 对X#Y的所有后缀排序后，两个后缀的最长公共前缀等于它们之间所有相邻后缀LCP的最小值，
+     * 所以最长公共子串一定出现在排序后相邻、并且分别来自X和Y的两个后缀之间。
+     * 后缀数组使用SA-IS算法构建，LCP数组使用Kasai算法构建，详见{@link SuffixArray}
+     * <p>
+     * 只使用若干个int[]，没有节点对象，适合于大规模输入
+     * 时间复杂度O(n+m)，空间复杂度O(n+m)
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     * @return 字符串A和字符串B的最长公共子串集合，无则返回空集合
+     */
+    public List<String> findAllBySuffixArray(String x, String y) {
+        ArrayList<String> result = new ArrayList<>();
+        if (x == null || x.isEmpty() || y == null || y.isEmpty()) {
+            return result;
+        }
+        int lenX = x.length();
+        int lenY = y.length();
+        // 字符集压缩，分隔符为0，其余字符按照大小顺序映射为[1, upper]
+        int[] rank = new int[Character.MAX_VALUE + 1];
+        for (int i = 0; i < lenX; i++) {
+            rank[x.charAt(i)] = 1;
+        }
+        for (int i = 0; i < lenY; i++) {
+            rank[y.charAt(i)] = 1;
+        }
+        int upper = 0;
+        for (int c = 0; c < rank.length; c++) {
+            if (rank[c] != 0) {
+                rank[c] = ++upper;
+            }
+        }
+        int[] s = new int[lenX + lenY + 1];
+        for (int i = 0; i < lenX; i++) {
+            s[i] = rank[x.charAt(i)];
+        }
+        s[lenX] = 0;
+        for (int i = 0; i < lenY; i++) {
+            s[lenX + 1 + i] = rank[y.charAt(i)];
+        }
+        int[] sa = SuffixArray.build(s, upper);
+        int[] lcp = SuffixArray.lcp(s, sa);
+        // 扫描相邻后缀，找出来自不同字符串的后缀之间LCP的最大值
+        int maxLen = 0;
+        for (int i = 0; i < lcp.length; i++) {
+            if (lcp[i] > maxLen && (sa[i] < lenX) != (sa[i + 1] < lenX)) {
+                maxLen = lcp[i];
+            }
+        }
+        if (maxLen == 0) {
+            return result;
+        }
         Set<String> resultSet = new HashSet<>();
+        for (int i = 0; i < lcp.length; i++) {
+            if (lcp[i] == maxLen && (sa[i] < lenX) != (sa[i + 1] < lenX)) {
+                int start = Math.min(sa[i], sa[i + 1]);
+                resultSet.add(x.substring(start, start + maxLen));
+            }
+        }
+        result.addAll(resultSet);
         return result;
     }
 }
@@ -2,6 +2,10 @@ package jacobvv.string;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -16,6 +20,7 @@ class LongestCommonSubstringTest {
             {"best practice of java.", "best practice of algorithms."},
             {"world.", "abc"},
             {"hello java", "world see aha."},
+            {"aaa", "aa"},
             {"", "1"},
             {null, ""},
     };
@@ -26,6 +31,7 @@ class LongestCommonSubstringTest {
             {"best practice of "},
             {},
             {" ", "a", "l", "e", "h", "o"},
+            {"aa"},
             {},
             {}
     };
@@ -75,6 +81,145 @@ class LongestCommonSubstringTest {
         }
     }
 
+    @Test
+    void findAllByDiagonalScanTest() {
+        LongestCommonSubstring target = new LongestCommonSubstring();
+        for (int i = 0; i < inputs.length; i++) {
+            List<String> result = target.findAllByDiagonalScan(inputs[i][0], inputs[i][1]);
+            List<String> expected = Arrays.asList(outputs[i]);
+            expected.sort(null);
+            result.sort(null);
+            assertIterableEquals(expected, result,
+                    "Inputs: " + Arrays.asList(inputs[i]) +
+                            ", Expected: " + expected +
+                            ", But actual: " + result);
+        }
+    }
+
+    @Test
+    void findAllByDpCharSequenceTest() {
+        LongestCommonSubstring target = new LongestCommonSubstring();
+        for (int i = 0; i < inputs.length; i++) {
+            StringBuilder x = inputs[i][0] == null ? null : new StringBuilder(inputs[i][0]);
+            StringBuilder y = inputs[i][1] == null ? null : new StringBuilder(inputs[i][1]);
+            List<String> result = target.findAllByDp(x, y);
+            List<String> expected = Arrays.asList(outputs[i]);
+            expected.sort(null);
+            result.sort(null);
+            assertIterableEquals(expected, result);
+        }
+    }
+
+    @Test
+    void findAllByDpBytesTest() {
+        LongestCommonSubstring target = new LongestCommonSubstring();
+        for (int i = 0; i < inputs.length; i++) {
+            if (inputs[i][0] == null) {
+                continue;
+            }
+            byte[] x = ("#" + inputs[i][0]).getBytes(StandardCharsets.UTF_8);
+            byte[] y = inputs[i][1].getBytes(StandardCharsets.UTF_8);
+            ByteBuffer directY = ByteBuffer.allocateDirect(y.length);
+            directY.put(y).flip();
+            List<String> expected = Arrays.asList(outputs[i]);
+            expected.sort(null);
+            for (List<byte[]> bytes : Arrays.asList(
+                    target.findAllByDp(x, 1, x.length - 1, y, 0, y.length),
+                    target.findAllByDp(ByteBuffer.wrap(x, 1, x.length - 1), directY))) {
+                List<String> result = new ArrayList<>();
+                for (byte[] b : bytes) {
+                    result.add(new String(b, StandardCharsets.UTF_8));
+                }
+                result.sort(null);
+                assertIterableEquals(expected, result);
+            }
+        }
+    }
+
+    @Test
+    void substringMatchesTest() {
+        LongestCommonSubstring target = new LongestCommonSubstring();
+        // 同一个对象在所有输入之间复用
+        SubstringMatches matches = new SubstringMatches();
+        for (int i = 0; i < inputs.length; i++) {
+            String x = inputs[i][0];
+            String y = inputs[i][1];
+            List<String> expected = Arrays.asList(outputs[i]);
+            expected.sort(null);
+            target.findAllByDp(x, y, matches);
+            assertMatches(expected, matches, x);
+            target.findAllByDpUpdate2(x, y, matches);
+            assertMatches(expected, matches, x);
+            target.findAllByDpUpdate1(x, y, matches);
+            String longer = x != null && y != null && x.length() < y.length() ? y : x;
+            assertMatches(expected, matches, longer);
+        }
+        // 大量重复的候选子串只保留一个
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            sb.append("ab");
+        }
+        target.findAllByDp(sb.toString(), "xabx", matches);
+        assertEquals(1, matches.size());
+        assertEquals(2, matches.length());
+        assertEquals("ab", matches.get(0));
+        assertEquals(0, matches.offset(0));
+        // CharSequence和字节版本同样按内容去重
+        assertEquals(Arrays.asList("ab"), target.findAllByDp(sb, new StringBuilder("xabx")));
+        byte[] bytes = ("#" + sb).getBytes(StandardCharsets.UTF_8);
+        List<byte[]> result = target.findAllByDp(bytes, 1, bytes.length - 1, "xabx".getBytes(StandardCharsets.UTF_8), 0, 4);
+        assertEquals(1, result.size());
+        assertArrayEquals("ab".getBytes(StandardCharsets.UTF_8), result.get(0));
+    }
+
+    @Test
+    void findAllByDpStorageTest() throws IOException {
+        LongestCommonSubstring target = new LongestCommonSubstring();
+        SubstringMatches matches = new SubstringMatches();
+        for (DpTable.Storage storage : DpTable.Storage.values()) {
+            for (int i = 0; i < inputs.length; i++) {
+                List<String> expected = Arrays.asList(outputs[i]);
+                expected.sort(null);
+                target.findAllByDp(inputs[i][0], inputs[i][1], matches, storage);
+                assertMatches(expected, matches, inputs[i][0]);
+            }
+            // 调用方持有的记录表在所有输入之间复用
+            try (DpTable table = DpTable.allocate(32, 32, 32, storage)) {
+                for (int i = 0; i < inputs.length; i++) {
+                    List<String> expected = Arrays.asList(outputs[i]);
+                    expected.sort(null);
+                    target.findAllByDp(inputs[i][0], inputs[i][1], matches, table);
+                    assertMatches(expected, matches, inputs[i][0]);
+                }
+            }
+        }
+    }
+
+    private static void assertMatches(List<String> expected, SubstringMatches matches, String source) {
+        List<String> result = matches.toList();
+        result.sort(null);
+        assertIterableEquals(expected, result);
+        assertEquals(expected.isEmpty() ? 0 : expected.get(0).length(), matches.length());
+        for (int i = 0; i < matches.size(); i++) {
+            assertTrue(source.startsWith(matches.get(i), matches.offset(i)));
+        }
+    }
+
+    @Test
+    void findAllBySuffixAutomatonTest() {
+        LongestCommonSubstring target = new LongestCommonSubstring();
+        for (int i = 0; i < inputs.length; i++) {
+            List<String> result = target.findAllBySuffixAutomaton(inputs[i][0], inputs[i][1]);
+            List<String> expected = Arrays.asList(outputs[i]);
+            expected.sort(null);
+            result.sort(null);
+            assertIterableEquals(expected, result,
+                    "Inputs: " + Arrays.asList(inputs[i]) +
+                            ", Expected: " + expected +
+                            ", But actual: " + result);
+        }
+    }
+
     @Test
     void findAllByKmpTest() {
         LongestCommonSubstring target = new LongestCommonSubstring();
@@ -90,4 +235,34 @@ class LongestCommonSubstringTest {
         }
     }
 
+    @Test
+    void findAllByGstTest() {
+        LongestCommonSubstring target = new LongestCommonSubstring();
+        for (int i = 0; i < inputs.length; i++) {
+            List<String> result = target.findAllByGst(inputs[i][0], inputs[i][1]);
+            List<String> expected = Arrays.asList(outputs[i]);
+            expected.sort(null);
+            result.sort(null);
+            assertIterableEquals(expected, result,
+                    "Inputs: " + Arrays.asList(inputs[i]) +
+                            ", Expected: " + expected +
+                            ", But actual: " + result);
+        }
+    }
+
+    @Test
+    void findAllBySuffixArrayTest() {
+        LongestCommonSubstring target = new LongestCommonSubstring();
+        for (int i = 0; i < inputs.length; i++) {
+            List<String> result = target.findAllBySuffixArray(inputs[i][0], inputs[i][1]);
+            List<String> expected = Arrays.asList(outputs[i]);
+            expected.sort(null);
+            result.sort(null);
+            assertIterableEquals(expected, result,
+                    "Inputs: " + Arrays.asList(inputs[i]) +
+                            ", Expected: " + expected +
+                            ", But actual: " + result);
+        }
+    }
+
 }
@@ -0,0 +1,337 @@
+package jacobvv.string;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 在内存映射文件中并行查找模式串
+ * 对于远大于堆内存的文件，不能先读成String再调用{@link StringPatternMatching#kmpMatch(String, String)}。
+ * 这里用{@link FileChannel#map}将文件分块映射到内存，文件内容不会被复制到堆中。
+ * 相邻的块重叠(模式串长度-1)个字节，这样跨越块边界的匹配也能被找到；
+ * 每个块只报告起始位置落在自己范围内的匹配，所以不会重复。
+ * 各块在ForkJoinPool中并行地用KMP算法匹配。
+ * 查找所有位置时，返回的流是惰性的：只提前提交并行度个块的匹配任务，并按块的顺序等待和输出结果，
+ * 所以内存中最多保存并行度个块的匹配结果；只计数时所有块一起并行计算，每块只保存一个计数。
+ * <p>
+ * 时间复杂度O(n/p + m)，p为并行度；空间复杂度O(m + pz)，z为一个块中匹配的个数
+ */
+public class MappedFileSearch {
+
+    /**
+     * 默认每块64MB
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public MappedFileSearch() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param pool      用于并行匹配的线程池
+     * @param chunkSize 每块的字节数，不包括与下一块重叠的部分
+     */
+    public MappedFileSearch(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 找出模式串在文件中的所有出现位置(包括相互重叠的出现)
+     *
+     * @param file    文件
+     * @param pattern 模式串，按UTF-8编码匹配
+     * @return 按升序排列的所有匹配的起始偏移量
+     * @throws IOException 读取文件失败
+     */
+    public LongStream findAll(Path file, String pattern) throws IOException {
+        return findAll(file, pattern.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 找出模式串在文件中的所有出现位置(包括相互重叠的出现)
+     * 返回的流持有打开的文件，在所有块都被消费或流被关闭时关闭文件，只消费一部分时应在try-with-resources中使用；
+     * 消费过程中读取文件失败时抛出{@link UncheckedIOException}。
+     *
+     * @param file    文件
+     * @param pattern 模式串
+     * @return 按升序排列的所有匹配的起始偏移量
+     * @throws IOException 打开文件失败
+     */
+    public LongStream findAll(Path file, byte[] pattern) throws IOException {
+        checkPattern(pattern);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            Chunks chunks = new Chunks(channel, pattern);
+            if (chunks.count == 0) {
+                channel.close();
+                return LongStream.empty();
+            }
+            OffsetSpliterator spliterator = new OffsetSpliterator(chunks);
+            return StreamSupport.longStream(spliterator, false).onClose(spliterator::close);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 统计模式串在文件中出现的次数
+     *
+     * @param file    文件
+     * @param pattern 模式串，按UTF-8编码匹配
+     * @return 出现的次数
+     * @throws IOException 读取文件失败
+     */
+    public long count(Path file, String pattern) throws IOException {
+        return count(file, pattern.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 统计模式串在文件中出现的次数
+     *
+     * @param file    文件
+     * @param pattern 模式串
+     * @return 出现的次数
+     * @throws IOException 读取文件失败
+     */
+    public long count(Path file, byte[] pattern) throws IOException {
+        checkPattern(pattern);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Chunks chunks = new Chunks(channel, pattern);
+            if (chunks.count == 0) {
+                return 0;
+            }
+            long[] counts = new long[chunks.count];
+            try {
+                pool.invoke(new ChunkTask(chunks, 0, chunks.count, counts));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            long count = 0;
+            for (long c : counts) {
+                count += c;
+            }
+            return count;
+        }
+    }
+
+    private void checkPattern(byte[] pattern) {
+        if ((long) chunkSize + pattern.length - 1 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Pattern too long for chunk size: " + pattern.length);
+        }
+    }
+
+    /**
+     * 一次查找中文件的分块，以及在一个块中的匹配
+     */
+    private class Chunks {
+        private final FileChannel channel;
+        private final long size;
+        private final byte[] pattern;
+        /**
+         * 部分匹配表，与{@link StringPatternMatching#kmpTable(byte[], int, int)}相同
+         */
+        private final int[] table;
+        /**
+         * 整个模式串的最长公共前后缀长度，与{@link KmpPattern}相同，找到一个匹配后从这里继续匹配
+         */
+        private final int border;
+        /**
+         * 块的数量，模式串为空或比文件长时为0
+         */
+        private final int count;
+
+        Chunks(FileChannel channel, byte[] pattern) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            this.pattern = pattern;
+            int m = pattern.length;
+            if (m == 0 || m > size) {
+                table = null;
+                border = 0;
+                count = 0;
+            } else {
+                table = StringPatternMatching.kmpTable(pattern, 0, m);
+                int k = table[m - 1];
+                while (k >= 0 && pattern[k] != pattern[m - 1]) {
+                    k = table[k];
+                }
+                border = k + 1;
+                count = (int) ((size - m) / chunkSize + 1);
+            }
+        }
+
+        /**
+         * 在第index块中匹配，该块负责起始位置在[start, start + chunkSize)中的匹配
+         *
+         * @return 只计数时为长度为1的数组，否则为按升序排列的匹配的起始偏移量
+         */
+        long[] match(int index, boolean countOnly) throws IOException {
+            int m = pattern.length;
+            long start = (long) index * chunkSize;
+            long end = Math.min(size, start + chunkSize + m - 1);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            int len = buffer.limit();
+            long[] offsets = new long[countOnly ? 1 : 16];
+            int found = 0;
+            long count = 0;
+            int p = 0;
+            int i = 0;
+            while (p < len) {
+                if (i < 0 || buffer.get(p) == pattern[i]) {
+                    p++;
+                    i++;
+                } else {
+                    i = table[i];
+                }
+                if (i == m) {
+                    if (countOnly) {
+                        count++;
+                    } else {
+                        if (found == offsets.length) {
+                            offsets = Arrays.copyOf(offsets, found * 2);
+                        }
+                        offsets[found++] = start + p - m;
+                    }
+                    i = border;
+                }
+            }
+            if (countOnly) {
+                offsets[0] = count;
+                return offsets;
+            }
+            return Arrays.copyOf(offsets, found);
+        }
+    }
+
+    /**
+     * 二分地拆分块的区间[from, to)，直到只剩一个块，统计每块中匹配的个数
+     */
+    private static class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Chunks chunks;
+        private final int from;
+        private final int to;
+        private final long[] counts;
+
+        ChunkTask(Chunks chunks, int from, int to, long[] counts) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+            this.counts = counts;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ChunkTask(chunks, from, mid, counts),
+                        new ChunkTask(chunks, mid, to, counts));
+                return;
+            }
+            try {
+                counts[from] = chunks.match(from, true)[0];
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * 按块的顺序输出匹配位置
+     * 在线程池中提前提交最多并行度个块的匹配任务，当前块的结果输出完后再等待下一个块的任务，
+     * 同时提交一个新的块，所以消费者处理结果的同时后面的块在并行匹配。
+     */
+    private class OffsetSpliterator extends Spliterators.AbstractLongSpliterator {
+        private final Chunks chunks;
+        private final Deque<ForkJoinTask<long[]>> pending = new ArrayDeque<>();
+        /**
+         * 下一个要提交的块
+         */
+        private int next;
+        private long[] current = new long[0];
+        private int position;
+
+        OffsetSpliterator(Chunks chunks) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+            this.chunks = chunks;
+            int window = Math.max(1, pool.getParallelism());
+            while (next < chunks.count && pending.size() < window) {
+                submit();
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            while (position == current.length) {
+                ForkJoinTask<long[]> task = pending.poll();
+                if (task == null) {
+                    return false;
+                }
+                if (next < chunks.count) {
+                    submit();
+                }
+                try {
+                    current = task.join();
+                } catch (RuntimeException e) {
+                    close();
+                    throw e;
+                }
+                position = 0;
+                if (pending.isEmpty()) {
+                    // 最后一个块已经匹配完，不再需要文件
+                    close();
+                }
+            }
+            action.accept(current[position++]);
+            return true;
+        }
+
+        private void submit() {
+            int index = next++;
+            pending.add(pool.submit(() -> {
+                try {
+                    return chunks.match(index, false);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+
+        void close() {
+            for (ForkJoinTask<long[]> task : pending) {
+                task.cancel(false);
+            }
+            pending.clear();
+            next = chunks.count;
+            try {
+                chunks.channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package jacobvv.string;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+
+class MappedFileSearchTest {
+
+    private String[][] inputs = new String[][]{
+            {"hello java", "java"},
+            {"ABABABAABAABABAABAABABA", "ABAABABA"},
+            {"aaaaaaaaaaaaaaaaaaaaaaaaaaaaaa", "aaa"},
+            {"world.", "abc"},
+            {"abc", "abcd"},
+    };
+
+    @Test
+    void findAllTest() throws IOException {
+        // 块很小时，大部分匹配都跨越了块的边界
+        for (int chunkSize : new int[]{1, 3, 7, 1024}) {
+            MappedFileSearch target = new MappedFileSearch(ForkJoinPool.commonPool(), chunkSize);
+            for (String[] input : inputs) {
+                Path file = write(input[0]);
+                try {
+                    List<Long> expected = naive(input[0], input[1]);
+                    List<Long> result = target.findAll(file, input[1]).boxed().collect(Collectors.toList());
+                    assertIterableEquals(expected, result, "Inputs: " + input[0] + ", " + input[1]);
+                    assertEquals(expected.size(), target.count(file, input[1]));
+                } finally {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Test
+    void randomTest() throws IOException {
+        Random random = new Random(9);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            sb.append((char) ('a' + random.nextInt(3)));
+        }
+        String text = sb.toString();
+        Path file = write(text);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            MappedFileSearch target = new MappedFileSearch(pool, 4096);
+            for (String pattern : new String[]{"abc", "aaaaa", "cabacab"}) {
+                List<Long> result = target.findAll(file, pattern).boxed().collect(Collectors.toList());
+                assertIterableEquals(naive(text, pattern), result);
+            }
+        } finally {
+            pool.shutdown();
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void partialConsumeTest() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            sb.append("ab");
+        }
+        Path file = write(sb.toString());
+        try {
+            // 只消费前几个匹配，后面的块不需要全部匹配
+            MappedFileSearch target = new MappedFileSearch(ForkJoinPool.commonPool(), 16);
+            try (LongStream offsets = target.findAll(file, "ba")) {
+                assertArrayEquals(new long[]{1, 3, 5}, offsets.limit(3).toArray());
+            }
+            assertEquals(OptionalLong.of(0), target.findAll(file, "ab").findFirst());
+            assertEquals(0, target.findAll(file, "").count());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static Path write(String content) throws IOException {
+        Path file = Files.createTempFile("mapped-file-search", ".txt");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static List<Long> naive(String text, String pattern) {
+        List<Long> result = new ArrayList<>();
+        for (int i = text.indexOf(pattern); i >= 0; i = text.indexOf(pattern, i + 1)) {
+            result.add((long) i);
+        }
+        return result;
+    }
+}
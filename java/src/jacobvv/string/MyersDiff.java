@@ -0,0 +1,275 @@
+package jacobvv.string;
+
+import jacobvv.metrics.Metrics;
+import jacobvv.metrics.Probe;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Myers差分算法(An O(ND) Difference Algorithm)
+ * 将字符串X转换为字符串Y，只允许删除X中的字符和插入Y中的字符，
+ * 所需的最少编辑次数D与LCS的关系为D = m + n - 2 * |LCS|，
+ * 编辑脚本中保持不变的字符，即构成X和Y的一个LCS。
+ * <p>
+ * 把问题看作编辑图上从(0,0)到(m,n)的最短路径：向右为删除，向下为插入，对角线(字符相同)不计代价。
+ * 对于每个对角线k = x - y，记录用d次编辑所能到达的最远点V[k]，
+ * 则V[k]只能从V[k-1]或V[k+1]走一步后，再沿对角线尽量延伸("snake")得到。
+ * 当D很小时(例如同一文档的两个相近版本)，只需要计算少数几条对角线，时间接近线性。
+ * <p>
+ * 线性空间版本同时从两端出发，找到正向路径和反向路径重叠的"中间蛇"(middle snake)，
+ * 以它为界将问题分成两个子问题递归求解，所以只需要保存V数组。
+ * <p>
+ * 时间复杂度O((m+n)D)，空间复杂度O(m+n)
+ */
+public class MyersDiff {
+
+    /**
+     * 编辑操作的类型
+     */
+    public enum Operation {
+        /**
+         * 保持不变，构成LCS的部分
+         */
+        EQUAL,
+        /**
+         * 删除X中的字符
+         */
+        DELETE,
+        /**
+         * 插入Y中的字符
+         */
+        INSERT
+    }
+
+    /**
+     * 编辑脚本中的一段连续操作
+     */
+    public static class Edit {
+        private final Operation operation;
+        private final int xStart;
+        private final int yStart;
+        private final int length;
+
+        public Edit(Operation operation, int xStart, int yStart, int length) {
+            this.operation = operation;
+            this.xStart = xStart;
+            this.yStart = yStart;
+            this.length = length;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        /**
+         * @return 操作在X中的起始下标，插入操作为插入位置
+         */
+        public int getXStart() {
+            return xStart;
+        }
+
+        /**
+         * @return 操作在Y中的起始下标，删除操作为删除位置
+         */
+        public int getYStart() {
+            return yStart;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        @Override
+        public String toString() {
+            return operation + "(x=" + xStart + ", y=" + yStart + ", len=" + length + ")";
+        }
+    }
+
+    private String x;
+    private String y;
+    private int[] forward;
+    private int[] backward;
+    private int offset;
+    private List<Edit> script;
+    /**
+     * 本次diff中计算的最远点个数和字符比较次数，结束时写入探针
+     */
+    private long endpoints;
+    private long comparisons;
+
+    /**
+     * 计算将字符串X转换为字符串Y的最短编辑脚本
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     * @return 编辑脚本，相邻的同类操作会合并为一段
+     */
+    public List<Edit> diff(String x, String y) {
+        this.x = x == null ? "" : x;
+        this.y = y == null ? "" : y;
+        int lenX = this.x.length();
+        int lenY = this.y.length();
+        offset = (lenX + lenY + 1) / 2 + 1;
+        List<Edit> result;
+        try (Probe probe = Metrics.start("MyersDiff.diff")) {
+            forward = new int[2 * offset + 1];
+            backward = new int[2 * offset + 1];
+            probe.tableBytes(2L * forward.length * Integer.BYTES);
+            script = new ArrayList<>();
+            endpoints = 0;
+            comparisons = 0;
+            compare(0, lenX, 0, lenY);
+            result = script;
+            // 每个最远点相当于动态规划表中的一个单元格
+            probe.cells(endpoints);
+            probe.comparisons(comparisons);
+        }
+        this.x = null;
+        this.y = null;
+        forward = null;
+        backward = null;
+        script = null;
+        return result;
+    }
+
+    /**
+     * 根据编辑脚本得出LCS
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     * @return 字符串A和字符串B的最长公共子序列，无则返回空字符串
+     */
+    public String lcs(String x, String y) {
+        if (x == null || x.isEmpty() || y == null || y.isEmpty()) {
+            return "";
+        }
+        StringBuilder lcs = new StringBuilder();
+        for (Edit edit : diff(x, y)) {
+            if (edit.operation == Operation.EQUAL) {
+                lcs.append(x, edit.xStart, edit.xStart + edit.length);
+            }
+        }
+        return lcs.toString();
+    }
+
+    /**
+     * 递归求解x[xFrom, xTo)与y[yFrom, yTo)的编辑脚本
+     */
+    private void compare(int xFrom, int xTo, int yFrom, int yTo) {
+        // 去掉公共前缀和公共后缀，它们一定在某个最短编辑脚本中保持不变
+        int prefix = 0;
+        while (xFrom + prefix < xTo && yFrom + prefix < yTo
+                && x.charAt(xFrom + prefix) == y.charAt(yFrom + prefix)) {
+            prefix++;
+        }
+        comparisons += xFrom + prefix < xTo && yFrom + prefix < yTo ? prefix + 1 : prefix;
+        append(Operation.EQUAL, xFrom, yFrom, prefix);
+        xFrom += prefix;
+        yFrom += prefix;
+        int suffix = 0;
+        while (xFrom < xTo - suffix && yFrom < yTo - suffix
+                && x.charAt(xTo - suffix - 1) == y.charAt(yTo - suffix - 1)) {
+            suffix++;
+        }
+        comparisons += xFrom < xTo - suffix && yFrom < yTo - suffix ? suffix + 1 : suffix;
+        xTo -= suffix;
+        yTo -= suffix;
+        if (xFrom == xTo) {
+            append(Operation.INSERT, xFrom, yFrom, yTo - yFrom);
+        } else if (yFrom == yTo) {
+            append(Operation.DELETE, xFrom, yFrom, xTo - xFrom);
+        } else {
+            // snake[0..3]为中间蛇的起点(x,y)和终点(u,v)
+            int[] snake = middleSnake(xFrom, xTo, yFrom, yTo);
+            compare(xFrom, snake[0], yFrom, snake[1]);
+            append(Operation.EQUAL, snake[0], snake[1], snake[2] - snake[0]);
+            compare(snake[2], xTo, snake[3], yTo);
+        }
+        append(Operation.EQUAL, xTo, yTo, suffix);
+    }
+
+    /**
+     * 寻找中间蛇
+     * 正向从(0,0)出发，反向从(n,m)出发，交替计算d次编辑所能到达的最远点，
+     * 当delta = n - m为奇数时，在正向计算中检查重叠，否则在反向计算中检查重叠。
+     * 反向路径用倒置的坐标表示：x' = n - x，y' = m - y，对角线k' = delta - k。
+     *
+     * @return 中间蛇的起点和终点，以绝对下标表示
+     */
+    private int[] middleSnake(int xFrom, int xTo, int yFrom, int yTo) {
+        int n = xTo - xFrom;
+        int m = yTo - yFrom;
+        int delta = n - m;
+        boolean odd = (delta & 1) != 0;
+        int max = (n + m + 1) / 2;
+        int[] vf = forward;
+        int[] vb = backward;
+        vf[offset + 1] = 0;
+        vb[offset + 1] = 0;
+        for (int d = 0; d <= max; d++) {
+            for (int k = -d; k <= d; k += 2) {
+                int px;
+                if (k == -d || (k != d && vf[offset + k - 1] < vf[offset + k + 1])) {
+                    px = vf[offset + k + 1];
+                } else {
+                    px = vf[offset + k - 1] + 1;
+                }
+                int py = px - k;
+                int sx = px;
+                int sy = py;
+                while (px < n && py < m && x.charAt(xFrom + px) == y.charAt(yFrom + py)) {
+                    px++;
+                    py++;
+                }
+                endpoints++;
+                comparisons += px < n && py < m ? px - sx + 1 : px - sx;
+                vf[offset + k] = px;
+                int rk = delta - k;
+                if (odd && rk >= -(d - 1) && rk <= d - 1 && px + vb[offset + rk] >= n) {
+                    return new int[]{xFrom + sx, yFrom + sy, xFrom + px, yFrom + py};
+                }
+            }
+            for (int k = -d; k <= d; k += 2) {
+                int px;
+                if (k == -d || (k != d && vb[offset + k - 1] < vb[offset + k + 1])) {
+                    px = vb[offset + k + 1];
+                } else {
+                    px = vb[offset + k - 1] + 1;
+                }
+                int py = px - k;
+                int sx = px;
+                int sy = py;
+                while (px < n && py < m
+                        && x.charAt(xTo - px - 1) == y.charAt(yTo - py - 1)) {
+                    px++;
+                    py++;
+                }
+                endpoints++;
+                comparisons += px < n && py < m ? px - sx + 1 : px - sx;
+                vb[offset + k] = px;
+                int fk = delta - k;
+                if (!odd && fk >= -d && fk <= d && px + vf[offset + fk] >= n) {
+                    return new int[]{xTo - px, yTo - py, xTo - sx, yTo - sy};
+                }
+            }
+        }
+        // 不会到达这里：D <= n + m，所以d <= max时一定存在重叠
+        throw new IllegalStateException("middle snake not found");
+    }
+
+    private void append(Operation operation, int xStart, int yStart, int length) {
+        if (length <= 0) {
+            return;
+        }
+        if (!script.isEmpty()) {
+            Edit last = script.get(script.size() - 1);
+            if (last.operation == operation) {
+                script.set(script.size() - 1,
+                        new Edit(operation, last.xStart, last.yStart, last.length + length));
+                return;
+            }
+        }
+        script.add(new Edit(operation, xStart, yStart, length));
+    }
+}
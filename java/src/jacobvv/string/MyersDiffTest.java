@@ -0,0 +1,92 @@
+package jacobvv.string;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MyersDiffTest {
+
+    private String[][] inputs = new String[][]{
+            {"ABCABBA", "CBABAC"},
+            {"hello java", "java"},
+            {"best practice of algorithms.", "best practice of algorithms."},
+            {"best practice of java.", "best practice of algorithms."},
+            {"world.", "abc"},
+            {"", "abc"},
+            {"abc", ""},
+            {"", ""},
+    };
+    private int[] distances = new int[]{5, 6, 0, 12, 9, 3, 3, 0};
+
+    @Test
+    void diffTest() {
+        MyersDiff target = new MyersDiff();
+        for (int i = 0; i < inputs.length; i++) {
+            String x = inputs[i][0];
+            String y = inputs[i][1];
+            List<MyersDiff.Edit> script = target.diff(x, y);
+            assertEquals(y, apply(x, y, script), "Inputs: " + x + ", " + y);
+            assertEquals(distances[i], distance(script), "Inputs: " + x + ", " + y);
+        }
+    }
+
+    @Test
+    void nearIdenticalTest() {
+        // 在长字符串中随机修改少数几处，编辑距离应与LCS长度一致
+        Random random = new Random(11);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            sb.append((char) ('a' + random.nextInt(4)));
+        }
+        String x = sb.toString();
+        for (int i = 0; i < 5; i++) {
+            int pos = random.nextInt(sb.length());
+            sb.insert(pos, 'z');
+            sb.deleteCharAt(random.nextInt(sb.length()));
+        }
+        String y = sb.toString();
+        MyersDiff target = new MyersDiff();
+        List<MyersDiff.Edit> script = target.diff(x, y);
+        assertEquals(y, apply(x, y, script));
+        int lcs = new LongestCommonSubsequence().findByDp(x, y).length();
+        assertEquals(x.length() + y.length() - 2 * lcs, distance(script));
+        assertEquals(lcs, target.lcs(x, y).length());
+    }
+
+    private static String apply(String x, String y, List<MyersDiff.Edit> script) {
+        StringBuilder sb = new StringBuilder();
+        int pos = 0;
+        for (MyersDiff.Edit edit : script) {
+            assertEquals(pos, edit.getXStart());
+            switch (edit.getOperation()) {
+                case EQUAL:
+                    sb.append(x, pos, pos + edit.getLength());
+                    pos += edit.getLength();
+                    break;
+                case DELETE:
+                    pos += edit.getLength();
+                    break;
+                case INSERT:
+                    sb.append(y, edit.getYStart(), edit.getYStart() + edit.getLength());
+                    break;
+                default:
+                    break;
+            }
+        }
+        assertEquals(x.length(), pos);
+        return sb.toString();
+    }
+
+    private static int distance(List<MyersDiff.Edit> script) {
+        int d = 0;
+        for (MyersDiff.Edit edit : script) {
+            if (edit.getOperation() != MyersDiff.Operation.EQUAL) {
+                d += edit.getLength();
+            }
+        }
+        return d;
+    }
+}
@@ -0,0 +1,86 @@
+package jacobvv.string;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 编译后模式串的LRU缓存
+ * 以模式串为键缓存{@link KmpPattern}，反复以字符串形式传入的同一个模式串只需要编译一次。
+ * 缓存满时淘汰最久未被使用的模式串。
+ * <p>
+ * 缓存是线程安全的，编译在锁外进行，多个线程同时编译同一个模式串时，只有一个结果会被放入缓存。
+ */
+public class PatternCache {
+
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final int maxSize;
+    private final LinkedHashMap<String, KmpPattern> patterns;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public PatternCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize 缓存的最大模式串个数
+     */
+    public PatternCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        // 按访问顺序排列，最久未被使用的在最前面
+        this.patterns = new LinkedHashMap<String, KmpPattern>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, KmpPattern> eldest) {
+                return size() > PatternCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * 取出模式串的编译结果，缓存中没有则编译并放入缓存
+     *
+     * @param pattern 模式串
+     * @return 编译后的模式串
+     */
+    public KmpPattern get(String pattern) {
+        KmpPattern compiled;
+        synchronized (patterns) {
+            compiled = patterns.get(pattern);
+        }
+        if (compiled != null) {
+            hits.incrementAndGet();
+            return compiled;
+        }
+        misses.incrementAndGet();
+        compiled = KmpPattern.compile(pattern);
+        synchronized (patterns) {
+            KmpPattern existing = patterns.putIfAbsent(pattern, compiled);
+            return existing == null ? compiled : existing;
+        }
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public int size() {
+        synchronized (patterns) {
+            return patterns.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (patterns) {
+            patterns.clear();
+        }
+    }
+}
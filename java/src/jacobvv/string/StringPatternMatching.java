@@ -1,7 +1,30 @@
 package jacobvv.string;
 
+import jacobvv.metrics.Metrics;
+import jacobvv.metrics.Probe;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
 public class StringPatternMatching {
 
+    /**
+     * 编译后的模式串缓存，为null时每次匹配都重新构建部分匹配表
+     */
+    private final PatternCache cache;
+
+    public StringPatternMatching() {
+        this(null);
+    }
+
+    /**
+     * @param cache 编译后的模式串缓存，kmpMatch会复用缓存中的部分匹配表
+     */
+    public StringPatternMatching(PatternCache cache) {
+        this.cache = cache;
+    }
+
     public int bfMatch(String src, String target) {
         // 朴素的模式匹配（Brute-Force）算法，使用暴力方式进行循环匹配
         // 时间复杂度O(nm)，空间复杂度O(1)
@@ -13,22 +36,29 @@ public class StringPatternMatching {
         if (len == 0 || targetLen == 0 || targetLen > len) {
             return -1;
         }
-        for (int i = 0; i < len - targetLen + 1; i++) {
-            boolean match = true;
-            for (int j = 0; j < targetLen; j++) {
-                if (src.charAt(i + j) != target.charAt(j)) {
-                    match = false;
+        try (Probe probe = Metrics.start("StringPatternMatching.bfMatch")) {
+            int index = -1;
+            long comparisons = 0;
+            for (int i = 0; i < len - targetLen + 1; i++) {
+                boolean match = true;
+                for (int j = 0; j < targetLen; j++) {
+                    comparisons++;
+                    if (src.charAt(i + j) != target.charAt(j)) {
+                        match = false;
+                        break;
+                    }
+                }
+                if (match) {
+                    index = i;
                     break;
                 }
             }
-            if (match) {
-                return i;
-            }
+            probe.comparisons(comparisons);
+            return index;
         }
-        return -1;
     }
 
-    private int[] kmpTable(String target) {
+    static int[] kmpTable(CharSequence target) {
         int length = target.length();
         if (length < 2) {
             return new int[]{-1};
@@ -67,22 +97,499 @@ public class StringPatternMatching {
         if (len == 0 || targetLen == 0 || targetLen > len) {
             return -1;
         }
-        int[] table = kmpTable(target);
-        int m = 0;
+        try (Probe probe = Metrics.start("StringPatternMatching.kmpMatch")) {
+            if (cache != null) {
+                // 复用缓存中编译好的部分匹配表，只记录比较和回退的次数
+                return cache.get(target).indexIn(src, probe);
+            }
+            int[] table = kmpTable(target);
+            probe.tableBytes((long) table.length * Integer.BYTES);
+            int m = 0;
+            int i = 0;
+            int index = -1;
+            // 只在局部变量中计数，结束时一次性写入探针
+            long comparisons = 0;
+            long fallbacks = 0;
+            while (m < len) {
+                if (i < 0) {
+                    m++;
+                    i++;
+                } else if (src.charAt(m) == target.charAt(i)) {
+                    comparisons++;
+                    m++;
+                    i++;
+                } else {
+                    comparisons++;
+                    fallbacks++;
+                    i = table[i];
+                }
+                if (i == targetLen) {
+                    index = m - targetLen;
+                    break;
+                }
+            }
+            probe.comparisons(comparisons);
+            probe.fallbacks(fallbacks);
+            return index;
+        }
+    }
+
+    public int bmhMatch(String src, String target) {
+        // Boyer-Moore-Horspool算法，从模式串的末尾开始向前比较，
+        // 失配时根据窗口最后一个字符在模式串中最后出现的位置，一次跳过多个字符。
+        // 字符集较大、模式串较长时，大部分窗口只需比较一次就能跳过m个字符，平均时间复杂度O(n/m)。
+        // 跳转表按字符的低8位索引，冲突的字符取较小的跳转距离，仍然是安全的。
+        // 最坏时间复杂度O(nm)，空间复杂度O(1)
+        if (src == null || target == null) {
+            return -1;
+        }
+        int len = src.length();
+        int targetLen = target.length();
+        if (len == 0 || targetLen == 0 || targetLen > len) {
+            return -1;
+        }
+        int[] shift = new int[256];
+        Arrays.fill(shift, targetLen);
+        for (int j = 0; j < targetLen - 1; j++) {
+            shift[target.charAt(j) & 0xFF] = targetLen - 1 - j;
+        }
         int i = 0;
-        while (m < len) {
-            if (i < 0 || src.charAt(m) == target.charAt(i)) {
-                m++;
-                i++;
+        while (i <= len - targetLen) {
+            int j = targetLen - 1;
+            while (j >= 0 && src.charAt(i + j) == target.charAt(j)) {
+                j--;
+            }
+            if (j < 0) {
+                return i;
+            }
+            i += shift[src.charAt(i + targetLen - 1) & 0xFF];
+        }
+        return -1;
+    }
+
+    public int twoWayMatch(String src, String target) {
+        // Two-Way（Crochemore-Perrin）算法，将模式串在临界位置(critical position)分为左右两部分，
+        // 先从左到右比较右半部分，失配时按已匹配的长度跳转；再从右到左比较左半部分，失配时按模式串的周期跳转。
+        // 临界位置由模式串在两种字典序下的最大后缀求出，只需要常数个变量。
+        // 时间复杂度O(n+m)，空间复杂度O(1)
+        if (src == null || target == null) {
+            return -1;
+        }
+        int len = src.length();
+        int targetLen = target.length();
+        if (len == 0 || targetLen == 0 || targetLen > len) {
+            return -1;
+        }
+        // 临界位置ell，以及右半部分的周期period
+        int[] suffix = maximalSuffix(target, false);
+        int[] tildeSuffix = maximalSuffix(target, true);
+        int[] critical = suffix[0] > tildeSuffix[0] ? suffix : tildeSuffix;
+        int ell = critical[0];
+        int period = critical[1];
+        if (period + ell + 1 <= targetLen && target.regionMatches(0, target, period, ell + 1)) {
+            // 模式串是周期的，memory记录上一次匹配中已知与模式串前缀相同的长度，避免重复比较
+            int j = 0;
+            int memory = -1;
+            while (j <= len - targetLen) {
+                int i = Math.max(ell, memory) + 1;
+                while (i < targetLen && target.charAt(i) == src.charAt(i + j)) {
+                    i++;
+                }
+                if (i >= targetLen) {
+                    i = ell;
+                    while (i > memory && target.charAt(i) == src.charAt(i + j)) {
+                        i--;
+                    }
+                    if (i <= memory) {
+                        return j;
+                    }
+                    j += period;
+                    memory = targetLen - period - 1;
+                } else {
+                    j += i - ell;
+                    memory = -1;
+                }
+            }
+        } else {
+            // 模式串不是周期的，左半部分失配时可以跳过max(ell+1, m-ell-1)+1个字符
+            period = Math.max(ell + 1, targetLen - ell - 1) + 1;
+            int j = 0;
+            while (j <= len - targetLen) {
+                int i = ell + 1;
+                while (i < targetLen && target.charAt(i) == src.charAt(i + j)) {
+                    i++;
+                }
+                if (i >= targetLen) {
+                    i = ell;
+                    while (i >= 0 && target.charAt(i) == src.charAt(i + j)) {
+                        i--;
+                    }
+                    if (i < 0) {
+                        return j;
+                    }
+                    j += period;
+                } else {
+                    j += i - ell;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 计算模式串的最大后缀(按字典序，reverse为true时按相反的字典序)
+     *
+     * @return 长度为2的数组，[0]为最大后缀的起始下标-1，[1]为最大后缀的周期
+     */
+    private static int[] maximalSuffix(String target, boolean reverse) {
+        int targetLen = target.length();
+        int ms = -1;
+        int j = 0;
+        int k = 1;
+        int p = 1;
+        while (j + k < targetLen) {
+            char a = target.charAt(j + k);
+            char b = target.charAt(ms + k);
+            if (reverse ? a > b : a < b) {
+                j += k;
+                k = 1;
+                p = j - ms;
+            } else if (a == b) {
+                if (k != p) {
+                    k++;
+                } else {
+                    j += p;
+                    k = 1;
+                }
             } else {
-                i = table[i];
+                ms = j;
+                j = ms + 1;
+                k = 1;
+                p = 1;
             }
-            if (i == targetLen) {
-                return m - targetLen;
+        }
+        return new int[]{ms, p};
+    }
+
+    public int match(String src, String target) {
+        // 根据模式串的长度和字符集大小选择匹配算法，结果与kmpMatch相同
+        // 1. 模式串很短时，朴素算法的常数最小
+        // 2. 模式串中不同字符较多时(字符集大)，BMH算法的跳转距离大，平均是亚线性的
+        // 3. 字符集小并且模式串较长时(例如DNA序列)，BMH的跳转距离很小，
+        // 使用保证线性时间、常数空间的Two-Way算法；模式串不长时使用KMP算法
+        if (src == null || target == null) {
+            return -1;
+        }
+        int targetLen = target.length();
+        if (targetLen < 4) {
+            return bfMatch(src, target);
+        }
+        int distinct = distinctChars(target, 8);
+        if (distinct >= 8) {
+            return bmhMatch(src, target);
+        }
+        if (targetLen >= 32) {
+            return twoWayMatch(src, target);
+        }
+        return kmpMatch(src, target);
+    }
+
+    /**
+     * 统计模式串中不同字符的个数，达到limit时提前结束
+     */
+    private static int distinctChars(String target, int limit) {
+        char[] seen = new char[limit];
+        int count = 0;
+        for (int i = 0; i < target.length() && count < limit; i++) {
+            char ch = target.charAt(i);
+            boolean found = false;
+            for (int k = 0; k < count; k++) {
+                if (seen[k] == ch) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                seen[count++] = ch;
             }
         }
+        return count;
+    }
+
+    public int scanMatch(String src, String target) {
+        // 扫描版本的朴素匹配算法，匹配结果与bfMatch相同
+        // 1. 用String.indexOf(char)查找模式串第一个字符的候选位置，
+        // 2. 先比较窗口的最后一个字符，过滤掉大部分候选位置，
+        // 3. 再用String.regionMatches比较窗口的其余部分。
+        // String.indexOf(char)和regionMatches直接比较字符串内部的数组，不需要复制出char[]，
+        // 其中indexOf(char)是HotSpot的向量化内部函数(intrinsic)，一次可以比较多个字符。
+        // 最坏时间复杂度O(nm)，空间复杂度O(1)
+        if (src == null || target == null) {
+            return -1;
+        }
+        int len = src.length();
+        int targetLen = target.length();
+        if (len == 0 || targetLen == 0 || targetLen > len) {
+            return -1;
+        }
+        char first = target.charAt(0);
+        char last = target.charAt(targetLen - 1);
+        int end = len - targetLen;
+        int i = src.indexOf(first);
+        while (i >= 0 && i <= end) {
+            if (src.charAt(i + targetLen - 1) == last
+                    && (targetLen <= 2 || src.regionMatches(i + 1, target, 1, targetLen - 2))) {
+                return i;
+            }
+            i = src.indexOf(first, i + 1);
+        }
         return -1;
     }
 
+    public int bfMatch(CharSequence src, CharSequence target) {
+        // bfMatch的CharSequence版本，可以直接用于StringBuilder、CharBuffer等
+        if (src == null || target == null) {
+            return -1;
+        }
+        int len = src.length();
+        int targetLen = target.length();
+        if (len == 0 || targetLen == 0 || targetLen > len) {
+            return -1;
+        }
+        try (Probe probe = Metrics.start("StringPatternMatching.bfMatch")) {
+            int index = -1;
+            long comparisons = 0;
+            for (int i = 0; i < len - targetLen + 1; i++) {
+                int j = 0;
+                while (j < targetLen && src.charAt(i + j) == target.charAt(j)) {
+                    j++;
+                }
+                // 相同的j个字符，以及失配的那一次
+                comparisons += j == targetLen ? j : j + 1;
+                if (j == targetLen) {
+                    index = i;
+                    break;
+                }
+            }
+            probe.comparisons(comparisons);
+            return index;
+        }
+    }
+
+    public int bfMatch(byte[] src, int srcOffset, int srcLength, byte[] target, int targetOffset, int targetLength) {
+        // bfMatch的字节版本，直接比较字节，不需要先解码为字符串
+        // 返回值为相对于srcOffset的下标
+        Objects.checkFromIndexSize(srcOffset, srcLength, src.length);
+        Objects.checkFromIndexSize(targetOffset, targetLength, target.length);
+        if (srcLength == 0 || targetLength == 0 || targetLength > srcLength) {
+            return -1;
+        }
+        try (Probe probe = Metrics.start("StringPatternMatching.bfMatch")) {
+            int index = -1;
+            long comparisons = 0;
+            for (int i = 0; i < srcLength - targetLength + 1; i++) {
+                int j = 0;
+                while (j < targetLength && src[srcOffset + i + j] == target[targetOffset + j]) {
+                    j++;
+                }
+                comparisons += j == targetLength ? j : j + 1;
+                if (j == targetLength) {
+                    index = i;
+                    break;
+                }
+            }
+            probe.comparisons(comparisons);
+            return index;
+        }
+    }
+
+    public int bfMatch(ByteBuffer src, ByteBuffer target) {
+        // bfMatch的ByteBuffer版本，匹配position到limit之间的字节，不改变position
+        // 返回值为相对于src的position的下标
+        // 堆内的缓冲区直接访问其底层数组；直接缓冲区用绝对位置的get(int)逐个读取，不复制文本
+        byte[] pattern = Buffers.toArray(target);
+        if (src.hasArray()) {
+            return bfMatch(src.array(), src.arrayOffset() + src.position(), src.remaining(),
+                    pattern, 0, pattern.length);
+        }
+        int start = src.position();
+        int len = src.remaining();
+        int targetLen = pattern.length;
+        if (len == 0 || targetLen == 0 || targetLen > len) {
+            return -1;
+        }
+        try (Probe probe = Metrics.start("StringPatternMatching.bfMatch")) {
+            int index = -1;
+            long comparisons = 0;
+            for (int i = 0; i < len - targetLen + 1; i++) {
+                int j = 0;
+                while (j < targetLen && src.get(start + i + j) == pattern[j]) {
+                    j++;
+                }
+                comparisons += j == targetLen ? j : j + 1;
+                if (j == targetLen) {
+                    index = i;
+                    break;
+                }
+            }
+            probe.comparisons(comparisons);
+            return index;
+        }
+    }
+
+    public int kmpMatch(CharSequence src, CharSequence target) {
+        // kmpMatch的CharSequence版本，可以直接用于StringBuilder、CharBuffer等
+        if (src == null || target == null) {
+            return -1;
+        }
+        int len = src.length();
+        int targetLen = target.length();
+        if (len == 0 || targetLen == 0 || targetLen > len) {
+            return -1;
+        }
+        try (Probe probe = Metrics.start("StringPatternMatching.kmpMatch")) {
+            int[] table = kmpTable(target);
+            probe.tableBytes((long) table.length * Integer.BYTES);
+            int m = 0;
+            int i = 0;
+            int index = -1;
+            long comparisons = 0;
+            long fallbacks = 0;
+            while (m < len) {
+                if (i < 0) {
+                    m++;
+                    i++;
+                } else if (src.charAt(m) == target.charAt(i)) {
+                    comparisons++;
+                    m++;
+                    i++;
+                } else {
+                    comparisons++;
+                    fallbacks++;
+                    i = table[i];
+                }
+                if (i == targetLen) {
+                    index = m - targetLen;
+                    break;
+                }
+            }
+            probe.comparisons(comparisons);
+            probe.fallbacks(fallbacks);
+            return index;
+        }
+    }
+
+    public int kmpMatch(byte[] src, int srcOffset, int srcLength, byte[] target, int targetOffset, int targetLength) {
+        // kmpMatch的字节版本，直接比较字节，不需要先解码为字符串
+        // 返回值为相对于srcOffset的下标
+        Objects.checkFromIndexSize(srcOffset, srcLength, src.length);
+        Objects.checkFromIndexSize(targetOffset, targetLength, target.length);
+        if (srcLength == 0 || targetLength == 0 || targetLength > srcLength) {
+            return -1;
+        }
+        try (Probe probe = Metrics.start("StringPatternMatching.kmpMatch")) {
+            int[] table = kmpTable(target, targetOffset, targetLength);
+            probe.tableBytes((long) table.length * Integer.BYTES);
+            int m = 0;
+            int i = 0;
+            int index = -1;
+            long comparisons = 0;
+            long fallbacks = 0;
+            while (m < srcLength) {
+                if (i < 0) {
+                    m++;
+                    i++;
+                } else if (src[srcOffset + m] == target[targetOffset + i]) {
+                    comparisons++;
+                    m++;
+                    i++;
+                } else {
+                    comparisons++;
+                    fallbacks++;
+                    i = table[i];
+                }
+                if (i == targetLength) {
+                    index = m - targetLength;
+                    break;
+                }
+            }
+            probe.comparisons(comparisons);
+            probe.fallbacks(fallbacks);
+            return index;
+        }
+    }
+
+    public int kmpMatch(ByteBuffer src, ByteBuffer target) {
+        // kmpMatch的ByteBuffer版本，匹配position到limit之间的字节，不改变position
+        // 返回值为相对于src的position的下标
+        // 堆内的缓冲区直接访问其底层数组；直接缓冲区用绝对位置的get(int)逐个读取，不复制文本
+        byte[] pattern = Buffers.toArray(target);
+        if (src.hasArray()) {
+            return kmpMatch(src.array(), src.arrayOffset() + src.position(), src.remaining(),
+                    pattern, 0, pattern.length);
+        }
+        int start = src.position();
+        int len = src.remaining();
+        int targetLen = pattern.length;
+        if (len == 0 || targetLen == 0 || targetLen > len) {
+            return -1;
+        }
+        try (Probe probe = Metrics.start("StringPatternMatching.kmpMatch")) {
+            int[] table = kmpTable(pattern, 0, targetLen);
+            probe.tableBytes((long) table.length * Integer.BYTES);
+            int m = 0;
+            int i = 0;
+            int index = -1;
+            long comparisons = 0;
+            long fallbacks = 0;
+            while (m < len) {
+                if (i < 0) {
+                    m++;
+                    i++;
+                } else if (src.get(start + m) == pattern[i]) {
+                    comparisons++;
+                    m++;
+                    i++;
+                } else {
+                    comparisons++;
+                    fallbacks++;
+                    i = table[i];
+                }
+                if (i == targetLen) {
+                    index = m - targetLen;
+                    break;
+                }
+            }
+            probe.comparisons(comparisons);
+            probe.fallbacks(fallbacks);
+            return index;
+        }
+    }
 
+    /**
+     * 字节版本的部分匹配表，与{@link #kmpTable(CharSequence)}相同
+     */
+    static int[] kmpTable(byte[] target, int offset, int length) {
+        if (length < 2) {
+            return new int[]{-1};
+        }
+        int[] table = new int[length];
+        int cnt = 0;
+        int pos = 2;
+        table[0] = -1;
+        table[1] = 0;
+        while (pos < length) {
+            if (target[offset + pos - 1] == target[offset + cnt]) {
+                cnt++;
+                table[pos] = cnt;
+                pos++;
+            } else if (cnt > 0) {
+                cnt = table[cnt];
+            } else {
+                table[pos] = 0;
+                pos++;
+            }
+        }
+        return table;
+    }
 }
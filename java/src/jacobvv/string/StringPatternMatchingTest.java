@@ -2,6 +2,10 @@ package jacobvv.string;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class StringPatternMatchingTest {
@@ -33,4 +37,99 @@ class StringPatternMatchingTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    void charSequenceMatchTest() {
+        StringPatternMatching target = new StringPatternMatching();
+        for (int i = 0; i < inputs.length; i++) {
+            StringBuilder src = inputs[i][0] == null ? null : new StringBuilder(inputs[i][0]);
+            StringBuilder pattern = inputs[i][1] == null ? null : new StringBuilder(inputs[i][1]);
+            assertEquals(outputs[i], target.bfMatch(src, pattern));
+            assertEquals(outputs[i], target.kmpMatch(src, pattern));
+        }
+    }
+
+    @Test
+    void byteMatchTest() {
+        StringPatternMatching target = new StringPatternMatching();
+        for (int i = 0; i < inputs.length; i++) {
+            if (inputs[i][0] == null) {
+                continue;
+            }
+            // 前后各加一个字节，检查offset和length
+            byte[] src = ("#" + inputs[i][0] + "#").getBytes(StandardCharsets.UTF_8);
+            byte[] pattern = ("$" + inputs[i][1] + "$").getBytes(StandardCharsets.UTF_8);
+            int srcLen = src.length - 2;
+            int patternLen = pattern.length - 2;
+            assertEquals(outputs[i], target.bfMatch(src, 1, srcLen, pattern, 1, patternLen));
+            assertEquals(outputs[i], target.kmpMatch(src, 1, srcLen, pattern, 1, patternLen));
+            ByteBuffer heap = ByteBuffer.wrap(src, 1, srcLen);
+            ByteBuffer direct = ByteBuffer.allocateDirect(src.length);
+            direct.put(src).position(1).limit(1 + srcLen);
+            ByteBuffer targetBuffer = ByteBuffer.wrap(pattern, 1, patternLen);
+            assertEquals(outputs[i], target.bfMatch(heap, targetBuffer));
+            assertEquals(outputs[i], target.kmpMatch(heap, targetBuffer));
+            assertEquals(outputs[i], target.bfMatch(direct, targetBuffer));
+            assertEquals(outputs[i], target.kmpMatch(direct, targetBuffer));
+            // 不改变position
+            assertEquals(1, heap.position());
+            assertEquals(1, direct.position());
+        }
+    }
+
+    @Test
+    void bmhMatchTest() {
+        StringPatternMatching target = new StringPatternMatching();
+        for (int i = 0; i < inputs.length; i++) {
+            assertEquals(outputs[i], target.bmhMatch(inputs[i][0], inputs[i][1]));
+        }
+    }
+
+    @Test
+    void twoWayMatchTest() {
+        StringPatternMatching target = new StringPatternMatching();
+        for (int i = 0; i < inputs.length; i++) {
+            assertEquals(outputs[i], target.twoWayMatch(inputs[i][0], inputs[i][1]));
+        }
+    }
+
+    @Test
+    void scanMatchTest() {
+        StringPatternMatching target = new StringPatternMatching();
+        for (int i = 0; i < inputs.length; i++) {
+            assertEquals(outputs[i], target.scanMatch(inputs[i][0], inputs[i][1]));
+        }
+    }
+
+    @Test
+    void matchTest() {
+        StringPatternMatching target = new StringPatternMatching();
+        for (int i = 0; i < inputs.length; i++) {
+            assertEquals(outputs[i], target.match(inputs[i][0], inputs[i][1]));
+        }
+        // 不同长度和字符集的模式串，结果都应与kmpMatch相同
+        Random random = new Random(13);
+        for (int n = 0; n < 500; n++) {
+            int alphabet = 1 + random.nextInt(20);
+            String src = randomString(random, random.nextInt(300), alphabet);
+            String pattern = randomString(random, 1 + random.nextInt(40), alphabet);
+            if (random.nextBoolean() && pattern.length() < src.length()) {
+                int from = random.nextInt(src.length() - pattern.length());
+                pattern = src.substring(from, from + pattern.length());
+            }
+            int expected = target.kmpMatch(src, pattern);
+            assertEquals(expected, target.bmhMatch(src, pattern), src + ", " + pattern);
+            assertEquals(expected, target.twoWayMatch(src, pattern), src + ", " + pattern);
+            assertEquals(expected, target.match(src, pattern), src + ", " + pattern);
+            assertEquals(expected, target.scanMatch(src, pattern), src + ", " + pattern);
+        }
+    }
+
+    private static String randomString(Random random, int len, int alphabet) {
+        StringBuilder sb = new StringBuilder(len);
+        for (int i = 0; i < len; i++) {
+            sb.append((char) ('a' + random.nextInt(alphabet)));
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,264 @@
+package jacobvv.string;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 最长公共子串的查找结果
+ * 动态规划每遇到一个不短于当前最大长度的公共子串，都要截取子串并放入HashSet去重，
+ * 对于重复的输入会产生大量短命的String。
+ * 这里只记录公共子串在字符串X中的起始下标(所有结果的长度相同)，保存在可复用的int[]中，
+ * 去重时用X的前缀哈希在O(1)时间内计算子串的哈希值，哈希值相同时才逐个字符比较。
+ * 只有调用{@link #get(int)}或{@link #toList()}时才创建String。
+ * 字节版本的查找也使用同样的方式记录结果，最后才复制出byte[]。
+ * <p>
+ * 同一个对象可以在多次查找中复用，内部的数组只会增长，不会重新分配；对象不是线程安全的。
+ */
+public final class SubstringMatches {
+
+    /**
+     * 多项式哈希的基数，按2^64取模
+     */
+    private static final long BASE = 0x100000001B3L;
+
+    private CharSequence source;
+    /**
+     * 字节版本的查找中，公共子串所在的字节数组X为bytes[bytesOffset, bytesOffset + m)，否则为null
+     */
+    private byte[] bytes;
+    private int bytesOffset;
+    private int length;
+    private int size;
+    private int[] offsets = new int[16];
+    /**
+     * prefix[i]为source[0, i)的多项式哈希值
+     */
+    private long[] prefix = new long[0];
+    /**
+     * BASE的length次方
+     */
+    private long power;
+    /**
+     * 开放寻址哈希表，slots[h]为结果的下标+1，0表示空
+     */
+    private int[] slots = new int[32];
+    private long[] hashes = new long[16];
+
+    /**
+     * 开始一次新的查找，清空之前的结果
+     *
+     * @param source 公共子串所在的字符串X
+     */
+    void reset(CharSequence source) {
+        this.source = source;
+        this.bytes = null;
+        resetPrefix(source == null ? 0 : source.length());
+    }
+
+    /**
+     * 开始一次新的字节版本的查找，清空之前的结果，下标为相对于offset的下标
+     *
+     * @param bytes  公共子串所在的字节数组X
+     * @param offset X的起始下标
+     * @param length X的长度
+     */
+    void reset(byte[] bytes, int offset, int length) {
+        this.source = null;
+        this.bytes = bytes;
+        this.bytesOffset = offset;
+        resetPrefix(length);
+    }
+
+    private void resetPrefix(int n) {
+        length = 0;
+        power = 1;
+        clear();
+        if (prefix.length < n + 1) {
+            prefix = new long[n + 1];
+        }
+        long hash = 0;
+        for (int i = 0; i < n; i++) {
+            hash = hash * BASE + at(i);
+            prefix[i + 1] = hash;
+        }
+    }
+
+    /**
+     * @return X中下标为i的字符，字节版本为无符号的字节值
+     */
+    private int at(int i) {
+        return bytes != null ? bytes[bytesOffset + i] & 0xFF : source.charAt(i);
+    }
+
+    /**
+     * 提交一个公共子串source[offset, offset + length)
+     * 比当前结果长则清空当前结果，比当前结果短则忽略，长度相同并且内容不重复则加入结果
+     *
+     * @param offset 公共子串在X中的起始下标
+     * @param length 公共子串的长度
+     */
+    void offer(int offset, int length) {
+        if (length < this.length || length <= 0) {
+            return;
+        }
+        if (length > this.length) {
+            // 动态规划中最大长度通常每次只增加1，所以从上一个长度的次方增量计算
+            power *= pow(length - this.length);
+            this.length = length;
+            clear();
+        }
+        long hash = prefix[offset + length] - prefix[offset] * power;
+        int mask = slots.length - 1;
+        int h = mix(hash) & mask;
+        int slot;
+        while ((slot = slots[h]) != 0) {
+            int index = slot - 1;
+            if (hashes[index] == hash && regionEquals(offsets[index], offset, length)) {
+                return;
+            }
+            h = (h + 1) & mask;
+        }
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        offsets[size] = offset;
+        hashes[size] = hash;
+        slots[h] = ++size;
+        // 装载因子不超过1/2
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+    }
+
+    private void clear() {
+        if (size > 0) {
+            Arrays.fill(slots, 0);
+            size = 0;
+        }
+    }
+
+    /**
+     * 快速幂计算BASE的e次方
+     */
+    private static long pow(int e) {
+        long result = 1;
+        long b = BASE;
+        while (e > 0) {
+            if ((e & 1) != 0) {
+                result *= b;
+            }
+            b *= b;
+            e >>>= 1;
+        }
+        return result;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int index = 0; index < size; index++) {
+            int h = mix(hashes[index]) & mask;
+            while (slots[h] != 0) {
+                h = (h + 1) & mask;
+            }
+            slots[h] = index + 1;
+        }
+    }
+
+    private boolean regionEquals(int a, int b, int length) {
+        for (int i = 0; i < length; i++) {
+            if (at(a + i) != at(b + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int mix(long hash) {
+        long h = hash * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * @return 不同的最长公共子串的个数
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return 最长公共子串的长度，无则返回0
+     */
+    public int length() {
+        return size == 0 ? 0 : length;
+    }
+
+    /**
+     * @param index 结果的下标
+     * @return 第index个最长公共子串在X中的起始下标(X中第一次被找到的位置)
+     */
+    public int offset(int index) {
+        checkIndex(index);
+        return offsets[index];
+    }
+
+    /**
+     * @param index 结果的下标
+     * @return 第index个最长公共子串
+     */
+    public String get(int index) {
+        checkIndex(index);
+        if (bytes != null) {
+            throw new IllegalStateException("Matches of a byte search, use getBytes");
+        }
+        int offset = offsets[index];
+        return source.subSequence(offset, offset + length).toString();
+    }
+
+    /**
+     * @param index 结果的下标
+     * @return 字节版本的查找中，第index个最长公共子串的副本
+     */
+    public byte[] getBytes(int index) {
+        checkIndex(index);
+        if (bytes == null) {
+            throw new IllegalStateException("Matches of a char search, use get");
+        }
+        int from = bytesOffset + offsets[index];
+        return Arrays.copyOfRange(bytes, from, from + length);
+    }
+
+    /**
+     * @return 所有最长公共子串，按被找到的顺序排列
+     */
+    public List<String> toList() {
+        ArrayList<String> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(get(i));
+        }
+        return result;
+    }
+
+    /**
+     * @return 字节版本的查找中的所有最长公共子串，按被找到的顺序排列
+     */
+    List<byte[]> toByteList() {
+        ArrayList<byte[]> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(getBytes(i));
+        }
+        return result;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
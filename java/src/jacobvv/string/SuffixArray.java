@@ -0,0 +1,190 @@
+package jacobvv.string;
+
+import java.util.Arrays;
+
+/**
+ * 后缀数组(Suffix Array)以及最长公共前缀数组(LCP Array)
+ * 对于长度为n的序列S，将其所有后缀按字典序排序，排序后每个后缀的起始下标组成的数组即为后缀数组SA。
+ * 排序后相邻两个后缀的最长公共前缀长度组成的数组即为LCP数组。
+ * <p>
+ * 与后缀树相比，后缀数组只需要若干个int[]，没有节点对象，内存占用更小，更适合大规模输入。
+ */
+public class SuffixArray {
+
+    /**
+     * 使用SA-IS(Induced Sorting)算法构建后缀数组
+     * 1. 将每个后缀分为S型(比后一个后缀小)和L型(比后一个后缀大)，
+     * 左边为L型的S型后缀称为LMS后缀。
+     * 2. 先将LMS后缀放入各自字符桶的末尾，然后从左到右诱导出L型后缀的顺序，
+     * 再从右到左诱导出S型后缀的顺序。
+     * 3. 若LMS子串之间存在相同的情况，则将LMS子串重命名为更短的序列，递归求解其后缀数组，
+     * 得到LMS后缀的正确顺序后，再诱导一次即可得到最终的后缀数组。
+     * 每一层递归的规模至多为上一层的一半。
+     * <p>
+     * 时间复杂度O(n)，空间复杂度O(n)
+     *
+     * @param s     序列，每个元素的取值范围为[0, upper]
+     * @param upper 元素取值的上界
+     * @return 后缀数组，sa[i]为排名第i的后缀的起始下标
+     */
+    public static int[] build(int[] s, int upper) {
+        int n = s.length;
+        if (n == 0) {
+            return new int[0];
+        }
+        if (n == 1) {
+            return new int[]{0};
+        }
+        if (n == 2) {
+            return s[0] < s[1] ? new int[]{0, 1} : new int[]{1, 0};
+        }
+        int[] sa = new int[n];
+        // ls[i]为true表示后缀i为S型
+        boolean[] ls = new boolean[n];
+        for (int i = n - 2; i >= 0; i--) {
+            ls[i] = s[i] == s[i + 1] ? ls[i + 1] : s[i] < s[i + 1];
+        }
+        // sumL[c]为字符c的桶中L型区域的起点，sumS[c]为字符c的桶中S型区域的起点
+        int[] sumL = new int[upper + 1];
+        int[] sumS = new int[upper + 1];
+        for (int i = 0; i < n; i++) {
+            if (!ls[i]) {
+                sumS[s[i]]++;
+            } else {
+                sumL[s[i] + 1]++;
+            }
+        }
+        for (int i = 0; i <= upper; i++) {
+            sumS[i] += sumL[i];
+            if (i < upper) {
+                sumL[i + 1] += sumS[i];
+            }
+        }
+        // 找出所有的LMS后缀
+        int[] lmsMap = new int[n + 1];
+        Arrays.fill(lmsMap, -1);
+        int m = 0;
+        for (int i = 1; i < n; i++) {
+            if (!ls[i - 1] && ls[i]) {
+                lmsMap[i] = m++;
+            }
+        }
+        int[] lms = new int[m];
+        for (int i = 1, k = 0; i < n; i++) {
+            if (!ls[i - 1] && ls[i]) {
+                lms[k++] = i;
+            }
+        }
+        induce(s, sa, ls, sumL, sumS, lms);
+        if (m > 0) {
+            // 按照诱导后的顺序取出LMS后缀，并对LMS子串重命名
+            int[] sortedLms = new int[m];
+            int k = 0;
+            for (int v : sa) {
+                if (lmsMap[v] != -1) {
+                    sortedLms[k++] = v;
+                }
+            }
+            int[] recS = new int[m];
+            int recUpper = 0;
+            recS[lmsMap[sortedLms[0]]] = 0;
+            for (int i = 1; i < m; i++) {
+                int l = sortedLms[i - 1];
+                int r = sortedLms[i];
+                int endL = lmsMap[l] + 1 < m ? lms[lmsMap[l] + 1] : n;
+                int endR = lmsMap[r] + 1 < m ? lms[lmsMap[r] + 1] : n;
+                boolean same = true;
+                if (endL - l != endR - r) {
+                    same = false;
+                } else {
+                    while (l < endL && s[l] == s[r]) {
+                        l++;
+                        r++;
+                    }
+                    if (l == n || s[l] != s[r]) {
+                        same = false;
+                    }
+                }
+                if (!same) {
+                    recUpper++;
+                }
+                recS[lmsMap[sortedLms[i]]] = recUpper;
+            }
+            // 递归求解LMS后缀的顺序
+            int[] recSa = build(recS, recUpper);
+            for (int i = 0; i < m; i++) {
+                sortedLms[i] = lms[recSa[i]];
+            }
+            induce(s, sa, ls, sumL, sumS, sortedLms);
+        }
+        return sa;
+    }
+
+    /**
+     * 诱导排序：根据LMS后缀的顺序，诱导出L型后缀和S型后缀的顺序
+     */
+    private static void induce(int[] s, int[] sa, boolean[] ls, int[] sumL, int[] sumS, int[] lms) {
+        int n = s.length;
+        Arrays.fill(sa, -1);
+        int[] buf = sumS.clone();
+        for (int d : lms) {
+            if (d != n) {
+                sa[buf[s[d]]++] = d;
+            }
+        }
+        buf = sumL.clone();
+        sa[buf[s[n - 1]]++] = n - 1;
+        for (int i = 0; i < n; i++) {
+            int v = sa[i];
+            if (v >= 1 && !ls[v - 1]) {
+                sa[buf[s[v - 1]]++] = v - 1;
+            }
+        }
+        buf = sumL.clone();
+        for (int i = n - 1; i >= 0; i--) {
+            int v = sa[i];
+            if (v >= 1 && ls[v - 1]) {
+                sa[--buf[s[v - 1] + 1]] = v - 1;
+            }
+        }
+    }
+
+    /**
+     * 使用Kasai算法构建LCP数组
+     * 若后缀i与其排名前一位的后缀的最长公共前缀为h，
+     * 那么后缀i+1与其排名前一位的后缀的最长公共前缀至少为h-1，
+     * 所以按照原序列的顺序计算，h总共最多增加2n次。
+     * <p>
+     * 时间复杂度O(n)，空间复杂度O(n)
+     *
+     * @param s  序列
+     * @param sa 序列的后缀数组
+     * @return LCP数组，lcp[i]为后缀sa[i]和后缀sa[i+1]的最长公共前缀长度
+     */
+    public static int[] lcp(int[] s, int[] sa) {
+        int n = s.length;
+        if (n == 0) {
+            return new int[0];
+        }
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            rank[sa[i]] = i;
+        }
+        int[] lcp = new int[n - 1];
+        int h = 0;
+        for (int i = 0; i < n; i++) {
+            if (h > 0) {
+                h--;
+            }
+            if (rank[i] == 0) {
+                continue;
+            }
+            int j = sa[rank[i] - 1];
+            while (j + h < n && i + h < n && s[j + h] == s[i + h]) {
+                h++;
+            }
+            lcp[rank[i] - 1] = h;
+        }
+        return lcp;
+    }
+}
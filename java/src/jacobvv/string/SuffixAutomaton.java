@@ -0,0 +1,304 @@
+package jacobvv.string;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 后缀自动机(Suffix Automaton)
+ * 对一个固定的语料库构建一次索引，之后可以反复查询任意字符串与语料库的最长公共子串。
+ * <p>
+ * 后缀自动机是识别语料库所有子串的最小确定性自动机，状态数不超过2n-1，转移数不超过3n-4。
+ * 每个状态对应一组在语料库中结束位置集合相同的子串，len[s]为其中最长子串的长度，
+ * 后缀链接link[s]指向最长的、结束位置集合不同的后缀所在的状态。
+ * 构建时依次添加语料库的每个字符，均摊O(1)。
+ * <p>
+ * 查询时在自动机上逐个读入查询串的字符，同时维护当前匹配的长度l：
+ * 有转移则沿转移前进并l+1，否则沿后缀链接回退直到有转移(l变为回退到的状态的len)。
+ * 查询串每个位置的l即为以该位置结尾、同时在语料库中出现的最长子串的长度，
+ * 所以扫描一遍查询串即可得到所有最长公共子串。
+ * <p>
+ * 转移保存在以(状态, 字符)为键的开放寻址哈希表中，每次查找的期望时间为O(1)，与语料库的大小无关；
+ * 每个状态另有一个转移链表，只在构建时复制状态(clone)用到。
+ * <p>
+ * 构建完成后的自动机是不可变的，可以被多个线程同时查询。
+ * <p>
+ * 构建的时间复杂度O(n)，空间复杂度O(n)；每次查询的时间复杂度O(|query|)
+ */
+public class SuffixAutomaton {
+
+    private static final int NONE = -1;
+
+    private final int corpusLength;
+    /**
+     * len[s]为状态s中最长子串的长度
+     */
+    private final int[] len;
+    /**
+     * link[s]为状态s的后缀链接，初始状态为NONE
+     */
+    private final int[] link;
+    /**
+     * 转移e为状态edgeFrom[e]读入字符edgeChar[e]后到达状态edgeTarget[e]
+     */
+    private final int[] edgeFrom;
+    private final char[] edgeChar;
+    private final int[] edgeTarget;
+    /**
+     * 开放寻址哈希表，slots[h]为转移的下标+1，0表示空
+     */
+    private final int[] slots;
+
+    /**
+     * 为语料库构建后缀自动机
+     *
+     * @param corpus 语料库
+     */
+    public SuffixAutomaton(CharSequence corpus) {
+        Objects.requireNonNull(corpus, "corpus");
+        corpusLength = corpus.length();
+        Builder builder = new Builder(corpusLength);
+        int last = 0;
+        for (int i = 0; i < corpusLength; i++) {
+            last = builder.extend(last, corpus.charAt(i));
+        }
+        len = Arrays.copyOf(builder.len, builder.states);
+        link = Arrays.copyOf(builder.link, builder.states);
+        edgeFrom = Arrays.copyOf(builder.edgeFrom, builder.edges);
+        edgeChar = Arrays.copyOf(builder.edgeChar, builder.edges);
+        edgeTarget = Arrays.copyOf(builder.edgeTarget, builder.edges);
+        slots = builder.slots;
+    }
+
+    /**
+     * 构建过程中的可变状态
+     */
+    private static class Builder {
+        private final int[] len;
+        private final int[] link;
+        /**
+         * 每个状态的转移链表，edgeHead[s]为第一条转移，edgeNext[e]为下一条转移
+         */
+        private final int[] edgeHead;
+        private final int[] edgeNext;
+        private final int[] edgeFrom;
+        private final char[] edgeChar;
+        private final int[] edgeTarget;
+        private final int[] slots;
+        private int states;
+        private int edges;
+
+        Builder(int n) {
+            // 状态数不超过2n-1，转移数不超过3n-4
+            int maxStates = Math.max(2, 2 * n);
+            int maxEdges = Math.max(4, 3 * n);
+            len = new int[maxStates];
+            link = new int[maxStates];
+            edgeHead = new int[maxStates];
+            edgeNext = new int[maxEdges];
+            edgeFrom = new int[maxEdges];
+            edgeChar = new char[maxEdges];
+            edgeTarget = new int[maxEdges];
+            // 装载因子不超过1/2
+            slots = new int[Integer.highestOneBit(maxEdges) << 2];
+            // 状态0为初始状态，对应空串
+            newState(0);
+        }
+
+        /**
+         * 添加一个字符
+         *
+         * @param last 添加前整个语料库前缀所在的状态
+         * @return 添加后整个语料库前缀所在的状态
+         */
+        int extend(int last, char c) {
+            int cur = newState(len[last] + 1);
+            int p = last;
+            while (p != NONE && target(p, c) == NONE) {
+                addEdge(p, c, cur);
+                p = link[p];
+            }
+            if (p == NONE) {
+                link[cur] = 0;
+                return cur;
+            }
+            int q = target(p, c);
+            if (len[p] + 1 == len[q]) {
+                link[cur] = q;
+                return cur;
+            }
+            // 复制q，使len[clone] = len[p] + 1
+            int clone = newState(len[p] + 1);
+            for (int e = edgeHead[q]; e != NONE; e = edgeNext[e]) {
+                addEdge(clone, edgeChar[e], edgeTarget[e]);
+            }
+            link[clone] = link[q];
+            while (p != NONE && target(p, c) == q) {
+                edgeTarget[findEdge(slots, edgeFrom, edgeChar, p, c)] = clone;
+                p = link[p];
+            }
+            link[q] = clone;
+            link[cur] = clone;
+            return cur;
+        }
+
+        private int newState(int length) {
+            int s = states++;
+            len[s] = length;
+            link[s] = NONE;
+            edgeHead[s] = NONE;
+            return s;
+        }
+
+        private void addEdge(int from, char c, int to) {
+            int e = edges++;
+            edgeFrom[e] = from;
+            edgeChar[e] = c;
+            edgeTarget[e] = to;
+            edgeNext[e] = edgeHead[from];
+            edgeHead[from] = e;
+            int mask = slots.length - 1;
+            int h = hash(from, c) & mask;
+            while (slots[h] != 0) {
+                h = (h + 1) & mask;
+            }
+            slots[h] = e + 1;
+        }
+
+        private int target(int s, char c) {
+            int e = findEdge(slots, edgeFrom, edgeChar, s, c);
+            return e == NONE ? NONE : edgeTarget[e];
+        }
+    }
+
+    /**
+     * @return 状态s读入字符c的转移的下标，没有则返回NONE
+     */
+    private static int findEdge(int[] slots, int[] edgeFrom, char[] edgeChar, int s, char c) {
+        int mask = slots.length - 1;
+        int h = hash(s, c) & mask;
+        int slot;
+        while ((slot = slots[h]) != 0) {
+            int e = slot - 1;
+            if (edgeFrom[e] == s && edgeChar[e] == c) {
+                return e;
+            }
+            h = (h + 1) & mask;
+        }
+        return NONE;
+    }
+
+    /**
+     * @return 状态s读入字符c后的状态，没有则返回NONE
+     */
+    private int target(int s, char c) {
+        int e = findEdge(slots, edgeFrom, edgeChar, s, c);
+        return e == NONE ? NONE : edgeTarget[e];
+    }
+
+    private static int hash(int s, char c) {
+        int h = s * 0x9E3779B9 + c;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return 语料库的长度
+     */
+    public int corpusLength() {
+        return corpusLength;
+    }
+
+    /**
+     * @return 自动机的状态数
+     */
+    public int stateCount() {
+        return len.length;
+    }
+
+    /**
+     * 判断字符串是否是语料库的子串
+     *
+     * @param s 字符串
+     * @return 是否是语料库的子串，空串总是返回true
+     */
+    public boolean contains(CharSequence s) {
+        int state = 0;
+        for (int i = 0; i < s.length() && state != NONE; i++) {
+            state = target(state, s.charAt(i));
+        }
+        return state != NONE;
+    }
+
+    /**
+     * 查询字符串与语料库的最长公共子串
+     *
+     * @param query 查询串
+     * @return 查询串和语料库的最长公共子串集合，无则返回空集合
+     */
+    public List<String> longestCommonSubstrings(String query) {
+        ArrayList<String> result = new ArrayList<>();
+        if (query == null || query.isEmpty()) {
+            return result;
+        }
+        Set<String> resultSet = new HashSet<>();
+        int state = 0;
+        int length = 0;
+        int maxLen = 0;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            int next = target(state, c);
+            while (next == NONE && state != 0) {
+                state = link[state];
+                length = len[state];
+                next = target(state, c);
+            }
+            if (next == NONE) {
+                continue;
+            }
+            state = next;
+            length++;
+            if (length >= maxLen) {
+                if (length != maxLen) {
+                    resultSet.clear();
+                    maxLen = length;
+                }
+                resultSet.add(query.substring(i - length + 1, i + 1));
+            }
+        }
+        result.addAll(resultSet);
+        return result;
+    }
+
+    /**
+     * 查询字符串与语料库的最长公共子串的长度
+     *
+     * @param query 查询串
+     * @return 最长公共子串的长度
+     */
+    public int longestCommonSubstringLength(CharSequence query) {
+        int state = 0;
+        int length = 0;
+        int maxLen = 0;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            int next = target(state, c);
+            while (next == NONE && state != 0) {
+                state = link[state];
+                length = len[state];
+                next = target(state, c);
+            }
+            if (next == NONE) {
+                continue;
+            }
+            state = next;
+            length++;
+            if (length > maxLen) {
+                maxLen = length;
+            }
+        }
+        return maxLen;
+    }
+}
@@ -0,0 +1,56 @@
+package jacobvv.string;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuffixAutomatonTest {
+
+    @Test
+    void containsTest() {
+        String corpus = "abcbcabbca";
+        SuffixAutomaton target = new SuffixAutomaton(corpus);
+        for (int i = 0; i <= corpus.length(); i++) {
+            for (int j = i; j <= corpus.length(); j++) {
+                assertTrue(target.contains(corpus.substring(i, j)));
+            }
+        }
+        assertFalse(target.contains("aa"));
+        assertFalse(target.contains("abcbcabbcab"));
+        assertFalse(target.contains("d"));
+        assertTrue(new SuffixAutomaton("").contains(""));
+        // 状态数不超过2n-1
+        assertTrue(target.stateCount() <= 2 * corpus.length() - 1);
+    }
+
+    @Test
+    void queryManyTest() {
+        // 同一个索引反复查询，结果应与每次重新计算的动态规划相同
+        Random random = new Random(29);
+        String corpus = randomString(random, 2000, 4);
+        SuffixAutomaton target = new SuffixAutomaton(corpus);
+        LongestCommonSubstring expected = new LongestCommonSubstring();
+        for (int n = 0; n < 50; n++) {
+            String query = randomString(random, 1 + random.nextInt(40), 5);
+            List<String> result = target.longestCommonSubstrings(query);
+            List<String> dp = expected.findAllByDp(corpus, query);
+            result.sort(null);
+            dp.sort(null);
+            assertIterableEquals(dp, result, query);
+            assertEquals(dp.isEmpty() ? 0 : dp.get(0).length(), target.longestCommonSubstringLength(query));
+        }
+        assertEquals(Arrays.asList("java"), new SuffixAutomaton("hello java").longestCommonSubstrings("java"));
+    }
+
+    private static String randomString(Random random, int len, int alphabet) {
+        StringBuilder sb = new StringBuilder(len);
+        for (int i = 0; i < len; i++) {
+            sb.append((char) ('a' + random.nextInt(alphabet)));
+        }
+        return sb.toString();
+    }
+}
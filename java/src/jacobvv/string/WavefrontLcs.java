@@ -0,0 +1,200 @@
+package jacobvv.string;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * LCS动态规划的并行波前(wavefront)计算
+ * c[i,j]只依赖于c[i-1,j-1]、c[i-1,j]和c[i,j-1]，所以同一条反对角线上的单元格互不依赖。
+ * 将记录表划分为若干个tileSize * tileSize的块，块(bi,bj)只依赖于上方和左方的块，
+ * 那么同一条反对角线bi+bj=d上的块可以并行计算，每条反对角线计算完成后再计算下一条。
+ * <p>
+ * 完整模式下计算出的记录表与{@link LongestCommonSubsequence}中的完全相同，回溯得到的LCS也相同。
+ * 只需要长度时，每个块只需要上边界(上方块的最后一行)和左边界(左方块的最后一列)，
+ * 计算完成后再写出自己的下边界和右边界，所以只需要保存一行和一列的边界。
+ * <p>
+ * 时间复杂度O(mn/p)，p为并行度；完整模式空间复杂度O(mn)，长度模式空间复杂度O(m+n)
+ */
+public class WavefrontLcs {
+
+    public static final int DEFAULT_TILE_SIZE = 512;
+
+    private final ForkJoinPool pool;
+    private final int tileSize;
+
+    public WavefrontLcs() {
+        this(ForkJoinPool.commonPool(), DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * @param pool     用于并行计算的线程池
+     * @param tileSize 块的边长
+     */
+    public WavefrontLcs(ForkJoinPool pool, int tileSize) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("tileSize must be positive: " + tileSize);
+        }
+        this.pool = pool;
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * 并行计算完整的记录表
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     * @return 记录表c，c[i][j]为X的前缀Xi与Y的前缀Yj的LCS长度
+     */
+    public int[][] calc(String x, String y) {
+        char[] cx = x.toCharArray();
+        char[] cy = y.toCharArray();
+        int[][] c = new int[cx.length + 1][cy.length + 1];
+        wavefront(cx.length, cy.length, (bi, bj) -> new RecursiveAction() {
+            @Override
+            protected void compute() {
+                fillTile(c, cx, cy, bi, bj);
+            }
+        });
+        return c;
+    }
+
+    /**
+     * 并行计算记录表，然后回溯出LCS，结果与{@link LongestCommonSubsequence#findByDp(String, String)}相同
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     * @return 字符串A和字符串B的最长公共子序列，无则返回空字符串
+     */
+    public String findByDp(String x, String y) {
+        if (x == null || x.isEmpty() || y == null || y.isEmpty()) {
+            return "";
+        }
+        return LongestCommonSubsequence.traceback(calc(x, y), x, y);
+    }
+
+    /**
+     * 并行计算LCS的长度，只保存块的边界
+     * rows[bj]为第bj列块最近一次计算出的下边界，即c[r1][c0+1..c1]
+     * cols[bi]为第bi行块最近一次计算出的右边界，即c[r0..r1][c1]，其中cols[bi][0]为右上角的值
+     * 同一条反对角线上的块的bi和bj互不相同，所以每个块独占自己读写的rows[bj]和cols[bi]。
+     *
+     * @param x 字符串A
+     * @param y 字符串B
+     * @return 字符串A和字符串B的最长公共子序列的长度
+     */
+    public int length(String x, String y) {
+        if (x == null || x.isEmpty() || y == null || y.isEmpty()) {
+            return 0;
+        }
+        char[] cx = x.toCharArray();
+        char[] cy = y.toCharArray();
+        int tileRows = (cx.length + tileSize - 1) / tileSize;
+        int tileCols = (cy.length + tileSize - 1) / tileSize;
+        int[][] rows = new int[tileCols][];
+        int[][] cols = new int[tileRows][];
+        for (int bj = 0; bj < tileCols; bj++) {
+            rows[bj] = new int[Math.min(cy.length, (bj + 1) * tileSize) - bj * tileSize];
+        }
+        for (int bi = 0; bi < tileRows; bi++) {
+            cols[bi] = new int[Math.min(cx.length, (bi + 1) * tileSize) - bi * tileSize + 1];
+        }
+        wavefront(cx.length, cy.length, (bi, bj) -> new RecursiveAction() {
+            @Override
+            protected void compute() {
+                boundaryTile(rows[bj], cols[bi], cx, cy, bi, bj);
+            }
+        });
+        int[] last = rows[tileCols - 1];
+        return last[last.length - 1];
+    }
+
+    private interface TileFactory {
+        RecursiveAction create(int bi, int bj);
+    }
+
+    /**
+     * 按反对角线依次计算所有的块，同一条反对角线上的块并行计算
+     */
+    private void wavefront(int lenX, int lenY, TileFactory factory) {
+        int tileRows = (lenX + tileSize - 1) / tileSize;
+        int tileCols = (lenY + tileSize - 1) / tileSize;
+        for (int d = 0; d < tileRows + tileCols - 1; d++) {
+            List<RecursiveAction> tiles = new ArrayList<>();
+            for (int bi = Math.max(0, d - tileCols + 1); bi <= Math.min(d, tileRows - 1); bi++) {
+                tiles.add(factory.create(bi, d - bi));
+            }
+            if (tiles.size() == 1) {
+                tiles.get(0).invoke();
+            } else {
+                pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        ForkJoinTask.invokeAll(tiles);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * 在完整的记录表中计算块(bi,bj)
+     */
+    private void fillTile(int[][] c, char[] x, char[] y, int bi, int bj) {
+        int r0 = bi * tileSize + 1;
+        int r1 = Math.min(x.length, (bi + 1) * tileSize);
+        int c0 = bj * tileSize + 1;
+        int c1 = Math.min(y.length, (bj + 1) * tileSize);
+        for (int i = r0; i <= r1; i++) {
+            int[] prev = c[i - 1];
+            int[] curr = c[i];
+            char ch = x[i - 1];
+            for (int j = c0; j <= c1; j++) {
+                if (ch == y[j - 1]) {
+                    curr[j] = prev[j - 1] + 1;
+                } else {
+                    curr[j] = prev[j] > curr[j - 1] ? prev[j] : curr[j - 1];
+                }
+            }
+        }
+    }
+
+    /**
+     * 根据上边界和左边界计算块(bi,bj)，并原地写出下边界和右边界
+     *
+     * @param row 输入为上边界c[r0][c0+1..c1]，输出为下边界c[r1][c0+1..c1]
+     * @param col 输入为左边界c[r0..r1][c0]，输出为右边界c[r0..r1][c1]
+     */
+    private void boundaryTile(int[] row, int[] col, char[] x, char[] y, int bi, int bj) {
+        int r0 = bi * tileSize;
+        int c0 = bj * tileSize;
+        int height = col.length - 1;
+        int width = row.length;
+        // 右上角c[r0][c1]，即上边界的最后一个值
+        int right = row[width - 1];
+        for (int i = 1; i <= height; i++) {
+            char ch = x[r0 + i - 1];
+            // diagonal为c[i-1][j-1]，left为c[i][j-1]
+            int diagonal = col[i - 1];
+            int left = col[i];
+            // col[i-1]已经读取完毕，写入上一行的最后一个值作为右边界
+            col[i - 1] = right;
+            for (int j = 0; j < width; j++) {
+                int up = row[j];
+                int value;
+                if (ch == y[c0 + j]) {
+                    value = diagonal + 1;
+                } else {
+                    value = up > left ? up : left;
+                }
+                row[j] = value;
+                diagonal = up;
+                left = value;
+            }
+            right = left;
+        }
+        col[height] = right;
+    }
+}
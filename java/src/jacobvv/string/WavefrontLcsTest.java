@@ -0,0 +1,60 @@
+package jacobvv.string;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WavefrontLcsTest {
+
+    private String[][] inputs = new String[][]{
+            {"hello java", "java"},
+            {"best practice of algorithms.", "best practice of algorithms."},
+            {"world.", "abc"},
+            {"hello java", "world see aha."},
+            {"", "1"},
+            {null, ""},
+    };
+
+    @Test
+    void findByDpTest() {
+        LongestCommonSubsequence expected = new LongestCommonSubsequence();
+        for (int tileSize : new int[]{1, 3, 512}) {
+            WavefrontLcs target = new WavefrontLcs(ForkJoinPool.commonPool(), tileSize);
+            for (String[] input : inputs) {
+                assertEquals(expected.findByDp(input[0], input[1]),
+                        target.findByDp(input[0], input[1]));
+            }
+        }
+    }
+
+    @Test
+    void randomTest() {
+        // 长度不是块边长的整数倍，覆盖不完整的边缘块
+        Random random = new Random(5);
+        LongestCommonSubsequence expected = new LongestCommonSubsequence();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            WavefrontLcs target = new WavefrontLcs(pool, 7);
+            for (int n = 0; n < 20; n++) {
+                String x = randomString(random, 1 + random.nextInt(200));
+                String y = randomString(random, 1 + random.nextInt(200));
+                String lcs = expected.findByDp(x, y);
+                assertEquals(lcs, target.findByDp(x, y), "Inputs: " + x + ", " + y);
+                assertEquals(lcs.length(), target.length(x, y), "Inputs: " + x + ", " + y);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static String randomString(Random random, int len) {
+        StringBuilder sb = new StringBuilder(len);
+        for (int i = 0; i < len; i++) {
+            sb.append((char) ('a' + random.nextInt(4)));
+        }
+        return sb.toString();
+    }
+}